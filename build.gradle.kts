@@ -1,5 +1,7 @@
 plugins {
     id("java")
+    id("java-test-fixtures")
+    id("me.champeau.jmh") version "0.6.8"
     id("net.minecrell.plugin-yml.bukkit") version "0.5.2"
     id("io.papermc.paperweight.userdev") version "1.3.8"
     id("xyz.jpenilla.run-paper") version "1.0.6"
@@ -15,6 +17,14 @@ repositories {
     maven("https://libraries.minecraft.net")
 }
 
+sourceSets {
+    // Headless load simulation against the in-memory drivers, run with the simulate task
+    create("simulation") {
+        compileClasspath += sourceSets.main.get().output
+        runtimeClasspath += sourceSets.main.get().output
+    }
+}
+
 dependencies {
     testImplementation("org.junit.jupiter:junit-jupiter-api:5.9.0")
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.9.0")
@@ -24,6 +34,15 @@ dependencies {
     testAnnotationProcessor("org.projectlombok:lombok:1.18.24")
     paperDevBundle("1.19.2-R0.1-SNAPSHOT")
     implementation("org.postgresql:postgresql:42.5.0")
+    jmhImplementation(testFixtures(project))
+    "simulationImplementation"(testFixtures(project))
+}
+
+configurations {
+    // Fixtures and benchmarks run outside of a server, so the server classes are needed at runtime
+    testFixturesImplementation { extendsFrom(compileOnly.get()) }
+    jmhImplementation { extendsFrom(compileOnly.get()) }
+    getByName("simulationImplementation") { extendsFrom(implementation.get(), compileOnly.get()) }
 }
 
 tasks {
@@ -41,6 +60,12 @@ tasks {
     processResources {
         filteringCharset = Charsets.UTF_8.name() // We want UTF-8 for everything
     }
+    register<JavaExec>("simulate") {
+        group = "verification"
+        description = "Runs the load simulation, options are passed with --args=\"players=5000 ...\""
+        classpath = sourceSets["simulation"].runtimeClasspath
+        mainClass.set("de.lennox.permissions.simulation.LoadSimulator")
+    }
 }
 
 java {
@@ -56,6 +81,15 @@ bukkit {
     author = "Lennox"
 }
 
+jmh {
+    jmhVersion.set("1.35")
+    // Results are kept per label (e.g. -PjmhLabel=$(git rev-parse --short HEAD)) to compare commits
+    val label = findProperty("jmhLabel")?.toString() ?: "latest"
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results-$label.json"))
+    findProperty("jmhInclude")?.let { includes.set(listOf(it.toString())) }
+}
+
 tasks.getByName<Test>("test") {
     systemProperty("file.encoding", "utf-8")
     useJUnitPlatform()
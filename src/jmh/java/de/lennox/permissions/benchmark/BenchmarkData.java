@@ -0,0 +1,99 @@
+package de.lennox.permissions.benchmark;
+
+import de.lennox.permissions.database.model.PermissionGroup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Creates reproducible groups and permission queries for benchmarks
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+public class BenchmarkData {
+  // Power of two, so cursors can wrap around with a mask
+  public static final int QUERY_COUNT = 1024;
+  private static final int PLUGIN_COUNT = 20;
+
+  /**
+   * Creates a group with the given amount of allowed permissions, a tenth of that amount is denied
+   *
+   * @param name The group name
+   * @param size The amount of allowed permissions
+   * @param wildcardDensity The share of permissions which are wildcards
+   * @param seed The random seed
+   * @return The group
+   * @since 1.0.0
+   */
+  public static PermissionGroup createGroup(
+      String name, int size, double wildcardDensity, long seed) {
+    Random random = new Random(seed);
+    List<String> allowed = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      allowed.add(
+          random.nextDouble() < wildcardDensity
+              ? "plugin" + (i % PLUGIN_COUNT) + ".feature" + i + ".*"
+              : node(i));
+    }
+    List<String> denied = new ArrayList<>();
+    for (int i = 0; i < Math.max(1, size / 10); i++) {
+      denied.add("plugin" + (i % PLUGIN_COUNT) + ".denied" + i);
+    }
+    return new PermissionGroup(name, "", true, allowed, denied);
+  }
+
+  /**
+   * Creates permission queries for a group, half of them are granted directly or by a wildcard as
+   * the wildcard density of the group decides, a quarter is denied and a quarter is unknown to the
+   * group
+   *
+   * @param group The group
+   * @param seed The random seed
+   * @return The permission queries
+   * @since 1.0.0
+   */
+  public static String[] createQueries(PermissionGroup group, long seed) {
+    Random random = new Random(seed);
+    List<String> allowed = group.getAllowedPermissions();
+    List<String> denied = group.getDeniedPermissions();
+    String[] queries = new String[QUERY_COUNT];
+    for (int i = 0; i < queries.length; i++) {
+      int index = random.nextInt(allowed.size());
+      queries[i] =
+          switch (i % 4) {
+            case 0, 1 -> grantedQuery(allowed.get(index));
+            case 2 -> denied.get(index % denied.size());
+            default -> "unknown" + index + ".command";
+          };
+    }
+    return queries;
+  }
+
+  /**
+   * Returns a query granted by the given allowed permission
+   *
+   * @param permission The allowed permission
+   * @return The permission itself or a child node of a wildcard
+   * @since 1.0.0
+   */
+  private static String grantedQuery(String permission) {
+    // Wildcards are queried with a node below them
+    if (permission.endsWith(".*")) {
+      return permission.substring(0, permission.length() - 1) + "use";
+    }
+    return permission;
+  }
+
+  /**
+   * Returns the plain permission node with the given index
+   *
+   * @param index The index
+   * @return The permission node
+   * @since 1.0.0
+   */
+  private static String node(int index) {
+    return "plugin" + (index % PLUGIN_COUNT) + ".command.node" + index;
+  }
+}
@@ -0,0 +1,47 @@
+package de.lennox.permissions.benchmark;
+
+import de.lennox.permissions.database.model.PermissionGroup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Measures the cost of turning a permission into a regex pattern, uncached and cached
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PatternBenchmark {
+  private final PermissionGroup group =
+      new PermissionGroup("benchmark", "", false, List.of(), List.of());
+
+  @Param({"essentials.fly", "essentials.*", "*.command.*"})
+  private String permission;
+
+  @Benchmark
+  public Pattern compile() {
+    return Pattern.compile(group.createRegexFromInput(permission), Pattern.CASE_INSENSITIVE);
+  }
+
+  @Benchmark
+  public Pattern cached() {
+    return group.getPattern(permission);
+  }
+}
@@ -0,0 +1,88 @@
+package de.lennox.permissions.benchmark;
+
+import de.lennox.permissions.PlayerPermissionPlugin;
+import de.lennox.permissions.database.model.PermissionGroup;
+import de.lennox.permissions.database.model.PermittedPlayer;
+import de.lennox.permissions.fixture.PluginFixture;
+import de.lennox.permissions.permission.SimplePermissibleBase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the full permission check of a player, from {@link SimplePermissibleBase} through the
+ * player and group repositories down to the group
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PermissibleBenchmark {
+  @Param({"10", "1000"})
+  private int groupSize;
+
+  @Param({"0.1"})
+  private double wildcardDensity;
+
+  private PermittedPlayer permittedPlayer;
+  private SimplePermissibleBase permissible;
+  private String[] queries;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    PlayerPermissionPlugin plugin = PluginFixture.install();
+    PermissionGroup group =
+        BenchmarkData.createGroup("benchmark", groupSize, wildcardDensity, 42);
+    plugin.getGroupRepository().getCachedGroups().put(group.getName(), group);
+    plugin.getGroupRepository().setDefaultGroup(group);
+
+    UUID uuid = UUID.randomUUID();
+    permittedPlayer = new PermittedPlayer(uuid, group.getName(), -1);
+    plugin.getPlayerRepository().getCachedPlayers().put(uuid, permittedPlayer);
+    permissible = new SimplePermissibleBase(PluginFixture.createPlayer(uuid, "Benchmark"));
+
+    queries = BenchmarkData.createQueries(group, 7);
+    for (String query : queries) {
+      permissible.hasPermission(query);
+    }
+  }
+
+  @Benchmark
+  public boolean permittedPlayerIsPermissionSet(QueryCursor cursor) {
+    return permittedPlayer.isPermissionSet(queries[cursor.next()]);
+  }
+
+  @Benchmark
+  public boolean permissibleHasPermission(QueryCursor cursor) {
+    return permissible.hasPermission(queries[cursor.next()]);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public boolean permissibleHasPermissionContended(QueryCursor cursor) {
+    return permissible.hasPermission(queries[cursor.next()]);
+  }
+
+  @Benchmark
+  public boolean permissibleIsPermissionSet(QueryCursor cursor) {
+    return permissible.isPermissionSet(queries[cursor.next()]);
+  }
+}
@@ -0,0 +1,69 @@
+package de.lennox.permissions.benchmark;
+
+import de.lennox.permissions.database.model.PermissionGroup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PermissionGroup#hasPermission(String)} with a warm decision cache and with a
+ * miss on every check, across group sizes and wildcard densities
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PermissionGroupBenchmark {
+  @Param({"10", "100", "1000"})
+  private int groupSize;
+
+  @Param({"0.0", "0.1", "0.5"})
+  private double wildcardDensity;
+
+  private PermissionGroup group;
+  private String[] queries;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    group = BenchmarkData.createGroup("benchmark", groupSize, wildcardDensity, 42);
+    queries = BenchmarkData.createQueries(group, 7);
+    for (String query : queries) {
+      group.hasPermission(query);
+    }
+  }
+
+  @Benchmark
+  public boolean warmCheck(QueryCursor cursor) {
+    return group.hasPermission(queries[cursor.next()]);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public boolean warmCheckContended(QueryCursor cursor) {
+    return group.hasPermission(queries[cursor.next()]);
+  }
+
+  @Benchmark
+  public boolean coldCheck(QueryCursor cursor) {
+    String query = queries[cursor.next()];
+    group.invalidate(query);
+    return group.hasPermission(query);
+  }
+}
@@ -0,0 +1,26 @@
+package de.lennox.permissions.benchmark;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Walks through the benchmark queries per thread, so threads don't share a counter
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+@State(Scope.Thread)
+public class QueryCursor {
+  private int position;
+
+  /**
+   * Returns the next query index
+   *
+   * @return The index
+   * @since 1.0.0
+   */
+  public int next() {
+    position = (position + 1) & (BenchmarkData.QUERY_COUNT - 1);
+    return position;
+  }
+}
@@ -0,0 +1,37 @@
+package de.lennox.permissions.benchmark;
+
+import de.lennox.permissions.command.TimeInputFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing of time inputs like 30d 2m 27s
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimeInputBenchmark {
+  @Param({"30d", "30d 2m 27s", "1d 2d 3d 4m 5m 6s 7s x"})
+  private String input;
+
+  @Benchmark
+  public long parse() {
+    return TimeInputFormatter.parseTimeInput(input);
+  }
+}
@@ -1,28 +1,55 @@
 package de.lennox.permissions;
 
 import de.lennox.permissions.command.CommandRegistrar;
+import de.lennox.permissions.command.CommandSuggestionIndex;
+import de.lennox.permissions.command.PermsTabCompleter;
+import de.lennox.permissions.database.DatasetDriver;
 import de.lennox.permissions.database.PermissionDriver;
 import de.lennox.permissions.database.SignDriver;
+import de.lennox.permissions.database.builder.StatementProfiler;
 import de.lennox.permissions.database.postgres.PostgreSqlConfiguration;
+import de.lennox.permissions.database.postgres.PostgreSqlDatasetDriver;
 import de.lennox.permissions.database.postgres.PostgreSqlGateway;
 import de.lennox.permissions.database.postgres.PostgreSqlPermissionDriver;
 import de.lennox.permissions.database.postgres.PostgreSqlSignDriver;
+import de.lennox.permissions.group.GroupMemberPages;
 import de.lennox.permissions.group.PermissionGroupRepository;
 import de.lennox.permissions.listener.PlayerChatListener;
 import de.lennox.permissions.listener.PlayerSignListener;
 import de.lennox.permissions.listener.PlayerStateListener;
+import de.lennox.permissions.listener.WorldStateListener;
 import de.lennox.permissions.locale.LocalizationRepository;
+import de.lennox.permissions.metrics.PluginMetrics;
+import de.lennox.permissions.metrics.PrometheusEndpoint;
+import de.lennox.permissions.metrics.event.CacheLoadEvent;
+import de.lennox.permissions.metrics.event.PermissionCheckEvent;
+import de.lennox.permissions.metrics.event.RankExpirySweepEvent;
+import de.lennox.permissions.metrics.event.SignUpdatePassEvent;
+import de.lennox.permissions.metrics.event.StatementEvent;
+import de.lennox.permissions.permission.PermissibleBaseInjector;
+import de.lennox.permissions.permission.PermissionNodeIndex;
+import de.lennox.permissions.permission.VerboseTracer;
 import de.lennox.permissions.player.AutomaticRankAssigner;
 import de.lennox.permissions.player.PermittedPlayerRepository;
 import de.lennox.permissions.player.PlayerLanguageRepository;
 import de.lennox.permissions.sign.AutomaticSignTextUpdater;
 import de.lennox.permissions.sign.InformativeSignRepository;
+import de.lennox.permissions.sign.SignPersistenceQueue;
+import jdk.jfr.FlightRecorder;
 import lombok.Getter;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.PluginDescriptionFile;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
 
+import java.io.File;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
 
 /**
  * Bukkit Entrypoint for the Player Permission Plugin
@@ -32,15 +59,49 @@ import java.util.List;
  */
 @Getter
 public class PlayerPermissionPlugin extends JavaPlugin {
+  private static final long SIGN_FLUSH_TIMEOUT_SECONDS = 10;
   @Getter private static PlayerPermissionPlugin singleton;
   private PlayerLanguageRepository playerLanguageRepository;
   private PermittedPlayerRepository playerRepository;
   private PermissionGroupRepository groupRepository;
+  private GroupMemberPages memberPages;
   private CommandRegistrar commandRegistrar;
+  private CommandSuggestionIndex suggestionIndex;
+  private PermissionNodeIndex permissionNodeIndex;
+  private VerboseTracer verboseTracer;
+  private PermissibleBaseInjector permissibleBaseInjector;
   private PermissionDriver permissionDriver;
   private LocalizationRepository localization;
   private SignDriver signDriver;
+  private StatementProfiler statementProfiler;
+  private DatasetDriver datasetDriver;
   private InformativeSignRepository signRepository;
+  private AutomaticSignTextUpdater signTextUpdater;
+  private SignPersistenceQueue signPersistenceQueue;
+  private PrometheusEndpoint prometheusEndpoint;
+
+  /**
+   * Creates the plugin, used by the plugin class loader of the server
+   *
+   * @since 1.0.0
+   */
+  public PlayerPermissionPlugin() {
+    super();
+  }
+
+  /**
+   * Creates the plugin outside of a server, e.g. for test fixtures
+   *
+   * @param loader The plugin loader
+   * @param description The plugin description
+   * @param dataFolder The data folder
+   * @param file The plugin file
+   * @since 1.0.0
+   */
+  protected PlayerPermissionPlugin(
+      JavaPluginLoader loader, PluginDescriptionFile description, File dataFolder, File file) {
+    super(loader, description, dataFolder, file);
+  }
 
   @Override
   public void onLoad() {
@@ -51,7 +112,18 @@ public class PlayerPermissionPlugin extends JavaPlugin {
   public void onEnable() {
     saveDefaultConfig();
 
+    // Make the flight recorder events known to recordings before they first occur
+    List.of(
+            PermissionCheckEvent.class,
+            StatementEvent.class,
+            CacheLoadEvent.class,
+            SignUpdatePassEvent.class,
+            RankExpirySweepEvent.class)
+        .forEach(FlightRecorder::register);
+
     FileConfiguration config = getConfig();
+    this.statementProfiler =
+        new StatementProfiler(config.getLong("database.slow-query-millis", 250));
     PostgreSqlGateway postgreSqlGateway =
         new PostgreSqlGateway(
             PostgreSqlConfiguration.builder()
@@ -62,28 +134,91 @@ public class PlayerPermissionPlugin extends JavaPlugin {
                 .build());
     this.permissionDriver = new PostgreSqlPermissionDriver(postgreSqlGateway);
     this.signDriver = new PostgreSqlSignDriver(postgreSqlGateway);
+    this.datasetDriver = new PostgreSqlDatasetDriver(postgreSqlGateway);
 
     this.playerRepository = new PermittedPlayerRepository();
     this.groupRepository = new PermissionGroupRepository();
+    this.memberPages = new GroupMemberPages();
     this.signRepository = new InformativeSignRepository();
     this.localization = new LocalizationRepository();
     this.playerLanguageRepository = new PlayerLanguageRepository();
+    this.signTextUpdater =
+        new AutomaticSignTextUpdater(
+            config.getInt("signs.updates-per-tick", 40),
+            TimeUnit.MICROSECONDS.toNanos(config.getLong("signs.tick-budget-micros", 1000)));
+    this.signPersistenceQueue = new SignPersistenceQueue();
     this.commandRegistrar = new CommandRegistrar(this);
+    this.suggestionIndex = new CommandSuggestionIndex();
+    this.permissionNodeIndex = new PermissionNodeIndex();
+    this.verboseTracer = new VerboseTracer();
+    this.permissibleBaseInjector = new PermissibleBaseInjector();
 
     List.of(
             commandRegistrar,
+            permissionNodeIndex,
+            new PermsTabCompleter(),
             new PlayerChatListener(),
             new PlayerStateListener(),
-            new PlayerSignListener())
+            new PlayerSignListener(),
+            new WorldStateListener())
         .forEach(listener -> Bukkit.getPluginManager().registerEvents(listener, this));
 
     postgreSqlGateway.setup();
     this.commandRegistrar.setup();
     this.groupRepository.buildInitialCache();
-    this.signRepository.buildInitialCache();
+    this.suggestionIndex.loadPlayerNames();
+    // Groups loaded before the permissions were indexed only know the nodes of groups
+    this.groupRepository.materializeNodes(this.permissionNodeIndex.addRegisteredPermissions());
+    this.signRepository.loadLoadedWorlds();
     this.localization.load(config);
+    this.permissibleBaseInjector.setup();
+
+    // Players which are already online, e.g. after a reload, are set up like on join
+    for (Player player : Bukkit.getOnlinePlayers()) {
+      this.permissibleBaseInjector.injectIntoPlayer(player);
+      this.playerRepository.registerName(player.getUniqueId(), player.getName());
+      this.playerLanguageRepository.storeClientLocale(player.getUniqueId(), player.getLocale());
+      this.playerRepository.getPermittedPlayer(player.getUniqueId());
+    }
 
     new AutomaticRankAssigner().createTask();
-    new AutomaticSignTextUpdater().createTask();
+    this.signTextUpdater.createTask();
+    this.signPersistenceQueue.createTask();
+
+    // The metrics endpoint is opt-in, as it opens a port
+    if (config.getBoolean("metrics.prometheus.enabled", false)) {
+      this.prometheusEndpoint =
+          new PrometheusEndpoint(
+              PluginMetrics.REGISTRY,
+              config.getString("metrics.prometheus.host", "127.0.0.1"),
+              config.getInt("metrics.prometheus.port", 9464));
+      this.prometheusEndpoint.start();
+    }
+  }
+
+  @Override
+  public void onDisable() {
+    // Persist sign changes which are still queued before the server stops
+    if (signPersistenceQueue != null) {
+      try {
+        signPersistenceQueue.flush().get(SIGN_FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+      } catch (ExecutionException | TimeoutException e) {
+        getLogger().log(Level.SEVERE, "Could not persist the queued informative signs!", e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    if (datasetDriver != null) {
+      datasetDriver.close();
+    }
+    if (localization != null) {
+      localization.close();
+    }
+    if (prometheusEndpoint != null) {
+      prometheusEndpoint.stop();
+    }
+    if (verboseTracer != null) {
+      verboseTracer.close();
+    }
   }
 }
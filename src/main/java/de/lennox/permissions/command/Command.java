@@ -4,12 +4,18 @@ import com.mojang.brigadier.arguments.ArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.builder.RequiredArgumentBuilder;
 import de.lennox.permissions.PlayerPermissionPlugin;
+import de.lennox.permissions.database.model.PermittedPlayer;
+import de.lennox.permissions.locale.LocalizationRepository;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import net.minecraft.commands.CommandSourceStack;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
 
+import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * The parental command class for all created brigadier commands.
@@ -55,6 +61,32 @@ public abstract class Command {
     return RequiredArgumentBuilder.<CommandSourceStack, String>argument(label, type);
   }
 
+  /**
+   * Creates a requirement checking the given permission. Players are checked against the cached
+   * group permissions first, so filtering the command tree doesn't go through the permissible of
+   * the player for every node.
+   *
+   * @param permission The permission
+   * @return The requirement
+   * @since 1.0.0
+   */
+  protected Predicate<CommandSourceStack> requiresPermission(String permission) {
+    return stack -> {
+      CommandSender sender = stack.getBukkitSender();
+      if (sender instanceof Player player) {
+        Optional<PermittedPlayer> optionalPlayer =
+            PlayerPermissionPlugin.getSingleton()
+                .getPlayerRepository()
+                .getPermittedPlayerNoQuery(player.getUniqueId());
+        // Use the group state if the group sets the permission
+        if (optionalPlayer.isPresent() && optionalPlayer.get().isPermissionSet(permission)) {
+          return optionalPlayer.get().hasPermission(permission);
+        }
+      }
+      return sender.hasPermission(permission);
+    };
+  }
+
   /**
    * Resolves a players language and returns the localized message
    *
@@ -70,4 +102,40 @@ public abstract class Command {
         .getLocalization()
         .getMessage(permissions.getPlayerLanguageRepository().get(player), key);
   }
+
+  /**
+   * Resolves the language of a command sender and returns the localized message, senders which
+   * aren't players get the default language
+   *
+   * @param sender The command sender
+   * @param key The message key
+   * @return The localized message
+   * @since 1.0.0
+   */
+  protected String getLocalizedMessage(CommandSender sender, String key) {
+    // Only players can select a language
+    if (sender instanceof Player player) {
+      return getLocalizedMessage(player.getUniqueId(), key);
+    }
+    return PlayerPermissionPlugin.getSingleton()
+        .getLocalization()
+        .getMessage(LocalizationRepository.DEFAULT_LANGUAGE, key);
+  }
+
+  /**
+   * Resolves a players language and returns the localized message filled with the given arguments
+   *
+   * @param player The player
+   * @param key The message key
+   * @param args The message arguments
+   * @return The localized and formatted message
+   * @since 1.0.0
+   */
+  protected String getLocalizedMessage(UUID player, String key, Object... args) {
+    PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
+
+    return permissions
+        .getLocalization()
+        .format(permissions.getPlayerLanguageRepository().get(player), key, args);
+  }
 }
@@ -4,27 +4,40 @@ import com.destroystokyo.paper.brigadier.BukkitBrigadierCommandSource;
 import com.destroystokyo.paper.event.brigadier.CommandRegisteredEvent;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.tree.LiteralCommandNode;
+import de.lennox.permissions.PlayerPermissionPlugin;
 import de.lennox.permissions.command.brigadier.PermsBrigadierCommand;
 import de.lennox.permissions.command.brigadier.RankBrigadierCommand;
+import de.lennox.permissions.database.model.PermittedPlayer;
+import de.lennox.permissions.player.PermittedPlayerRepository;
 import lombok.RequiredArgsConstructor;
 import net.minecraft.commands.CommandSourceStack;
-import org.bukkit.Server;
-import org.bukkit.craftbukkit.v1_19_R1.CraftServer;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.Plugin;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Consumer;
+import java.util.logging.Level;
 
 /**
- * Registers the brigadier command(s) on server start-up
+ * Registers the brigadier command(s) on server start-up.
+ *
+ * <p>Commands are collected and inserted together, the command tree is only synced once after all
+ * commands have been inserted.
  *
  * @since 1.0.0
  * @author Lennox
  */
 @RequiredArgsConstructor
 public class CommandRegistrar implements Listener {
+  private static final String SYNC_COMMANDS_METHOD = "syncCommands";
   private final Plugin plugin;
+  private final List<Command> pendingCommands = new ArrayList<>();
 
   /**
    * Creates the brigadier command(s) for the permission system
@@ -34,22 +47,117 @@ public class CommandRegistrar implements Listener {
   public void setup() {
     registerBrigadierCommand(new PermsBrigadierCommand());
     registerBrigadierCommand(new RankBrigadierCommand());
+    flush();
   }
 
   /**
-   * Registers a given brigadier command
+   * Queues a given brigadier command for registration, commands are inserted on the next flush
    *
    * @param command The command
    * @since 1.0.0
    */
-  private void registerBrigadierCommand(Command command) {
-    insertBrigadierCommand(command.getLabel(), command.createBrigadierLiteral());
+  public void registerBrigadierCommand(Command command) {
+    pendingCommands.add(command);
   }
 
   /**
-   * Inserts the given brigadier command with label in the command map of the server.
+   * Inserts all queued commands in the command map of the server and syncs the command tree once
+   *
+   * @since 1.0.0
+   */
+  public void flush() {
+    // Nothing to sync if no command was queued
+    if (pendingCommands.isEmpty()) {
+      return;
+    }
+
+    for (Command command : pendingCommands) {
+      insertBrigadierCommand(command.getLabel(), command.createBrigadierLiteral());
+    }
+    pendingCommands.clear();
+    syncCommands();
+  }
+
+  /**
+   * Syncs the command tree of the server, the method is looked up on the server class so the sync
+   * doesn't depend on the craftbukkit version
+   *
+   * @since 1.0.0
+   */
+  private void syncCommands() {
+    try {
+      plugin.getServer().getClass().getMethod(SYNC_COMMANDS_METHOD).invoke(plugin.getServer());
+    } catch (ReflectiveOperationException e) {
+      plugin.getLogger().log(Level.WARNING, "Could not sync the command tree of the server!", e);
+    }
+  }
+
+  /**
+   * Resends the command tree to a player, used after the permissions of the player changed
    *
-   * <p>Automatically syncs commands after insertion
+   * @param player The player uuid
+   * @since 1.0.0
+   */
+  public void updateCommands(UUID player) {
+    Bukkit.getScheduler()
+        .runTask(
+            plugin,
+            () -> {
+              Player onlinePlayer = Bukkit.getPlayer(player);
+              // Offline players receive the command tree on join
+              if (onlinePlayer != null) {
+                onlinePlayer.updateCommands();
+              }
+            });
+  }
+
+  /**
+   * Resends the command tree to all online players, used after the whole dataset was replaced
+   *
+   * @since 1.0.0
+   */
+  public void updateAllCommands() {
+    Bukkit.getScheduler()
+        .runTask(plugin, () -> Bukkit.getOnlinePlayers().forEach(Player::updateCommands));
+  }
+
+  /**
+   * Resends the command tree to all online players of a group, used after the permissions of the
+   * group changed
+   *
+   * @param group The group name
+   * @since 1.0.0
+   */
+  public void updateGroupCommands(String group) {
+    PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
+    boolean defaultGroup =
+        permissions
+            .getGroupRepository()
+            .getDefaultGroup()
+            .map(permissionGroup -> permissionGroup.getName().equals(group))
+            .orElse(false);
+    Bukkit.getScheduler()
+        .runTask(
+            plugin,
+            () -> {
+              PermittedPlayerRepository players = permissions.getPlayerRepository();
+              for (Player player : Bukkit.getOnlinePlayers()) {
+                Optional<PermittedPlayer> optionalPlayer =
+                    players.getPermittedPlayerNoQuery(player.getUniqueId());
+                // Only players of the group or the default group are affected
+                if (optionalPlayer.isEmpty()) {
+                  continue;
+                }
+                String playerGroup = optionalPlayer.get().getGroup();
+                if (playerGroup.equals(group) || (playerGroup.isEmpty() && defaultGroup)) {
+                  player.updateCommands();
+                }
+              }
+            });
+  }
+
+  /**
+   * Inserts the given brigadier command with label in the command map of the server.
    *
    * @param label The command label / name
    * @param command The brigadier command
@@ -58,9 +166,7 @@ public class CommandRegistrar implements Listener {
   private void insertBrigadierCommand(
       String label, Consumer<LiteralArgumentBuilder<CommandSourceStack>> command) {
     PaperBrigadierCommand paperBrigadierCommand = new PaperBrigadierCommand(label, command, plugin);
-    Server server = plugin.getServer();
-    server.getCommandMap().register(plugin.getName(), paperBrigadierCommand);
-    ((CraftServer) server).syncCommands();
+    plugin.getServer().getCommandMap().register(plugin.getName(), paperBrigadierCommand);
   }
 
   /**
@@ -0,0 +1,58 @@
+package de.lennox.permissions.command;
+
+import de.lennox.permissions.PlayerPermissionPlugin;
+import lombok.Getter;
+
+import java.util.Collection;
+
+/**
+ * Prefix indexes over group names and known player names used for command suggestions. Permission
+ * nodes are suggested from the {@link de.lennox.permissions.permission.PermissionNodeIndex}.
+ *
+ * <p>The group index is immutable and replaced as a whole on change. Player names only grow, they
+ * are inserted into a concurrent index, so joins never sort all known names again. Both can be
+ * served from any thread without locking. Offline players are only loaded up to {@link
+ * #MAX_LOADED_NAMES} names to bound the memory of large servers.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+@Getter
+public class CommandSuggestionIndex {
+  private static final int MAX_LOADED_NAMES = 50_000;
+  private volatile PrefixIndex groups = PrefixIndex.EMPTY;
+  private final ConcurrentPrefixIndex players = new ConcurrentPrefixIndex();
+
+  /**
+   * Replaces the indexed group names
+   *
+   * @param groupNames The group names
+   * @since 1.0.0
+   */
+  public void updateGroups(Collection<String> groupNames) {
+    this.groups = PrefixIndex.of(groupNames);
+  }
+
+  /**
+   * Adds known player names to the index
+   *
+   * @param names The player names
+   * @since 1.0.0
+   */
+  public void addPlayerNames(Collection<String> names) {
+    players.addAll(names);
+  }
+
+  /**
+   * Loads the last known names of offline players from the database, up to {@link
+   * #MAX_LOADED_NAMES} names
+   *
+   * @since 1.0.0
+   */
+  public void loadPlayerNames() {
+    PlayerPermissionPlugin.getSingleton()
+        .getPermissionDriver()
+        .queryPlayerNames(MAX_LOADED_NAMES)
+        .whenComplete((optionalNames, t) -> optionalNames.ifPresent(this::addPlayerNames));
+  }
+}
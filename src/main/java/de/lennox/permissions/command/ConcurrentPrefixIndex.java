@@ -0,0 +1,67 @@
+package de.lennox.permissions.command;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Growing case-insensitive prefix index over a set of strings.
+ *
+ * <p>Entries are kept in a skip list sorted by their lower case form, so adding an entry only
+ * inserts it instead of sorting all entries again. Lookups and additions can happen on any thread
+ * without locking.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+public class ConcurrentPrefixIndex {
+  // The lower case form of every entry mapped to the entry
+  private final ConcurrentSkipListMap<String, String> entries = new ConcurrentSkipListMap<>();
+
+  /**
+   * Adds the given entries, entries only differing in case replace each other
+   *
+   * @param values The entries
+   * @since 1.0.0
+   */
+  public void addAll(Collection<String> values) {
+    for (String value : values) {
+      entries.put(value.toLowerCase(Locale.ROOT), value);
+    }
+  }
+
+  /**
+   * Gets all entries starting with the given prefix, ignoring case
+   *
+   * @param prefix The prefix
+   * @param limit The maximum amount of entries
+   * @return The matching entries in alphabetical order
+   * @since 1.0.0
+   */
+  public List<String> startingWith(String prefix, int limit) {
+    String key = prefix.toLowerCase(Locale.ROOT);
+    NavigableMap<String, String> matching = entries.subMap(key, true, key + '\uffff', true);
+    List<String> matches = new ArrayList<>();
+    for (String value : matching.values()) {
+      // Stop once enough entries are collected
+      if (matches.size() >= limit) {
+        break;
+      }
+      matches.add(value);
+    }
+    return matches;
+  }
+
+  /**
+   * Returns the amount of indexed entries
+   *
+   * @return The size
+   * @since 1.0.0
+   */
+  public int size() {
+    return entries.size();
+  }
+}
@@ -0,0 +1,77 @@
+package de.lennox.permissions.command;
+
+import com.destroystokyo.paper.event.server.AsyncTabCompleteEvent;
+import de.lennox.permissions.PlayerPermissionPlugin;
+import org.bukkit.command.CommandSender;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Serves the player and group name suggestions of /perms asynchronously from the suggestion
+ * indexes, before the command is parsed by brigadier.
+ *
+ * <p>Only the name arguments following the player and group literals are completed here, as they
+ * are served by the large prefix indexes. Everything else is left to the brigadier command, which
+ * owns the grammar and its permission requirements.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+public class PermsTabCompleter implements Listener {
+  private static final String LABEL = "perms";
+  private static final int SUGGESTION_LIMIT = 100;
+
+  @EventHandler
+  private void onAsyncTabComplete(AsyncTabCompleteEvent event) {
+    // Only complete commands which weren't completed by others
+    if (!event.isCommand() || event.isHandled()) {
+      return;
+    }
+
+    String buffer = event.getBuffer();
+    String commandLine = buffer.startsWith("/") ? buffer.substring(1) : buffer;
+    String[] tokens = commandLine.split(" ", -1);
+    String label = tokens[0].toLowerCase(Locale.ROOT);
+    // Only handle the name argument of the /perms command, with or without namespace
+    if (tokens.length != 3 || !(label.equals(LABEL) || label.endsWith(":" + LABEL))) {
+      return;
+    }
+
+    List<String> completions = complete(event.getSender(), tokens[1], tokens[2]);
+    // Other arguments are completed by brigadier
+    if (completions == null) {
+      return;
+    }
+    event.setCompletions(completions);
+    event.setHandled(true);
+  }
+
+  /**
+   * Completes the name argument following the player or group literal of the /perms command
+   *
+   * @param sender The command sender
+   * @param literal The literal preceding the name
+   * @param typed The name being typed
+   * @return The completions or null if the literal isn't followed by a name
+   * @since 1.0.0
+   */
+  private List<String> complete(CommandSender sender, String literal, String typed) {
+    boolean player = literal.equals("player");
+    // Only names are served from the indexes
+    if (!player && !literal.equals("group")) {
+      return null;
+    }
+    // Don't reveal anything to senders without access to the command
+    if (!sender.hasPermission("permissions.command.perms")) {
+      return List.of();
+    }
+
+    CommandSuggestionIndex index = PlayerPermissionPlugin.getSingleton().getSuggestionIndex();
+    return player
+        ? index.getPlayers().startingWith(typed, SUGGESTION_LIMIT)
+        : index.getGroups().startingWith(typed, SUGGESTION_LIMIT);
+  }
+}
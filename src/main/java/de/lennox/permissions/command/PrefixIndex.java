@@ -0,0 +1,97 @@
+package de.lennox.permissions.command;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable case-insensitive prefix index over a set of strings.
+ *
+ * <p>Entries are kept in an array sorted by their lower case form, prefix lookups are a binary
+ * search for the first match followed by a scan over the matching range.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+public class PrefixIndex {
+  public static final PrefixIndex EMPTY = new PrefixIndex(new String[0], new String[0]);
+  private final String[] keys;
+  private final String[] values;
+
+  private PrefixIndex(String[] keys, String[] values) {
+    this.keys = keys;
+    this.values = values;
+  }
+
+  /**
+   * Creates a prefix index over the given entries
+   *
+   * @param entries The entries
+   * @return The prefix index
+   * @since 1.0.0
+   */
+  public static PrefixIndex of(Collection<String> entries) {
+    String[] values = entries.stream().distinct().toArray(String[]::new);
+    Arrays.sort(values, Comparator.comparing((String value) -> value.toLowerCase(Locale.ROOT)));
+    String[] keys = new String[values.length];
+    for (int i = 0; i < values.length; i++) {
+      keys[i] = values[i].toLowerCase(Locale.ROOT);
+    }
+    return new PrefixIndex(keys, values);
+  }
+
+  /**
+   * Gets all entries starting with the given prefix, ignoring case
+   *
+   * @param prefix The prefix
+   * @param limit The maximum amount of entries
+   * @return The matching entries in alphabetical order
+   * @since 1.0.0
+   */
+  public List<String> startingWith(String prefix, int limit) {
+    String key = prefix.toLowerCase(Locale.ROOT);
+    List<String> matches = new ArrayList<>();
+    for (int i = lowerBound(key); i < keys.length && matches.size() < limit; i++) {
+      // The matching range ends with the first key not starting with the prefix
+      if (!keys[i].startsWith(key)) {
+        break;
+      }
+      matches.add(values[i]);
+    }
+    return matches;
+  }
+
+  /**
+   * Returns the amount of indexed entries
+   *
+   * @return The size
+   * @since 1.0.0
+   */
+  public int size() {
+    return keys.length;
+  }
+
+  /**
+   * Finds the index of the first key which is greater than or equal to the given key
+   *
+   * @param key The key
+   * @return The index
+   * @since 1.0.0
+   */
+  private int lowerBound(String key) {
+    int low = 0;
+    int high = keys.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (keys[middle].compareTo(key) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+}
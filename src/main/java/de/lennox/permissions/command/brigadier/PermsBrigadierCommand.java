@@ -1,26 +1,52 @@
 package de.lennox.permissions.command.brigadier;
 
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.builder.RequiredArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.suggestion.SuggestionProvider;
 import de.lennox.permissions.PlayerPermissionPlugin;
 import de.lennox.permissions.command.Command;
 import de.lennox.permissions.command.TimeInputFormatter;
-import de.lennox.permissions.database.PermissionDriver;
+import de.lennox.permissions.database.model.GroupStatistic;
+import de.lennox.permissions.database.model.PermissionChange;
 import de.lennox.permissions.database.model.PermissionGroup;
 import de.lennox.permissions.database.model.PermittedPlayer;
+import de.lennox.permissions.database.model.StatementStatistic;
+import de.lennox.permissions.group.GroupMemberPages;
+import de.lennox.permissions.group.PermissionGroupEdit;
+import de.lennox.permissions.group.PermissionGroupRepository;
+import de.lennox.permissions.metrics.Counter;
+import de.lennox.permissions.metrics.Histogram;
+import de.lennox.permissions.metrics.Metric;
+import de.lennox.permissions.metrics.MetricsRegistry;
+import de.lennox.permissions.metrics.PluginMetrics;
+import de.lennox.permissions.permission.PermissionNodeIndex;
+import de.lennox.permissions.permission.VerboseTracer;
 import de.lennox.permissions.player.PermittedPlayerRepository;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.minecraft.commands.CommandSourceStack;
 import org.bukkit.Bukkit;
-import org.bukkit.OfflinePlayer;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
+import java.util.logging.Level;
 
+import static com.mojang.brigadier.arguments.IntegerArgumentType.getInteger;
+import static com.mojang.brigadier.arguments.IntegerArgumentType.integer;
 import static com.mojang.brigadier.arguments.StringArgumentType.*;
 
 /**
@@ -30,6 +56,16 @@ import static com.mojang.brigadier.arguments.StringArgumentType.*;
  * @author Lennox
  */
 public class PermsBrigadierCommand extends Command {
+  private static final int SUGGESTION_LIMIT = 100;
+  private static final String IMPORT_FOLDER = "plugins/PlayerPermissions/imports/";
+  private static final String DATASET_FOLDER = "plugins/PlayerPermissions/datasets/";
+  private static final int MAX_MEMBER_PAGE = 1_000_000;
+  private static final int TOP_STATEMENTS = 10;
+  private static final int HOT_PERMISSION_NODES = 20;
+  private static final String ALL_PLAYERS = "all";
+  private static final DateTimeFormatter DATASET_NAME_FORMATTER =
+      DateTimeFormatter.ofPattern("'dataset-'yyyyMMdd-HHmmss'.perms'");
+
   public PermsBrigadierCommand() {
     super("perms");
   }
@@ -44,8 +80,13 @@ public class PermsBrigadierCommand extends Command {
   public Consumer<LiteralArgumentBuilder<CommandSourceStack>> createBrigadierLiteral() {
     return literal ->
         literal
-            .requires(stack -> stack.getBukkitSender().hasPermission("permissions.command.perms"))
+            .requires(requiresPermission("permissions.command.perms"))
             .then(createLanguageSubCommand())
+            .then(createReloadSubCommand())
+            .then(createExportSubCommand())
+            .then(createImportSubCommand())
+            .then(createStatsSubCommand())
+            .then(createVerboseSubCommand())
             .then(createUserSubCommands())
             .then(createGroupSubCommands());
   }
@@ -62,17 +103,14 @@ public class PermsBrigadierCommand extends Command {
     return literal("language")
         .then(
             argument("lang", string())
-                .requires(
-                    stack ->
-                        stack.getBukkitSender().hasPermission("permissions.command.perms.lang"))
+                .requires(requiresPermission("permissions.command.perms.lang"))
                 .suggests(
                     (ctx, builder) -> {
                       for (String language :
-                          PlayerPermissionPlugin.getSingleton()
-                              .getLocalization()
-                              .getLocaleCache()
-                              .keySet()) {
-                        builder.suggest(language);
+                          PlayerPermissionPlugin.getSingleton().getLocalization().getLanguages()) {
+                        if (language.startsWith(builder.getRemainingLowerCase())) {
+                          builder.suggest(language);
+                        }
                       }
                       return builder.buildFuture();
                     })
@@ -84,9 +122,22 @@ public class PermsBrigadierCommand extends Command {
                       // Only process player execution
                       if (sender instanceof Player player) {
                         UUID uuid = player.getUniqueId();
-                        PlayerPermissionPlugin.getSingleton()
-                            .getPlayerLanguageRepository()
-                            .store(uuid, lang);
+                        PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
+                        List<String> languages = permissions.getLocalization().getLanguages();
+                        // Only configured languages are stored
+                        if (!languages.contains(lang)) {
+                          sender.sendMessage(
+                              Component.text(
+                                  getLocalizedMessage(
+                                      uuid,
+                                      "command.perms.language.unknown",
+                                      lang,
+                                      String.join(", ", languages)),
+                                  NamedTextColor.RED));
+                          return 1;
+                        }
+                        permissions.getPlayerLanguageRepository().store(uuid, lang);
+                        permissions.getSignTextUpdater().markDirty(uuid);
                         sender.sendMessage(
                             Component.text(
                                 getLocalizedMessage(uuid, "command.perms.language.success"),
@@ -96,6 +147,626 @@ public class PermsBrigadierCommand extends Command {
                     }));
   }
 
+  /**
+   * Creates the reload sub command which reloads the language bundles without a restart
+   *
+   * @return The reload sub command
+   * @since 1.0.0
+   */
+  private LiteralArgumentBuilder<CommandSourceStack> createReloadSubCommand() {
+    return literal("reload")
+        .requires(requiresPermission("permissions.command.perms.reload"))
+        .executes(
+            context -> {
+              // The console can reload the bundles as well
+              CommandSender sender = context.getSource().getBukkitSender();
+              PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
+              permissions
+                  .getLocalization()
+                  .reload()
+                  .thenAccept(
+                      success -> {
+                        // Signs show localized text, so they have to be re-sent
+                        if (success) {
+                          permissions.getSignTextUpdater().markAllDirty();
+                        }
+                        sender.sendMessage(
+                            Component.text(
+                                getLocalizedMessage(
+                                    sender,
+                                    success
+                                        ? "command.perms.reload.success"
+                                        : "command.perms.reload.failed"),
+                                success ? NamedTextColor.AQUA : NamedTextColor.RED));
+                      });
+              return 1;
+            });
+  }
+
+  /**
+   * Creates the export sub command which streams the whole dataset into an archive in the datasets
+   * folder, the archive name defaults to the current time
+   *
+   * @return The export sub command
+   * @since 1.0.0
+   */
+  private LiteralArgumentBuilder<CommandSourceStack> createExportSubCommand() {
+    return literal("export")
+        .requires(requiresPermission("permissions.command.perms.export"))
+        .executes(
+            context ->
+                exportDataset(context, LocalDateTime.now().format(DATASET_NAME_FORMATTER)))
+        .then(
+            argument("file", string())
+                .executes(
+                    context ->
+                        exportDataset(context, context.getArgument("file", String.class))));
+  }
+
+  /**
+   * Creates the import sub command which replaces the whole dataset with an archive from the
+   * datasets folder and reloads all caches afterwards. The import locks all permission tables
+   * until it has finished, so it only starts once it is confirmed.
+   *
+   * @return The import sub command
+   * @since 1.0.0
+   */
+  private LiteralArgumentBuilder<CommandSourceStack> createImportSubCommand() {
+    return literal("import")
+        .requires(requiresPermission("permissions.command.perms.import"))
+        .then(
+            argument("file", string())
+                .executes(
+                    context ->
+                        importDataset(context, context.getArgument("file", String.class), false))
+                .then(
+                    literal("confirm")
+                        .executes(
+                            context ->
+                                importDataset(
+                                    context, context.getArgument("file", String.class), true))));
+  }
+
+  /**
+   * Internal method to import the dataset after command execution
+   *
+   * @param context The command execution context
+   * @param fileName The archive file name
+   * @param confirmed Whether the import was confirmed
+   * @return The command result
+   * @since 1.0.0
+   */
+  private int importDataset(
+      CommandContext<CommandSourceStack> context, String fileName, boolean confirmed) {
+    CommandSender sender = context.getSource().getBukkitSender();
+
+    // Only process player execution
+    if (sender instanceof Player player) {
+      UUID uuid = player.getUniqueId();
+      Optional<Path> optionalFile = resolveDatasetFile(fileName);
+      // Only import existing archives inside the datasets folder
+      if (optionalFile.isEmpty() || !Files.isRegularFile(optionalFile.get())) {
+        sender.sendMessage(
+            Component.text(
+                getLocalizedMessage(uuid, "command.perms.dataset.not_found", fileName),
+                NamedTextColor.RED));
+        return 1;
+      }
+      // Joins, chat and signs wait for the import, so it has to be confirmed first
+      if (!confirmed) {
+        sender.sendMessage(
+            Component.text(
+                getLocalizedMessage(uuid, "command.perms.import.confirm", fileName, fileName),
+                NamedTextColor.GOLD));
+        return 1;
+      }
+
+      PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
+      sender.sendMessage(
+          Component.text(
+              getLocalizedMessage(uuid, "command.perms.import.started"), NamedTextColor.GRAY));
+      permissions
+          .getDatasetDriver()
+          .importDataset(optionalFile.get())
+          .thenAccept(
+              optionalRows -> {
+                // Caches only have to be rebuilt if the dataset changed
+                if (optionalRows.isEmpty()) {
+                  sender.sendMessage(
+                      Component.text(
+                          getLocalizedMessage(uuid, "command.perms.import.failed"),
+                          NamedTextColor.RED));
+                  return;
+                }
+
+                reloadDataset();
+                sender.sendMessage(
+                    Component.text(
+                        getLocalizedMessage(
+                            uuid, "command.perms.import.success", optionalRows.get(), fileName),
+                        NamedTextColor.AQUA));
+              });
+    }
+    return 1;
+  }
+
+  /**
+   * Internal method to export the dataset after command execution
+   *
+   * @param context The command execution context
+   * @param fileName The archive file name
+   * @return The command result
+   * @since 1.0.0
+   */
+  private int exportDataset(CommandContext<CommandSourceStack> context, String fileName) {
+    CommandSender sender = context.getSource().getBukkitSender();
+
+    // Only process player execution
+    if (sender instanceof Player player) {
+      UUID uuid = player.getUniqueId();
+      Optional<Path> optionalFile = resolveDatasetFile(fileName);
+      // Never write outside the datasets folder
+      if (optionalFile.isEmpty()) {
+        sender.sendMessage(
+            Component.text(
+                getLocalizedMessage(uuid, "command.perms.dataset.not_found", fileName),
+                NamedTextColor.RED));
+        return 1;
+      }
+
+      sender.sendMessage(
+          Component.text(
+              getLocalizedMessage(uuid, "command.perms.export.started"), NamedTextColor.GRAY));
+      PlayerPermissionPlugin.getSingleton()
+          .getDatasetDriver()
+          .exportDataset(optionalFile.get())
+          .thenAccept(
+              optionalRows ->
+                  sender.sendMessage(
+                      optionalRows
+                          .map(
+                              rows ->
+                                  Component.text(
+                                      getLocalizedMessage(
+                                          uuid, "command.perms.export.success", rows, fileName),
+                                      NamedTextColor.AQUA))
+                          .orElseGet(
+                              () ->
+                                  Component.text(
+                                      getLocalizedMessage(uuid, "command.perms.export.failed"),
+                                      NamedTextColor.RED))));
+    }
+    return 1;
+  }
+
+  /**
+   * Resolves a file name inside the datasets folder
+   *
+   * @param fileName The file name
+   * @return The optional file, empty if the name points outside the datasets folder
+   * @since 1.0.0
+   */
+  private Optional<Path> resolveDatasetFile(String fileName) {
+    Path datasetFolder = Path.of(DATASET_FOLDER).toAbsolutePath().normalize();
+    Path datasetFile = datasetFolder.resolve(fileName).normalize();
+    // Reject names like ../config.yml
+    if (!datasetFile.startsWith(datasetFolder) || datasetFile.equals(datasetFolder)) {
+      return Optional.empty();
+    }
+    return Optional.of(datasetFile);
+  }
+
+  /**
+   * Rebuilds all caches from the database after the dataset was replaced
+   *
+   * @since 1.0.0
+   */
+  private void reloadDataset() {
+    PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
+    CompletableFuture.allOf(
+            permissions.getGroupRepository().buildInitialCache(),
+            permissions.getPlayerRepository().reloadCachedPlayers())
+        .thenRun(() -> permissions.getCommandRegistrar().updateAllCommands());
+    permissions.getSuggestionIndex().loadPlayerNames();
+    Bukkit.getScheduler()
+        .runTask(
+            permissions,
+            () -> {
+              permissions.getSignRepository().reloadLoadedWorlds();
+              permissions.getSignTextUpdater().markAllDirty();
+            });
+  }
+
+  /**
+   * Creates the stats sub command which shows how many players hold each group, the metrics sub
+   * command shows the metrics of the plugin, the queries sub command the most expensive statements
+   * and the nodes sub command the most checked permission nodes
+   *
+   * @return The stats sub command
+   * @since 1.0.0
+   */
+  private LiteralArgumentBuilder<CommandSourceStack> createStatsSubCommand() {
+    return literal("stats")
+        .requires(requiresPermission("permissions.command.perms.stats"))
+        .then(
+            literal("metrics")
+                .executes(
+                    context -> {
+                      CommandSender sender = context.getSource().getBukkitSender();
+
+                      // Only process player execution
+                      if (sender instanceof Player player) {
+                        sender.sendMessage(parseMetricsComponent(player.getUniqueId()));
+                      }
+                      return 1;
+                    }))
+        .then(
+            literal("queries")
+                .executes(
+                    context -> {
+                      CommandSender sender = context.getSource().getBukkitSender();
+
+                      // Only process player execution
+                      if (sender instanceof Player player) {
+                        sender.sendMessage(parseStatementsComponent(player.getUniqueId()));
+                      }
+                      return 1;
+                    }))
+        .then(
+            literal("nodes")
+                .executes(
+                    context -> {
+                      CommandSender sender = context.getSource().getBukkitSender();
+
+                      // Only process player execution
+                      if (sender instanceof Player player) {
+                        sender.sendMessage(parsePermissionNodesComponent(player.getUniqueId()));
+                      }
+                      return 1;
+                    }))
+        .executes(
+            context -> {
+              CommandSender sender = context.getSource().getBukkitSender();
+
+              // Only process player execution
+              if (sender instanceof Player player) {
+                UUID uuid = player.getUniqueId();
+                PlayerPermissionPlugin.getSingleton()
+                    .getPermissionDriver()
+                    .queryGroupStatistics()
+                    .thenAccept(
+                        optionalStatistics -> {
+                          // Notify player that the statistics could not be queried
+                          if (optionalStatistics.isEmpty()) {
+                            sender.sendMessage(
+                                Component.text(
+                                    getLocalizedMessage(uuid, "command.perms.stats.failed"),
+                                    NamedTextColor.RED));
+                            return;
+                          }
+                          sender.sendMessage(
+                              parseStatisticsComponent(uuid, optionalStatistics.get()));
+                        });
+              }
+              return 1;
+            });
+  }
+
+  /**
+   * Creates the verbose sub command which traces the permission checks of one or all players,
+   * optionally filtered by node, into the chat or into a file in the verbose folder
+   *
+   * <p>Without arguments a running trace is stopped, otherwise all checks are traced into the chat.
+   *
+   * @return The verbose sub command
+   * @since 1.0.0
+   */
+  private LiteralArgumentBuilder<CommandSourceStack> createVerboseSubCommand() {
+    return literal("verbose")
+        .requires(requiresPermission("permissions.command.perms.verbose"))
+        .executes(
+            context -> {
+              CommandSender sender = context.getSource().getBukkitSender();
+
+              // Only process player execution
+              if (sender instanceof Player player) {
+                VerboseTracer tracer = PlayerPermissionPlugin.getSingleton().getVerboseTracer();
+                // The issuer is notified by the tracer once the trace is stopped
+                if (tracer.stop(player.getUniqueId())) {
+                  return 1;
+                }
+                startVerbose(context, false, ALL_PLAYERS, null);
+              }
+              return 1;
+            })
+        .then(
+            literal("file")
+                .executes(context -> startVerbose(context, true, ALL_PLAYERS, null))
+                .then(createVerboseTargetArgument(true)))
+        .then(createVerboseTargetArgument(false));
+  }
+
+  /**
+   * Creates the traced player and node filter arguments of the verbose sub command
+   *
+   * @param file Defines if the checks are traced into a file instead of the chat
+   * @return The traced player argument
+   * @since 1.0.0
+   */
+  private RequiredArgumentBuilder<CommandSourceStack, String> createVerboseTargetArgument(
+      boolean file) {
+    return argument("player", word())
+        .suggests(
+            (ctx, builder) -> {
+              String remaining = builder.getRemaining();
+              if (ALL_PLAYERS.startsWith(remaining)) {
+                builder.suggest(ALL_PLAYERS);
+              }
+              for (Player player : Bukkit.getOnlinePlayers()) {
+                if (player.getName().regionMatches(true, 0, remaining, 0, remaining.length())) {
+                  builder.suggest(player.getName());
+                }
+              }
+              return builder.buildFuture();
+            })
+        .executes(
+            context ->
+                startVerbose(context, file, context.getArgument("player", String.class), null))
+        .then(
+            argument("filter", greedyString())
+                .suggests(suggestPermissionNodes())
+                .executes(
+                    context ->
+                        startVerbose(
+                            context,
+                            file,
+                            context.getArgument("player", String.class),
+                            context.getArgument("filter", String.class))));
+  }
+
+  /**
+   * Internal method to start tracing permission checks after command execution
+   *
+   * @param context The command execution context
+   * @param file Defines if the checks are traced into a file instead of the chat
+   * @param targetName The name of the traced player or all
+   * @param filter The node filter or null to trace all nodes
+   * @return The command result
+   * @since 1.0.0
+   */
+  private int startVerbose(
+      CommandContext<CommandSourceStack> context, boolean file, String targetName, String filter) {
+    CommandSender sender = context.getSource().getBukkitSender();
+
+    // Only process player execution
+    if (sender instanceof Player player) {
+      UUID uuid = player.getUniqueId();
+      UUID target = null;
+      if (!targetName.equalsIgnoreCase(ALL_PLAYERS)) {
+        Player targetPlayer = Bukkit.getPlayerExact(targetName);
+        // Only online players do permission checks
+        if (targetPlayer == null) {
+          sender.sendMessage(
+              Component.text(
+                  getLocalizedMessage(uuid, "command.perms.player_not_found"),
+                  NamedTextColor.RED));
+          return 1;
+        }
+        target = targetPlayer.getUniqueId();
+      }
+
+      String nodeFilter = filter == null ? null : filter.toLowerCase(Locale.ENGLISH);
+      String filterName = nodeFilter == null ? "*" : nodeFilter;
+      VerboseTracer tracer = PlayerPermissionPlugin.getSingleton().getVerboseTracer();
+      if (!file) {
+        tracer.startChat(player, target, nodeFilter);
+        sender.sendMessage(
+            Component.text(
+                getLocalizedMessage(uuid, "command.perms.verbose.started", targetName, filterName),
+                NamedTextColor.AQUA));
+        return 1;
+      }
+
+      Optional<Path> optionalFile = tracer.startFile(player, target, nodeFilter);
+      // Notify player that the trace file could not be created
+      if (optionalFile.isEmpty()) {
+        sender.sendMessage(
+            Component.text(
+                getLocalizedMessage(uuid, "command.perms.verbose.failed"), NamedTextColor.RED));
+        return 1;
+      }
+      sender.sendMessage(
+          Component.text(
+              getLocalizedMessage(
+                  uuid,
+                  "command.perms.verbose.started_file",
+                  targetName,
+                  filterName,
+                  optionalFile.get().getFileName()),
+              NamedTextColor.AQUA));
+    }
+    return 1;
+  }
+
+  /**
+   * Parses the group statistics and cache sizes to a component
+   *
+   * @param uuid The uuid of the player the message is parsed for
+   * @param statistics The group statistics
+   * @return The component
+   * @since 1.0.0
+   */
+  private Component parseStatisticsComponent(UUID uuid, List<GroupStatistic> statistics) {
+    PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
+    Component message =
+        Component.text(
+            getLocalizedMessage(uuid, "command.perms.stats.header"), NamedTextColor.AQUA);
+    for (GroupStatistic statistic : statistics) {
+      // Players without an assigned group use the default group
+      String groupName =
+          statistic.getGroup().isEmpty()
+              ? "(" + getLocalizedMessage(uuid, "default") + ")"
+              : statistic.getGroup();
+      message =
+          message.append(
+              Component.text(
+                  "\n"
+                      + getLocalizedMessage(
+                          uuid,
+                          "command.perms.stats.entry",
+                          groupName,
+                          statistic.getPlayers(),
+                          statistic.getTemporaryPlayers()),
+                  NamedTextColor.GRAY));
+    }
+    return message.append(
+        Component.text(
+            "\n"
+                + getLocalizedMessage(
+                    uuid,
+                    "command.perms.stats.cache",
+                    permissions.getGroupRepository().getCachedGroups().size(),
+                    permissions.getPlayerRepository().getCachedPlayers().size(),
+                    permissions.getPermissionNodeIndex().size()),
+            NamedTextColor.DARK_GRAY));
+  }
+
+  /**
+   * Parses the current plugin metrics to a component
+   *
+   * @param uuid The uuid of the player the message is parsed for
+   * @return The component
+   * @since 1.0.0
+   */
+  private Component parseMetricsComponent(UUID uuid) {
+    MetricsRegistry registry = PluginMetrics.REGISTRY;
+    double uptime = registry.getUptimeSeconds();
+    Component message =
+        Component.text(
+            getLocalizedMessage(
+                uuid, "command.perms.stats.metrics.header", String.format("%.0f", uptime)),
+            NamedTextColor.AQUA);
+    for (Metric metric : registry.getMetrics()) {
+      String entry;
+      if (metric instanceof Counter counter) {
+        entry =
+            getLocalizedMessage(
+                uuid,
+                "command.perms.stats.metrics.counter",
+                metric.getName(),
+                counter.get(),
+                String.format("%.1f", counter.get() / uptime));
+      } else if (metric instanceof Histogram histogram) {
+        entry =
+            getLocalizedMessage(
+                uuid,
+                "command.perms.stats.metrics.histogram",
+                metric.getName(),
+                histogram.getCount(),
+                formatMillis(histogram.getValueAtQuantile(0.5)),
+                formatMillis(histogram.getValueAtQuantile(0.99)),
+                formatMillis(histogram.getMax()));
+      } else {
+        continue;
+      }
+      message = message.append(Component.text("\n" + entry, NamedTextColor.GRAY));
+    }
+
+    long hits = PluginMetrics.STATE_CACHE_HITS.get();
+    long checks = hits + PluginMetrics.STATE_CACHE_MISSES.get();
+    return message.append(
+        Component.text(
+            "\n"
+                + getLocalizedMessage(
+                    uuid,
+                    "command.perms.stats.metrics.hit_ratio",
+                    String.format("%.2f", checks == 0 ? 0D : hits * 100D / checks)),
+            NamedTextColor.DARK_GRAY));
+  }
+
+  /**
+   * Parses the most checked permission nodes of the last checks to a component
+   *
+   * @param uuid The uuid of the player the message is parsed for
+   * @return The component
+   * @since 1.0.0
+   */
+  private Component parsePermissionNodesComponent(UUID uuid) {
+    List<Map.Entry<String, Long>> nodes =
+        PluginMetrics.PERMISSION_NODES.getHeavyHitters(HOT_PERMISSION_NODES);
+    // Nothing to show before the first check
+    if (nodes.isEmpty()) {
+      return Component.text(
+          getLocalizedMessage(uuid, "command.perms.stats.nodes.empty"), NamedTextColor.GRAY);
+    }
+
+    Component message =
+        Component.text(
+            getLocalizedMessage(uuid, "command.perms.stats.nodes.header"), NamedTextColor.AQUA);
+    for (Map.Entry<String, Long> node : nodes) {
+      message =
+          message.append(
+              Component.text(
+                  "\n"
+                      + getLocalizedMessage(
+                          uuid, "command.perms.stats.nodes.entry", node.getKey(), node.getValue()),
+                  NamedTextColor.GRAY));
+    }
+    return message;
+  }
+
+  /**
+   * Parses the most expensive statements of the last minutes to a component
+   *
+   * @param uuid The uuid of the player the message is parsed for
+   * @return The component
+   * @since 1.0.0
+   */
+  private Component parseStatementsComponent(UUID uuid) {
+    List<StatementStatistic> statements =
+        PlayerPermissionPlugin.getSingleton()
+            .getStatementProfiler()
+            .getTopStatements(TOP_STATEMENTS);
+    // Nothing to show before the first statement
+    if (statements.isEmpty()) {
+      return Component.text(
+          getLocalizedMessage(uuid, "command.perms.stats.queries.empty"), NamedTextColor.GRAY);
+    }
+
+    Component message =
+        Component.text(
+            getLocalizedMessage(uuid, "command.perms.stats.queries.header"), NamedTextColor.AQUA);
+    for (StatementStatistic statement : statements) {
+      message =
+          message.append(
+              Component.text(
+                  "\n"
+                      + getLocalizedMessage(
+                          uuid,
+                          "command.perms.stats.queries.entry",
+                          formatMillis(statement.getTotalNanos()),
+                          statement.getExecutions(),
+                          formatMillis(statement.getAverageNanos()),
+                          formatMillis(statement.getMaxNanos()),
+                          statement.getRows(),
+                          statement.getFailures()),
+                  NamedTextColor.GRAY))
+              .append(Component.text("\n   " + statement.getSql(), NamedTextColor.DARK_GRAY));
+    }
+    return message;
+  }
+
+  /**
+   * Formats nanoseconds as milliseconds with three decimals
+   *
+   * @param nanos The nanoseconds
+   * @return The formatted milliseconds
+   * @since 1.0.0
+   */
+  private String formatMillis(long nanos) {
+    return String.format("%.3f", nanos / 1e6);
+  }
+
   // region user sub commands
   /**
    * Creates the user sub commands which contains functionality for modifying users
@@ -107,6 +778,7 @@ public class PermsBrigadierCommand extends Command {
     return literal("player")
         .then(
             argument("name", string())
+                .suggests(suggestPlayerNames())
                 .then(createUserGroupCommand())
                 .then(createUserInfoSubCommand()));
   }
@@ -120,13 +792,12 @@ public class PermsBrigadierCommand extends Command {
    */
   private LiteralArgumentBuilder<CommandSourceStack> createUserGroupCommand() {
     return literal("group")
-        .requires(
-            stack ->
-                stack.getBukkitSender().hasPermission("permissions.command.perms.player.group"))
+        .requires(requiresPermission("permissions.command.perms.player.group"))
         .then(
             literal("set")
                 .then(
                     argument("groupName", word())
+                        .suggests(suggestGroupNames())
                         .then(
                             argument("expiresIn", greedyString())
                                 .executes(
@@ -158,14 +829,11 @@ public class PermsBrigadierCommand extends Command {
     CommandSender sender = context.getSource().getBukkitSender();
     String name = context.getArgument("name", String.class);
     String groupName = context.getArgument("groupName", String.class);
-    OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(name);
-    UUID playerId = offlinePlayer.getUniqueId();
 
     if (sender instanceof Player player) {
       UUID uuid = player.getUniqueId();
-      permissions
-          .getPermissionDriver()
-          .queryPlayerById(playerId)
+      playerRepository
+          .getPermittedPlayerByName(name)
           .whenCompleteAsync(
               (optionalPlayer, t) -> {
                 // Notify sender that the player could not be found
@@ -177,17 +845,18 @@ public class PermsBrigadierCommand extends Command {
                   return;
                 }
 
+                UUID playerId = optionalPlayer.get().getUuid();
                 permissions.getPermissionDriver().updatePlayerGroup(playerId, groupName, time);
-                // Update cache if player is online
-                if (offlinePlayer.isOnline()) {
-                  playerRepository
-                      .getPermittedPlayer(playerId)
-                      .whenComplete(
-                          (permittedPlayer, throwable) -> {
-                            permittedPlayer.setGroup(groupName);
-                            permittedPlayer.setExpiresAt(time);
-                          });
-                }
+                // Update cache if the player is cached
+                playerRepository
+                    .getPermittedPlayerNoQuery(playerId)
+                    .ifPresent(
+                        permittedPlayer -> {
+                          permittedPlayer.setGroup(groupName);
+                          permittedPlayer.setExpiresAt(time);
+                          permissions.getSignTextUpdater().markDirty(playerId);
+                          permissions.getCommandRegistrar().updateCommands(playerId);
+                        });
                 sender.sendMessage(
                     Component.text(
                         getLocalizedMessage(uuid, "command.perms.set_group.success"),
@@ -206,8 +875,7 @@ public class PermsBrigadierCommand extends Command {
    */
   private LiteralArgumentBuilder<CommandSourceStack> createUserInfoSubCommand() {
     return literal("info")
-        .requires(
-            stack -> stack.getBukkitSender().hasPermission("permissions.command.perms.player.info"))
+        .requires(requiresPermission("permissions.command.perms.player.info"))
         .executes(
             context -> {
               CommandSender sender = context.getSource().getBukkitSender();
@@ -216,8 +884,8 @@ public class PermsBrigadierCommand extends Command {
               if (sender instanceof Player player) {
                 UUID uuid = player.getUniqueId();
                 PlayerPermissionPlugin.getSingleton()
-                    .getPermissionDriver()
-                    .queryPlayerById(Bukkit.getOfflinePlayer(name).getUniqueId())
+                    .getPlayerRepository()
+                    .getPermittedPlayerByName(name)
                     .whenCompleteAsync(
                         (optionalPlayer, t) -> {
                           // Notify player that the requested player could not be found
@@ -254,21 +922,12 @@ public class PermsBrigadierCommand extends Command {
     return literal("group")
         .then(
             argument("name", word())
-                .suggests(
-                    (ctx, builder) -> {
-                      for (String groupName :
-                          PlayerPermissionPlugin.getSingleton()
-                              .getGroupRepository()
-                              .getCachedGroups()
-                              .keySet()) {
-                        builder.suggest(groupName);
-                      }
-                      return builder.buildFuture();
-                    })
+                .suggests(suggestGroupNames())
                 .then(createGroupCreateSubCommand())
                 .then(createGroupDeleteSubCommand())
                 .then(createGroupDefaultSubCommand())
                 .then(createGroupInfoSubCommand())
+                .then(createGroupMembersSubCommand())
                 .then(createGroupPrefixSubCommand())
                 .then(createGroupPermissionsSubCommand()));
   }
@@ -283,9 +942,7 @@ public class PermsBrigadierCommand extends Command {
   private LiteralArgumentBuilder<CommandSourceStack> createGroupCreateSubCommand() {
     PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
     return literal("create")
-        .requires(
-            stack ->
-                stack.getBukkitSender().hasPermission("permissions.command.perms.group.create"))
+        .requires(requiresPermission("permissions.command.perms.group.create"))
         .executes(
             context -> {
               CommandSender sender = context.getSource().getBukkitSender();
@@ -303,6 +960,11 @@ public class PermsBrigadierCommand extends Command {
                 }
 
                 permissions.getPermissionDriver().createGroup(groupName);
+                permissions
+                    .getGroupRepository()
+                    .register(
+                        new PermissionGroup(
+                            groupName, "", false, new ArrayList<>(), new ArrayList<>()));
                 sender.sendMessage(
                     Component.text(
                         getLocalizedMessage(uuid, "command.perms.create.success"),
@@ -323,9 +985,7 @@ public class PermsBrigadierCommand extends Command {
   private LiteralArgumentBuilder<CommandSourceStack> createGroupDeleteSubCommand() {
     PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
     return literal("delete")
-        .requires(
-            stack ->
-                stack.getBukkitSender().hasPermission("permissions.command.perms.group.delete"))
+        .requires(requiresPermission("permissions.command.perms.group.delete"))
         .executes(
             context -> {
               CommandSender sender = context.getSource().getBukkitSender();
@@ -365,9 +1025,7 @@ public class PermsBrigadierCommand extends Command {
   private LiteralArgumentBuilder<CommandSourceStack> createGroupDefaultSubCommand() {
     PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
     return literal("default")
-        .requires(
-            stack ->
-                stack.getBukkitSender().hasPermission("permissions.command.perms.group.default"))
+        .requires(requiresPermission("permissions.command.perms.group.default"))
         .executes(
             context -> {
               CommandSender sender = context.getSource().getBukkitSender();
@@ -391,6 +1049,7 @@ public class PermsBrigadierCommand extends Command {
 
                           permissions.getPermissionDriver().makeGroupDefault(groupName);
                           permissions.getGroupRepository().setDefaultGroup(optionalGroup.get());
+                          permissions.getCommandRegistrar().updateGroupCommands(groupName);
                           sender.sendMessage(
                               Component.text(
                                   getLocalizedMessage(uuid, "command.perms.default.success"),
@@ -412,9 +1071,7 @@ public class PermsBrigadierCommand extends Command {
   public LiteralArgumentBuilder<CommandSourceStack> createGroupPrefixSubCommand() {
     PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
     return literal("prefix")
-        .requires(
-            stack ->
-                stack.getBukkitSender().hasPermission("permissions.command.perms.group.prefix"))
+        .requires(requiresPermission("permissions.command.perms.group.prefix"))
         .then(
             argument("prefix", string())
                 .executes(
@@ -465,8 +1122,7 @@ public class PermsBrigadierCommand extends Command {
    */
   private LiteralArgumentBuilder<CommandSourceStack> createGroupInfoSubCommand() {
     return literal("info")
-        .requires(
-            stack -> stack.getBukkitSender().hasPermission("permissions.command.perms.group.info"))
+        .requires(requiresPermission("permissions.command.perms.group.info"))
         .executes(
             context -> {
               CommandSender sender = context.getSource().getBukkitSender();
@@ -497,6 +1153,121 @@ public class PermsBrigadierCommand extends Command {
   }
   // endregion
 
+  // region group members sub command
+  /**
+   * Creates the group members sub command which lists the players assigned to a group page by page
+   *
+   * @return The group members sub command
+   * @since 1.0.0
+   */
+  private LiteralArgumentBuilder<CommandSourceStack> createGroupMembersSubCommand() {
+    return literal("members")
+        .requires(requiresPermission("permissions.command.perms.group.members"))
+        .executes(context -> showGroupMembers(context, 1))
+        .then(
+            argument("page", integer(1, MAX_MEMBER_PAGE))
+                .executes(context -> showGroupMembers(context, getInteger(context, "page"))));
+  }
+
+  /**
+   * Internal method to show a page of group members after command execution
+   *
+   * @param context The command execution context
+   * @param page The page
+   * @return The command result
+   * @since 1.0.0
+   */
+  private int showGroupMembers(CommandContext<CommandSourceStack> context, int page) {
+    CommandSender sender = context.getSource().getBukkitSender();
+    String groupName = context.getArgument("name", String.class);
+
+    // Only process player execution
+    if (sender instanceof Player player) {
+      UUID uuid = player.getUniqueId();
+      PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
+      // Notify player that group is not existing
+      if (!permissions.getGroupRepository().hasGroup(groupName)) {
+        sender.sendMessage(
+            Component.text(
+                getLocalizedMessage(uuid, "command.perms.group_not_found"), NamedTextColor.RED));
+        return 1;
+      }
+
+      permissions
+          .getMemberPages()
+          .getPage(uuid, groupName, page)
+          .thenAccept(
+              optionalMembers -> {
+                // Notify player that the members could not be queried
+                if (optionalMembers.isEmpty()) {
+                  sender.sendMessage(
+                      Component.text(
+                          getLocalizedMessage(uuid, "command.perms.members.failed"),
+                          NamedTextColor.RED));
+                  return;
+                }
+
+                List<PermittedPlayer> members = optionalMembers.get();
+                // Notify player that there are no members on this page
+                if (members.isEmpty()) {
+                  sender.sendMessage(
+                      Component.text(
+                          getLocalizedMessage(uuid, "command.perms.members.empty"),
+                          NamedTextColor.GRAY));
+                  return;
+                }
+                sender.sendMessage(parseMembersComponent(uuid, groupName, page, members));
+              });
+    }
+    return 1;
+  }
+
+  /**
+   * Parses a page of group members to a component
+   *
+   * @param uuid The uuid of the player the message is parsed for
+   * @param groupName The group name
+   * @param page The page
+   * @param members The members of the page
+   * @return The component
+   * @since 1.0.0
+   */
+  private Component parseMembersComponent(
+      UUID uuid, String groupName, int page, List<PermittedPlayer> members) {
+    Component message =
+        Component.text(
+            getLocalizedMessage(uuid, "command.perms.members.header", groupName, page),
+            NamedTextColor.AQUA);
+    for (PermittedPlayer member : members) {
+      String name = member.getName() != null ? member.getName() : member.getUuid().toString();
+      String expiry =
+          member.getExpiresAt() == -1
+              ? getLocalizedMessage(uuid, "never")
+              : member.parseExpiryDate();
+      message =
+          message.append(
+              Component.text(
+                  "\n - "
+                      + name
+                      + " ("
+                      + getLocalizedMessage(uuid, "expires_at")
+                      + ": "
+                      + expiry
+                      + ")",
+                  NamedTextColor.GRAY));
+    }
+    // Only point to the next page if this one is full
+    if (members.size() < GroupMemberPages.PAGE_SIZE) {
+      return message;
+    }
+    return message.append(
+        Component.text(
+            "\n"
+                + getLocalizedMessage(uuid, "command.perms.members.next", groupName, page + 1),
+            NamedTextColor.DARK_GRAY));
+  }
+  // endregion
+
   // region group permission sub commands
   /**
    * Creates the group permission sub-command which is used to manage permissions a group has
@@ -507,11 +1278,11 @@ public class PermsBrigadierCommand extends Command {
    */
   private LiteralArgumentBuilder<CommandSourceStack> createGroupPermissionsSubCommand() {
     return literal("permissions")
-        .requires(
-            stack ->
-                stack.getBukkitSender().hasPermission("permissions.command.perms.group.permission"))
+        .requires(requiresPermission("permissions.command.perms.group.permission"))
         .then(createGroupPermissionsAllowedCommand())
-        .then(createGroupPermissionsDeniedCommand());
+        .then(createGroupPermissionsDeniedCommand())
+        .then(createGroupPermissionsBulkCommand())
+        .then(createGroupPermissionsImportCommand());
   }
 
   /**
@@ -527,6 +1298,7 @@ public class PermsBrigadierCommand extends Command {
             literal("add")
                 .then(
                     argument("permission", greedyString())
+                        .suggests(suggestPermissionNodes())
                         .executes(
                             context -> {
                               updateGroupPermission(context, false, true);
@@ -536,6 +1308,7 @@ public class PermsBrigadierCommand extends Command {
             literal("remove")
                 .then(
                     argument("permission", greedyString())
+                        .suggests(suggestPermissionNodes())
                         .executes(
                             context -> {
                               updateGroupPermission(context, false, false);
@@ -556,6 +1329,7 @@ public class PermsBrigadierCommand extends Command {
             literal("add")
                 .then(
                     argument("permission", greedyString())
+                        .suggests(suggestPermissionNodes())
                         .executes(
                             context -> {
                               updateGroupPermission(context, true, true);
@@ -565,6 +1339,7 @@ public class PermsBrigadierCommand extends Command {
             literal("remove")
                 .then(
                     argument("permission", greedyString())
+                        .suggests(suggestPermissionNodes())
                         .executes(
                             context -> {
                               updateGroupPermission(context, true, false);
@@ -572,6 +1347,157 @@ public class PermsBrigadierCommand extends Command {
                             })));
   }
 
+  /**
+   * Creates the suggestions for player name arguments from the known player names
+   *
+   * @return The player name suggestion provider
+   * @since 1.0.0
+   */
+  private SuggestionProvider<CommandSourceStack> suggestPlayerNames() {
+    return (ctx, builder) -> {
+      for (String playerName :
+          PlayerPermissionPlugin.getSingleton()
+              .getSuggestionIndex()
+              .getPlayers()
+              .startingWith(builder.getRemaining(), SUGGESTION_LIMIT)) {
+        builder.suggest(playerName);
+      }
+      return builder.buildFuture();
+    };
+  }
+
+  /**
+   * Creates the suggestions for group name arguments from the cached group names
+   *
+   * @return The group name suggestion provider
+   * @since 1.0.0
+   */
+  private SuggestionProvider<CommandSourceStack> suggestGroupNames() {
+    return (ctx, builder) -> {
+      for (String groupName :
+          PlayerPermissionPlugin.getSingleton()
+              .getSuggestionIndex()
+              .getGroups()
+              .startingWith(builder.getRemaining(), SUGGESTION_LIMIT)) {
+        builder.suggest(groupName);
+      }
+      return builder.buildFuture();
+    };
+  }
+
+  /**
+   * Creates the suggestions for permission node arguments from the registered permission nodes
+   *
+   * @return The permission node suggestion provider
+   * @since 1.0.0
+   */
+  private SuggestionProvider<CommandSourceStack> suggestPermissionNodes() {
+    return (ctx, builder) -> {
+      for (String node :
+          PlayerPermissionPlugin.getSingleton()
+              .getPermissionNodeIndex()
+              .find(builder.getRemaining(), SUGGESTION_LIMIT)) {
+        builder.suggest(node);
+      }
+      return builder.buildFuture();
+    };
+  }
+
+  /**
+   * Creates the group permission bulk sub-command which applies multiple changes at once, written
+   * as +node, -node, +!node or -!node and separated by spaces
+   *
+   * @return The group permission bulk sub command
+   * @since 1.0.0
+   */
+  private LiteralArgumentBuilder<CommandSourceStack> createGroupPermissionsBulkCommand() {
+    return literal("bulk")
+        .then(
+            argument("changes", greedyString())
+                .executes(
+                    context -> {
+                      CommandSender sender = context.getSource().getBukkitSender();
+                      String changes = context.getArgument("changes", String.class);
+
+                      // Only process player execution
+                      if (sender instanceof Player player) {
+                        parsePermissionChanges(player, List.of(changes.trim().split("\\s+")))
+                            .ifPresent(
+                                parsedChanges ->
+                                    applyPermissionChanges(
+                                        player,
+                                        context.getArgument("name", String.class),
+                                        parsedChanges,
+                                        true));
+                      }
+                      return 1;
+                    }));
+  }
+
+  /**
+   * Creates the group permission import sub-command which applies all changes of a file in the
+   * imports folder, one change per line and lines starting with # are ignored
+   *
+   * @return The group permission import sub command
+   * @since 1.0.0
+   */
+  private LiteralArgumentBuilder<CommandSourceStack> createGroupPermissionsImportCommand() {
+    return literal("import")
+        .then(
+            argument("file", string())
+                .executes(
+                    context -> {
+                      CommandSender sender = context.getSource().getBukkitSender();
+                      String groupName = context.getArgument("name", String.class);
+                      String fileName = context.getArgument("file", String.class);
+
+                      // Only process player execution
+                      if (sender instanceof Player player) {
+                        Path importFolder = Path.of(IMPORT_FOLDER).toAbsolutePath().normalize();
+                        Path importFile = importFolder.resolve(fileName).normalize();
+                        // Only allow files inside the imports folder
+                        if (!importFile.startsWith(importFolder)
+                            || !Files.isRegularFile(importFile)) {
+                          sender.sendMessage(
+                              Component.text(
+                                  getLocalizedMessage(
+                                      player.getUniqueId(),
+                                      "command.perms.import.not_found",
+                                      fileName),
+                                  NamedTextColor.RED));
+                          return 1;
+                        }
+
+                        CompletableFuture.runAsync(
+                            () -> {
+                              List<String> lines = new ArrayList<>();
+                              try {
+                                for (String line : Files.readAllLines(importFile)) {
+                                  if (!line.isBlank() && !line.trim().startsWith("#")) {
+                                    lines.add(line.trim());
+                                  }
+                                }
+                              } catch (IOException e) {
+                                PlayerPermissionPlugin.getSingleton()
+                                    .getLogger()
+                                    .log(Level.WARNING, "Failed to read import " + importFile, e);
+                                sender.sendMessage(
+                                    Component.text(
+                                        getLocalizedMessage(
+                                            player.getUniqueId(), "command.perms.bulk.failed"),
+                                        NamedTextColor.RED));
+                                return;
+                              }
+                              parsePermissionChanges(player, lines)
+                                  .ifPresent(
+                                      changes ->
+                                          applyPermissionChanges(player, groupName, changes, true));
+                            });
+                      }
+                      return 1;
+                    }));
+  }
+
   /**
    * Internal method to update the group permissions for a given group after command execution
    *
@@ -585,42 +1511,98 @@ public class PermsBrigadierCommand extends Command {
     CommandSender sender = context.getSource().getBukkitSender();
     String groupName = context.getArgument("name", String.class);
     String permission = context.getArgument("permission", String.class);
-    PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
-    PermissionDriver driver = permissions.getPermissionDriver();
 
     if (sender instanceof Player player) {
-      UUID uuid = player.getUniqueId();
-      permissions
-          .getGroupRepository()
-          .getGroup(groupName)
-          .whenCompleteAsync(
-              (optionalGroup, t) -> {
-                // Notify player that group is not existing
-                if (optionalGroup.isEmpty()) {
-                  sender.sendMessage(
+      applyPermissionChanges(
+          player, groupName, List.of(new PermissionChange(permission, denied, add)), false);
+    }
+  }
+
+  /**
+   * Parses permission changes from their text form, the player is notified about the first
+   * malformed change
+   *
+   * @param player The player
+   * @param inputs The changes in text form
+   * @return The optional parsed changes, empty if any change is malformed
+   * @since 1.0.0
+   */
+  private Optional<List<PermissionChange>> parsePermissionChanges(
+      Player player, List<String> inputs) {
+    List<PermissionChange> changes = new ArrayList<>();
+    for (String input : inputs) {
+      Optional<PermissionChange> optionalChange = PermissionChange.parse(input);
+      // Apply nothing if a single change is malformed
+      if (optionalChange.isEmpty()) {
+        player.sendMessage(
+            Component.text(
+                getLocalizedMessage(player.getUniqueId(), "command.perms.bulk.invalid", input),
+                NamedTextColor.RED));
+        return Optional.empty();
+      }
+      changes.add(optionalChange.get());
+    }
+    return Optional.of(changes);
+  }
+
+  /**
+   * Applies permission changes to a group and notifies the player about the result
+   *
+   * @param player The player
+   * @param groupName The group name
+   * @param changes The permission changes
+   * @param bulk Whether the changes are a bulk edit
+   * @since 1.0.0
+   */
+  private void applyPermissionChanges(
+      Player player, String groupName, List<PermissionChange> changes, boolean bulk) {
+    UUID uuid = player.getUniqueId();
+    PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
+    PermissionGroupRepository groups = permissions.getGroupRepository();
+    groups
+        .getGroup(groupName)
+        .whenCompleteAsync(
+            (optionalGroup, t) -> {
+              // Notify player that group is not existing
+              if (optionalGroup.isEmpty()) {
+                player.sendMessage(
+                    Component.text(
+                        getLocalizedMessage(uuid, "command.perms.group_not_found"),
+                        NamedTextColor.RED));
+                return;
+              }
+
+              PermissionNodeIndex nodeIndex = permissions.getPermissionNodeIndex();
+              for (PermissionChange change : changes) {
+                // Warn about nodes no plugin knows, they are most likely typos
+                if (change.isAdd() && !nodeIndex.isKnown(change.getPermission())) {
+                  player.sendMessage(
                       Component.text(
-                          getLocalizedMessage(uuid, "command.perms.group_not_found"),
-                          NamedTextColor.RED));
-                  return;
+                          getLocalizedMessage(
+                              uuid, "command.perms.permission.unknown", change.getPermission()),
+                          NamedTextColor.YELLOW));
                 }
+              }
 
-                PermissionGroup group = optionalGroup.get();
-                List<String> list =
-                    denied ? group.getDeniedPermissions() : group.getAllowedPermissions();
-                group.invalidate(permission);
-                if (add) {
-                  driver.addPermissionToGroup(groupName, permission, denied);
-                  list.add(permission);
-                } else {
-                  driver.removePermissionFromGroup(groupName, permission, denied);
-                  list.remove(permission);
-                }
-                sender.sendMessage(
-                    Component.text(
-                        getLocalizedMessage(uuid, "command.perms.change.success"),
-                        NamedTextColor.AQUA));
-              });
-    }
+              PermissionGroupEdit edit = groups.edit(groupName).changes(changes);
+              edit.apply()
+                  .thenAccept(
+                      success -> {
+                        String message;
+                        if (!success) {
+                          message = getLocalizedMessage(uuid, "command.perms.bulk.failed");
+                        } else if (bulk) {
+                          message =
+                              getLocalizedMessage(
+                                  uuid, "command.perms.bulk.success", edit.getChanges().size());
+                        } else {
+                          message = getLocalizedMessage(uuid, "command.perms.change.success");
+                        }
+                        player.sendMessage(
+                            Component.text(
+                                message, success ? NamedTextColor.AQUA : NamedTextColor.RED));
+                      });
+            });
   }
   // endregion
   // endregion
@@ -55,16 +55,16 @@ public class RankBrigadierCommand extends Command {
                           if (expirationTime != -1) {
                             sender.sendMessage(
                                 Component.text(
-                                    String.format(
-                                        getLocalizedMessage(uuid, "command.rank.info.expiring"),
+                                    getLocalizedMessage(
+                                        uuid,
+                                        "command.rank.info.expiring",
                                         groupName,
                                         permittedPlayer.parseExpiryDate()),
                                     NamedTextColor.GRAY));
                           } else {
                             sender.sendMessage(
                                 Component.text(
-                                    String.format(
-                                        getLocalizedMessage(uuid, "command.rank.info"), groupName),
+                                    getLocalizedMessage(uuid, "command.rank.info", groupName),
                                     NamedTextColor.GRAY));
                           }
                         });
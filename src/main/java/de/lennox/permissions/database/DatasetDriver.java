@@ -0,0 +1,42 @@
+package de.lennox.permissions.database;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interface for bulk transfers of the complete permission dataset, which are groups, group
+ * permissions, permitted players and informative signs
+ *
+ * <p>All transfers must be executed asynchronously
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+public interface DatasetDriver {
+  /**
+   * Exports a consistent snapshot of the dataset to the given archive file
+   *
+   * @param file The archive file
+   * @return The future optional amount of exported rows, empty if the export failed
+   * @since 1.0.0
+   */
+  CompletableFuture<Optional<Long>> exportDataset(Path file);
+
+  /**
+   * Replaces the dataset with the contents of the given archive file. Either the whole archive is
+   * imported or nothing is changed. All dataset tables are locked until the import has finished.
+   *
+   * @param file The archive file
+   * @return The future optional amount of imported rows, empty if the import failed
+   * @since 1.0.0
+   */
+  CompletableFuture<Optional<Long>> importDataset(Path file);
+
+  /**
+   * Stops accepting transfers, a running transfer is finished
+   *
+   * @since 1.0.0
+   */
+  void close();
+}
@@ -1,5 +1,7 @@
 package de.lennox.permissions.database;
 
+import de.lennox.permissions.database.model.GroupStatistic;
+import de.lennox.permissions.database.model.PermissionChange;
 import de.lennox.permissions.database.model.PermissionGroup;
 import de.lennox.permissions.database.model.PermittedPlayer;
 import net.minecraft.util.Tuple;
@@ -27,6 +29,58 @@ public interface PermissionDriver {
    */
   CompletableFuture<Optional<PermittedPlayer>> queryPlayerById(UUID uuid);
 
+  /**
+   * Queries the uuid of a player by the last known name, case-insensitive
+   *
+   * @param name The player name
+   * @return The future optional player uuid
+   * @since 1.0.0
+   */
+  CompletableFuture<Optional<UUID>> queryPlayerIdByName(String name);
+
+  /**
+   * Queries the last known names of players, at most the given amount
+   *
+   * @param limit The maximum amount of names
+   * @return The future optional list of player names
+   * @since 1.0.0
+   */
+  CompletableFuture<Optional<List<String>>> queryPlayerNames(int limit);
+
+  /**
+   * Queries a page of the players assigned to a group, ordered by uuid. Pages are addressed by the
+   * uuid of the last player of the previous page, so every page is a single index range scan.
+   *
+   * @param group The group name
+   * @param afterId The uuid of the last player of the previous page, empty for the first page
+   * @param limit The maximum amount of players
+   * @return The future optional list of players
+   * @since 1.0.0
+   */
+  CompletableFuture<Optional<List<PermittedPlayer>>> queryGroupMembers(
+      String group, String afterId, int limit);
+
+  /**
+   * Queries the uuid of the player assigned to a group which is the given amount of players after
+   * the given uuid, used to find the start of a page without reading the pages before it
+   *
+   * @param group The group name
+   * @param afterId The uuid to start from, empty to start with the first player
+   * @param skip The amount of players to skip
+   * @return The future optional uuid, empty if there are not enough players
+   * @since 1.0.0
+   */
+  CompletableFuture<Optional<String>> queryGroupMemberCursor(
+      String group, String afterId, int skip);
+
+  /**
+   * Queries the amount of players holding each group
+   *
+   * @return The future optional list of group statistics
+   * @since 1.0.0
+   */
+  CompletableFuture<Optional<List<GroupStatistic>>> queryGroupStatistics();
+
   /**
    * Queries all groups from the database
    *
@@ -89,6 +143,17 @@ public interface PermissionDriver {
    */
   void removePermissionFromGroup(String name, String permission, boolean denied);
 
+  /**
+   * Applies multiple permission changes to a group in a single statement, either all or none of
+   * the changes are applied
+   *
+   * @param name The group name
+   * @param changes The permission changes
+   * @return The future success state
+   * @since 1.0.0
+   */
+  CompletableFuture<Boolean> applyPermissionChanges(String name, List<PermissionChange> changes);
+
   /**
    * Deletes a group by its name
    *
@@ -124,4 +189,22 @@ public interface PermissionDriver {
    * @since 1.0.0
    */
   void updatePlayerGroup(UUID uuid, String name, long time);
+
+  /**
+   * Updates a players selected language
+   *
+   * @param uuid The player uuid
+   * @param language The language
+   * @since 1.0.0
+   */
+  void updatePlayerLanguage(UUID uuid, String language);
+
+  /**
+   * Updates a players last known name, the name is removed from all other players
+   *
+   * @param uuid The player uuid
+   * @param name The player name
+   * @since 1.0.0
+   */
+  void updatePlayerName(UUID uuid, String name);
 }
@@ -1,7 +1,9 @@
 package de.lennox.permissions.database;
 
 import de.lennox.permissions.database.model.InformativeSign;
+import it.unimi.dsi.fastutil.longs.LongSet;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
@@ -17,29 +19,34 @@ import java.util.concurrent.CompletableFuture;
 public interface SignDriver {
 
   /**
-   * Queries all signs from the database
+   * Queries the keys of all chunks in the given world which contain at least one sign
    *
-   * @return The future optional list of informative signs
+   * @param world The world
+   * @return The future optional set of packed chunk keys
    * @since 1.0.0
    */
-  CompletableFuture<Optional<List<InformativeSign>>> queryAllSigns();
+  CompletableFuture<Optional<LongSet>> querySignChunks(String world);
 
   /**
-   * Creates a new informative sign of a given player
+   * Queries all signs located in the given chunk
    *
-   * @param x The x position
-   * @param y The y position
-   * @param z The z position
    * @param world The world
+   * @param chunkX The chunk x coordinate
+   * @param chunkZ The chunk z coordinate
+   * @return The future optional list of informative signs
    * @since 1.0.0
    */
-  void createSign(int x, int y, int z, String world);
+  CompletableFuture<Optional<List<InformativeSign>>> querySignsInChunk(
+      String world, int chunkX, int chunkZ);
 
   /**
-   * Deletes a given informative sign from the database
+   * Persists created and deleted informative signs in batches
    *
-   * @param sign The informative sign
+   * @param created The created signs
+   * @param deleted The deleted signs
+   * @return The future success state
    * @since 1.0.0
    */
-  void deleteSign(InformativeSign sign);
+  CompletableFuture<Boolean> persistSigns(
+      Collection<InformativeSign> created, Collection<InformativeSign> deleted);
 }
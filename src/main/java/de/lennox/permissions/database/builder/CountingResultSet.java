@@ -0,0 +1,63 @@
+package de.lennox.permissions.database.builder;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.util.function.LongConsumer;
+
+/**
+ * Delegates to a result set and counts the rows read from it with next, the count is reported once
+ * the result set is closed
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+class CountingResultSet implements InvocationHandler {
+  private final ResultSet delegate;
+  private final LongConsumer closeListener;
+  private long rows;
+  private boolean closed;
+
+  private CountingResultSet(ResultSet delegate, LongConsumer closeListener) {
+    this.delegate = delegate;
+    this.closeListener = closeListener;
+  }
+
+  /**
+   * Wraps the given result set
+   *
+   * @param delegate The result set
+   * @param closeListener The listener receiving the amount of read rows on the first close
+   * @return The counting result set
+   * @since 1.0.0
+   */
+  static ResultSet wrap(ResultSet delegate, LongConsumer closeListener) {
+    return (ResultSet)
+        Proxy.newProxyInstance(
+            CountingResultSet.class.getClassLoader(),
+            new Class<?>[] {ResultSet.class},
+            new CountingResultSet(delegate, closeListener));
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    // Report the rows even if closing the delegate fails
+    if (method.getName().equals("close") && !closed) {
+      closed = true;
+      closeListener.accept(rows);
+    }
+
+    Object result;
+    try {
+      result = method.invoke(delegate, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+    if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+      rows++;
+    }
+    return result;
+  }
+}
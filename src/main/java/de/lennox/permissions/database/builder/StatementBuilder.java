@@ -2,6 +2,8 @@ package de.lennox.permissions.database.builder;
 
 import com.google.common.base.Preconditions;
 import de.lennox.permissions.PlayerPermissionPlugin;
+import de.lennox.permissions.metrics.PluginMetrics;
+import de.lennox.permissions.metrics.event.StatementEvent;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -21,6 +23,7 @@ import java.util.logging.Level;
  */
 public class StatementBuilder {
   private final List<Object> parameters = new ArrayList<>();
+  private final List<List<Object>> batches = new ArrayList<>();
   private final Connection connection;
   private String sql;
 
@@ -75,6 +78,61 @@ public class StatementBuilder {
     return this;
   }
 
+  /**
+   * Moves all currently attached parameters into a new batch entry, the parameter list is empty
+   * afterwards to attach the parameters of the next batch entry
+   *
+   * @return The current builder
+   * @since 1.0.0
+   */
+  public StatementBuilder addBatch() {
+    batches.add(new ArrayList<>(parameters));
+    parameters.clear();
+    return this;
+  }
+
+  /**
+   * Executes the sql statement once for every batch entry in a single round trip
+   *
+   * @return The success state
+   * @since 1.0.0
+   */
+  public boolean executeBatch() {
+    Preconditions.checkNotNull(sql, "Please provide an sql statement to execute!");
+    // Nothing to execute without batch entries
+    if (batches.isEmpty()) {
+      return true;
+    }
+
+    StatementEvent event = new StatementEvent();
+    event.begin();
+    long start = System.nanoTime();
+    long rows = 0;
+    boolean failed = false;
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      for (List<Object> batch : batches) {
+        // Attach all parameters of the batch entry
+        for (int i = 0; i < batch.size(); i++) {
+          statement.setObject(i + 1, batch.get(i));
+        }
+        statement.addBatch();
+      }
+      // Execute all batch entries, entries without known row count are skipped
+      for (int updateCount : statement.executeBatch()) {
+        rows += Math.max(0, updateCount);
+      }
+      return true;
+    } catch (SQLException e) {
+      failed = true;
+      PlayerPermissionPlugin.getSingleton()
+          .getLogger()
+          .log(Level.SEVERE, "Failed to execute jdbc batch statement: " + sql, e);
+      return false;
+    } finally {
+      recordExecution(event, batches, System.nanoTime() - start, rows, failed);
+    }
+  }
+
   /**
    * Executes a normal sql statement without data return value
    *
@@ -83,6 +141,11 @@ public class StatementBuilder {
    */
   public boolean execute() {
     Preconditions.checkNotNull(sql, "Please provide an sql statement to execute!");
+    StatementEvent event = new StatementEvent();
+    event.begin();
+    long start = System.nanoTime();
+    long rows = 0;
+    boolean failed = false;
     try {
       PreparedStatement statement = connection.prepareStatement(sql);
       // Attach all parameters
@@ -90,37 +153,113 @@ public class StatementBuilder {
         statement.setObject(i + 1, parameters.get(i));
       }
       // Execute the statement
-      return statement.execute();
+      boolean resultSet = statement.execute();
+      rows = Math.max(0, statement.getUpdateCount());
+      return resultSet;
     } catch (SQLException e) {
+      failed = true;
       PlayerPermissionPlugin.getSingleton()
           .getLogger()
-          .log(Level.SEVERE, "Failed to create new jdbc statement!", e);
+          .log(Level.SEVERE, "Failed to create new jdbc statement: " + sql, e);
       return false;
+    } finally {
+      recordExecution(event, parameters, System.nanoTime() - start, rows, failed);
+    }
+  }
+
+  /**
+   * Executes a data modifying sql statement and returns the amount of affected rows
+   *
+   * @return The amount of affected rows or -1 on failure
+   * @since 1.0.0
+   */
+  public int executeUpdate() {
+    Preconditions.checkNotNull(sql, "Please provide an sql statement to execute!");
+    StatementEvent event = new StatementEvent();
+    event.begin();
+    long start = System.nanoTime();
+    int rows = -1;
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      // Attach all parameters
+      for (int i = 0; i < parameters.size(); i++) {
+        statement.setObject(i + 1, parameters.get(i));
+      }
+      // Execute the statement
+      rows = statement.executeUpdate();
+      return rows;
+    } catch (SQLException e) {
+      PlayerPermissionPlugin.getSingleton()
+          .getLogger()
+          .log(Level.SEVERE, "Failed to execute jdbc update statement: " + sql, e);
+      return -1;
+    } finally {
+      recordExecution(
+          event, parameters, System.nanoTime() - start, Math.max(0, rows), rows == -1);
     }
   }
 
   /**
    * Executes a query sql statement with data as return value in form of a ResultSet
    *
+   * <p>The result set stays forward-only, so the driver can stream it with a fetch size. The rows
+   * read by the caller are counted and the execution is recorded once the caller closes the result
+   * set, which closes the statement as well.
+   *
    * @return The optional result set
    * @since 1.0.0
    * @see ResultSet
    */
   public Optional<ResultSet> executeQuery() {
     Preconditions.checkNotNull(sql, "Please provide an sql statement to execute!");
+    StatementEvent event = new StatementEvent();
+    event.begin();
+    long start = System.nanoTime();
     try {
       PreparedStatement statement = connection.prepareStatement(sql);
+      statement.closeOnCompletion();
       // Attach all parameters
       for (int i = 0; i < parameters.size(); i++) {
         statement.setObject(i + 1, parameters.get(i));
       }
-      // Execute the statement
-      return Optional.of(statement.executeQuery());
+      // Execute the statement, reading the rows isn't part of the execution time
+      ResultSet result = statement.executeQuery();
+      long nanos = System.nanoTime() - start;
+      event.end();
+      return Optional.of(
+          CountingResultSet.wrap(
+              result, rows -> recordExecution(event, parameters, nanos, rows, false)));
     } catch (SQLException e) {
       PlayerPermissionPlugin.getSingleton()
           .getLogger()
-          .log(Level.SEVERE, "Failed to create new jdbc query statement!", e);
+          .log(Level.SEVERE, "Failed to create new jdbc query statement: " + sql, e);
+      recordExecution(event, parameters, System.nanoTime() - start, 0, true);
       return Optional.empty();
     }
   }
+
+  /**
+   * Records the execution time of the statement in the metrics, the statement profiler and the
+   * flight recorder
+   *
+   * @param event The flight recorder event of the execution
+   * @param executedParameters The parameters or batch entries of the execution
+   * @param nanos The execution time in nanoseconds
+   * @param rows The amount of returned or affected rows
+   * @param failed Whether the execution failed
+   * @since 1.0.0
+   */
+  private void recordExecution(
+      StatementEvent event, List<?> executedParameters, long nanos, long rows, boolean failed) {
+    event.commit(sql, rows, failed);
+    PluginMetrics.DATABASE_QUERY_TIME.record(nanos);
+    if (failed) {
+      PluginMetrics.DATABASE_FAILURES.increment();
+    }
+
+    StatementProfiler profiler = PlayerPermissionPlugin.getSingleton().getStatementProfiler();
+    // Statements executed before the plugin was enabled aren't profiled
+    if (profiler != null) {
+      profiler.record(sql, executedParameters, nanos, rows, failed);
+    }
+  }
 }
@@ -0,0 +1,301 @@
+package de.lennox.permissions.database.builder;
+
+import de.lennox.permissions.PlayerPermissionPlugin;
+import de.lennox.permissions.database.model.StatementStatistic;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Times every statement executed through the {@link StatementBuilder}, keyed by normalized sql.
+ *
+ * <p>Literals are replaced by placeholders and placeholder lists are collapsed, so the same
+ * statement with different values is aggregated as one. Statements slower than the threshold are
+ * logged with their parameters, long parameters are cut off.
+ *
+ * <p>Timings are kept in windows which are rotated every 5 minutes, the most expensive statements
+ * are taken from the current and the previous window.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+public class StatementProfiler {
+  private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(5);
+  private static final int MAX_PARAMETER_LENGTH = 64;
+  private static final int MAX_NORMALIZED_STATEMENTS = 1024;
+  private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+  private final Map<String, String> normalizedStatements = new ConcurrentHashMap<>();
+  private final long slowThresholdNanos;
+  private volatile Window currentWindow = new Window(System.nanoTime());
+  private volatile Window previousWindow = new Window(currentWindow.startedAt);
+
+  /**
+   * Creates a new statement profiler
+   *
+   * @param slowThresholdMillis The execution time in milliseconds from which statements are logged
+   * @since 1.0.0
+   */
+  public StatementProfiler(long slowThresholdMillis) {
+    this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+  }
+
+  /**
+   * Records an execution of a statement and logs it if it was slow
+   *
+   * @param sql The sql statement
+   * @param parameters The parameters or batch entries of the statement
+   * @param nanos The execution time in nanoseconds
+   * @param rows The amount of returned or affected rows
+   * @param failed Whether the execution failed
+   * @since 1.0.0
+   */
+  public void record(String sql, List<?> parameters, long nanos, long rows, boolean failed) {
+    String normalizedSql = normalizeCached(sql);
+    long now = System.nanoTime();
+    Window window = currentWindow;
+    if (now - window.startedAt >= WINDOW_NANOS) {
+      window = rotate(now);
+    }
+    window.timings.computeIfAbsent(normalizedSql, key -> new Timing()).record(nanos, rows, failed);
+
+    // Only slow statements are logged
+    if (nanos < slowThresholdNanos) {
+      return;
+    }
+    PlayerPermissionPlugin.getSingleton()
+        .getLogger()
+        .warning(
+            String.format(
+                "Slow statement took %.1f ms and returned %d rows: %s %s",
+                nanos / 1e6, rows, normalizedSql, formatParameters(parameters)));
+  }
+
+  /**
+   * Gets the statements with the highest total execution time of the last 5 to 10 minutes
+   *
+   * @param limit The maximum amount of statements
+   * @return The statements, most expensive first
+   * @since 1.0.0
+   */
+  public List<StatementStatistic> getTopStatements(int limit) {
+    Map<String, StatementStatistic> statistics = new HashMap<>();
+    for (Window window : List.of(previousWindow, currentWindow)) {
+      for (Map.Entry<String, Timing> timing : window.timings.entrySet()) {
+        statistics.merge(
+            timing.getKey(),
+            timing.getValue().toStatistic(timing.getKey()),
+            StatementStatistic::merge);
+      }
+    }
+
+    List<StatementStatistic> topStatements = new ArrayList<>(statistics.values());
+    topStatements.sort(Comparator.comparingLong(StatementStatistic::getTotalNanos).reversed());
+    return topStatements.subList(0, Math.min(limit, topStatements.size()));
+  }
+
+  /**
+   * Normalizes a statement, whitespace is collapsed, literals are replaced by placeholders and
+   * placeholder lists are collapsed
+   *
+   * @param sql The sql statement
+   * @return The normalized statement
+   * @since 1.0.0
+   */
+  static String normalize(String sql) {
+    StringBuilder normalized = new StringBuilder(sql.length());
+    int i = 0;
+    while (i < sql.length()) {
+      char c = sql.charAt(i);
+      if (Character.isWhitespace(c)) {
+        while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+          i++;
+        }
+        normalized.append(' ');
+      } else if (c == '\'') {
+        // Skip the string literal, quotes are escaped by doubling them
+        i++;
+        while (i < sql.length()) {
+          if (sql.charAt(i++) == '\'') {
+            if (i < sql.length() && sql.charAt(i) == '\'') {
+              i++;
+            } else {
+              break;
+            }
+          }
+        }
+        normalized.append('?');
+      } else if (Character.isDigit(c) && !isIdentifierPart(normalized)) {
+        while (i < sql.length() && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+          i++;
+        }
+        normalized.append('?');
+      } else {
+        normalized.append(c);
+        i++;
+      }
+    }
+    return PLACEHOLDER_LIST.matcher(normalized.toString().trim()).replaceAll("?, ...");
+  }
+
+  /**
+   * Formats statement parameters for logging, long values are cut off
+   *
+   * @param parameters The parameters or batch entries
+   * @return The formatted parameters
+   * @since 1.0.0
+   */
+  static String formatParameters(List<?> parameters) {
+    List<String> formatted = new ArrayList<>();
+    for (Object parameter : parameters) {
+      String value;
+      if (parameter == null) {
+        value = "NULL";
+      } else if (parameter instanceof List<?> batch) {
+        value = formatParameters(batch);
+      } else if (parameter instanceof String string) {
+        value = "'" + truncate(string) + "'";
+      } else if (parameter instanceof Number || parameter instanceof Boolean) {
+        value = parameter.toString();
+      } else {
+        // Arrays and other driver objects are only named
+        value = parameter.getClass().getSimpleName();
+      }
+      formatted.add(value);
+    }
+    return truncate(formatted.toString());
+  }
+
+  /**
+   * Normalizes a statement and caches the result, the cache is bounded as statements with inlined
+   * values would otherwise fill it
+   *
+   * @param sql The sql statement
+   * @return The normalized statement
+   * @since 1.0.0
+   */
+  private String normalizeCached(String sql) {
+    String normalizedSql = normalizedStatements.get(sql);
+    // Normalize and remember statements seen for the first time
+    if (normalizedSql == null) {
+      normalizedSql = normalize(sql);
+      if (normalizedStatements.size() < MAX_NORMALIZED_STATEMENTS) {
+        normalizedStatements.put(sql, normalizedSql);
+      }
+    }
+    return normalizedSql;
+  }
+
+  /**
+   * Starts a new window if the current window didn't already change in the meantime
+   *
+   * @param now The current nano time
+   * @return The current window
+   * @since 1.0.0
+   */
+  private synchronized Window rotate(long now) {
+    // Another thread already rotated the windows
+    if (now - currentWindow.startedAt < WINDOW_NANOS) {
+      return currentWindow;
+    }
+    previousWindow = currentWindow;
+    currentWindow = new Window(now);
+    return currentWindow;
+  }
+
+  /**
+   * Checks whether the normalized statement ends within an identifier, digits there aren't literals
+   *
+   * @param normalized The normalized statement so far
+   * @return Whether the statement ends within an identifier
+   * @since 1.0.0
+   */
+  private static boolean isIdentifierPart(StringBuilder normalized) {
+    return !normalized.isEmpty()
+        && Character.isJavaIdentifierPart(normalized.charAt(normalized.length() - 1));
+  }
+
+  /**
+   * Cuts off a value after 64 characters
+   *
+   * @param value The value
+   * @return The value, cut off if too long
+   * @since 1.0.0
+   */
+  private static String truncate(String value) {
+    return value.length() <= MAX_PARAMETER_LENGTH
+        ? value
+        : value.substring(0, MAX_PARAMETER_LENGTH) + "...";
+  }
+
+  /**
+   * The timings of all statements of one window
+   *
+   * @since 1.0.0
+   * @author Lennox
+   */
+  private static class Window {
+    private final long startedAt;
+    private final Map<String, Timing> timings = new ConcurrentHashMap<>();
+
+    private Window(long startedAt) {
+      this.startedAt = startedAt;
+    }
+  }
+
+  /**
+   * The executions of one statement, updated without locks
+   *
+   * @since 1.0.0
+   * @author Lennox
+   */
+  private static class Timing {
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Records an execution
+     *
+     * @param nanos The execution time in nanoseconds
+     * @param rows The amount of returned or affected rows
+     * @param failed Whether the execution failed
+     * @since 1.0.0
+     */
+    private void record(long nanos, long rows, boolean failed) {
+      executions.increment();
+      totalNanos.add(nanos);
+      maxNanos.accumulate(nanos);
+      this.rows.add(rows);
+      if (failed) {
+        failures.increment();
+      }
+    }
+
+    /**
+     * Creates a snapshot of the executions
+     *
+     * @param sql The normalized sql statement
+     * @return The snapshot
+     * @since 1.0.0
+     */
+    private StatementStatistic toStatistic(String sql) {
+      return new StatementStatistic(
+          sql,
+          executions.sum(),
+          totalNanos.sum(),
+          maxNanos.get(),
+          rows.sum(),
+          failures.sum());
+    }
+  }
+}
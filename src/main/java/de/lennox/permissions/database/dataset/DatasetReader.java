@@ -0,0 +1,144 @@
+package de.lennox.permissions.database.dataset;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads a permission dataset archive written by the {@link DatasetWriter}.
+ *
+ * <p>Sections are read one after another, the data of a section is streamed frame by frame.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+public class DatasetReader implements Closeable {
+  private final DataInputStream input;
+  private SectionInputStream section;
+
+  public DatasetReader(InputStream input) throws IOException {
+    this.input = new DataInputStream(new GZIPInputStream(input, DatasetWriter.FRAME_SIZE));
+    // Refuse files which aren't archives or were written by a newer version
+    if (this.input.readInt() != DatasetWriter.MAGIC) {
+      throw new IOException("Not a permission dataset archive");
+    }
+    int version = this.input.readInt();
+    if (version != DatasetWriter.VERSION) {
+      throw new IOException("Unsupported dataset archive version " + version);
+    }
+  }
+
+  /**
+   * Moves to the next section, unread data of the current section is skipped
+   *
+   * @return The optional section name, empty if the end of the archive was reached
+   * @throws IOException If reading failed
+   * @since 1.0.0
+   */
+  public Optional<String> nextSection() throws IOException {
+    if (section != null) {
+      section.skipRemaining();
+      section = null;
+    }
+    String name = input.readUTF();
+    // An empty name marks the end of the archive
+    if (name.isEmpty()) {
+      return Optional.empty();
+    }
+    section = new SectionInputStream();
+    return Optional.of(name);
+  }
+
+  /**
+   * Returns the data stream of the current section, it ends with the section
+   *
+   * @return The section data stream
+   * @since 1.0.0
+   */
+  public InputStream sectionStream() {
+    if (section == null) {
+      throw new IllegalStateException("No section was started");
+    }
+    return section;
+  }
+
+  /**
+   * Closes the underlying stream
+   *
+   * @throws IOException If closing failed
+   * @since 1.0.0
+   */
+  @Override
+  public void close() throws IOException {
+    input.close();
+  }
+
+  /**
+   * Reads the length prefixed frames of one section
+   *
+   * @since 1.0.0
+   * @author Lennox
+   */
+  private class SectionInputStream extends InputStream {
+    private int remaining;
+    private boolean finished;
+
+    @Override
+    public int read() throws IOException {
+      // Section ended, the next frame belongs to the archive
+      if (!nextFrame()) {
+        return -1;
+      }
+      remaining--;
+      return input.readUnsignedByte();
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+      if (length == 0) {
+        return 0;
+      }
+      // Section ended, the next frame belongs to the archive
+      if (!nextFrame()) {
+        return -1;
+      }
+      int count = input.read(bytes, offset, Math.min(length, remaining));
+      if (count == -1) {
+        throw new IOException("Dataset archive ended unexpectedly");
+      }
+      remaining -= count;
+      return count;
+    }
+
+    /**
+     * Skips all remaining frames of the section
+     *
+     * @throws IOException If reading failed
+     * @since 1.0.0
+     */
+    private void skipRemaining() throws IOException {
+      while (nextFrame()) {
+        input.skipNBytes(remaining);
+        remaining = 0;
+      }
+    }
+
+    /**
+     * Reads the next frame header if the current frame is fully read
+     *
+     * @return Whether there is data left in the section
+     * @throws IOException If reading failed
+     * @since 1.0.0
+     */
+    private boolean nextFrame() throws IOException {
+      if (remaining == 0 && !finished) {
+        remaining = input.readInt();
+        finished = remaining == 0;
+      }
+      return !finished;
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package de.lennox.permissions.database.dataset;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a permission dataset archive.
+ *
+ * <p>An archive is a compressed stream of named sections, each section contains the raw bulk
+ * transfer data of one table. Section data is written in frames of at most {@link #FRAME_SIZE}
+ * bytes, so neither side has to know the size of a section upfront and memory usage stays
+ * constant no matter how large the dataset is.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+public class DatasetWriter implements Closeable {
+  public static final int MAGIC = 0x5045524D;
+  public static final int VERSION = 1;
+  public static final int FRAME_SIZE = 64 * 1024;
+  private final DataOutputStream output;
+  private SectionOutputStream section;
+
+  public DatasetWriter(OutputStream output) throws IOException {
+    this.output = new DataOutputStream(new GZIPOutputStream(output, FRAME_SIZE));
+    this.output.writeInt(MAGIC);
+    this.output.writeInt(VERSION);
+  }
+
+  /**
+   * Starts a new section, the previous section is finished automatically
+   *
+   * @param name The section name
+   * @return The stream the section data is written to
+   * @throws IOException If writing failed
+   * @since 1.0.0
+   */
+  public OutputStream beginSection(String name) throws IOException {
+    // Empty names mark the end of the archive
+    if (name.isEmpty()) {
+      throw new IllegalArgumentException("Section name must not be empty");
+    }
+    finishSection();
+    output.writeUTF(name);
+    section = new SectionOutputStream();
+    return section;
+  }
+
+  /**
+   * Finishes the last section and writes the end of the archive
+   *
+   * @throws IOException If writing failed
+   * @since 1.0.0
+   */
+  @Override
+  public void close() throws IOException {
+    finishSection();
+    output.writeUTF("");
+    output.close();
+  }
+
+  /**
+   * Writes the remaining data and the end frame of the current section
+   *
+   * @throws IOException If writing failed
+   * @since 1.0.0
+   */
+  private void finishSection() throws IOException {
+    if (section != null) {
+      section.close();
+      section = null;
+    }
+  }
+
+  /**
+   * Buffers section data and writes it as length prefixed frames
+   *
+   * @since 1.0.0
+   * @author Lennox
+   */
+  private class SectionOutputStream extends OutputStream {
+    private final byte[] buffer = new byte[FRAME_SIZE];
+    private int position;
+    private boolean closed;
+
+    @Override
+    public void write(int b) throws IOException {
+      if (position == buffer.length) {
+        writeFrame();
+      }
+      buffer[position++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+      while (length > 0) {
+        if (position == buffer.length) {
+          writeFrame();
+        }
+        int count = Math.min(length, buffer.length - position);
+        System.arraycopy(bytes, offset, buffer, position, count);
+        position += count;
+        offset += count;
+        length -= count;
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      // Sections are closed by the writer and may be closed by the caller as well
+      if (closed) {
+        return;
+      }
+      closed = true;
+      writeFrame();
+      output.writeInt(0);
+    }
+
+    /**
+     * Writes the buffered data as one frame
+     *
+     * @throws IOException If writing failed
+     * @since 1.0.0
+     */
+    private void writeFrame() throws IOException {
+      // A frame of length zero ends the section
+      if (position == 0) {
+        return;
+      }
+      output.writeInt(position);
+      output.write(buffer, 0, position);
+      position = 0;
+    }
+  }
+}
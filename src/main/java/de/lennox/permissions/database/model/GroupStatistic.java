@@ -0,0 +1,17 @@
+package de.lennox.permissions.database.model;
+
+import lombok.Data;
+
+/**
+ * Aggregated amount of players holding a group, an empty group name stands for the players which
+ * use the default group without being assigned to it.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+@Data
+public class GroupStatistic {
+  private final String group;
+  private final long players;
+  private final long temporaryPlayers;
+}
@@ -50,7 +50,7 @@ public class InformativeSign {
     return List.of(
         Component.text(bukkitPlayer.getName(), NamedTextColor.GRAY),
         Component.text(
-            String.format("%s: %s", localization.getMessage(locale, "group"), groupName),
+            localization.getMessage(locale, "group") + ": " + groupName,
             NamedTextColor.AQUA),
         Component.text(localization.getMessage(locale, "expires_at"), NamedTextColor.AQUA),
         Component.text(
@@ -60,6 +60,26 @@ public class InformativeSign {
             NamedTextColor.AQUA));
   }
 
+  /**
+   * Gets the x coordinate of the chunk the sign is located in
+   *
+   * @return The chunk x coordinate
+   * @since 1.0.0
+   */
+  public int getChunkX() {
+    return x >> 4;
+  }
+
+  /**
+   * Gets the z coordinate of the chunk the sign is located in
+   *
+   * @return The chunk z coordinate
+   * @since 1.0.0
+   */
+  public int getChunkZ() {
+    return z >> 4;
+  }
+
   /**
    * Gets the block at the location of the informative sign
    *
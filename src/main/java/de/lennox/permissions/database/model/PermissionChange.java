@@ -0,0 +1,47 @@
+package de.lennox.permissions.database.model;
+
+import lombok.Data;
+
+import java.util.Optional;
+
+/**
+ * A single change of a group permission, either adding or removing an allowed or denied permission.
+ *
+ * <p>In text form a change is written as {@code +node} or {@code -node} to add or remove an
+ * allowed permission and as {@code +!node} or {@code -!node} for denied permissions.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+@Data
+public class PermissionChange {
+  private final String permission;
+  private final boolean denied;
+  private final boolean add;
+
+  /**
+   * Parses a permission change from its text form
+   *
+   * @param input The text form (e.g. +!essentials.fly)
+   * @return The optional permission change, empty if the input is malformed
+   * @since 1.0.0
+   */
+  public static Optional<PermissionChange> parse(String input) {
+    // A change consists of at least the operation and one character
+    if (input.length() < 2) {
+      return Optional.empty();
+    }
+
+    char operation = input.charAt(0);
+    if (operation != '+' && operation != '-') {
+      return Optional.empty();
+    }
+    boolean denied = input.charAt(1) == '!';
+    String permission = input.substring(denied ? 2 : 1);
+    // Permissions can neither be empty nor contain whitespace
+    if (permission.isEmpty() || permission.chars().anyMatch(Character::isWhitespace)) {
+      return Optional.empty();
+    }
+    return Optional.of(new PermissionChange(permission, denied, operation == '+'));
+  }
+}
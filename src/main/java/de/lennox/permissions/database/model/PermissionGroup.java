@@ -2,67 +2,274 @@ package de.lennox.permissions.database.model;
 
 import de.lennox.permissions.PlayerPermissionPlugin;
 import de.lennox.permissions.locale.LocalizationRepository;
-import lombok.AllArgsConstructor;
+import de.lennox.permissions.metrics.PluginMetrics;
+import de.lennox.permissions.metrics.event.PermissionCheckEvent;
+import de.lennox.permissions.permission.PermissionHierarchy;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.SneakyThrows;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.entity.Player;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 /**
  * Contains data about a permission group. Additionally used to check for permissions with regex.
  *
+ * <p>Permissions are checked on the main thread and off it (e.g. chat and tab completion). The
+ * permission lists are immutable and replaced as a whole on change. Every change starts a new
+ * generation, states matched during an older generation are never cached. Whether a permission is
+ * granted and whether it is set are cached as one state, so both always agree.
+ *
  * @since 1.0.0
  * @author Lennox
  */
 @Data
-@AllArgsConstructor
 public class PermissionGroup {
   private final String name;
   private String prefix;
   private boolean defaultGroup;
-  private final List<String> allowedPermissions;
-  private final List<String> deniedPermissions;
+
+  @Setter(AccessLevel.NONE)
+  private volatile List<String> allowedPermissions;
+
+  @Setter(AccessLevel.NONE)
+  private volatile List<String> deniedPermissions;
 
   // Static to share patterns between groups
-  private static final Map<String, Pattern> PATTERN_CACHE = new HashMap<>();
-  private final Map<String, Boolean> stateCache = new HashMap<>();
-  private final Set<String> setCache = new HashSet<>();
+  private static final Map<String, Pattern> PATTERN_CACHE = new ConcurrentHashMap<>();
+  // Recent checks after which an unset permission is cached as well
+  private static final long UNSET_ADMISSION_FREQUENCY = 64;
+  private static final int PREWARMED_PERMISSIONS = 20;
+  private static final int MAX_INHERITANCE_DEPTH = 16;
+  // Concurrent as permissions are also checked off the main thread (e.g. tab completion)
+  private final Map<String, State> stateCache = new ConcurrentHashMap<>();
+
+  @Getter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  private final AtomicLong generation = new AtomicLong();
 
   /**
-   * Checks if a group has the given permission
+   * Creates a new permission group
+   *
+   * @param name The name
+   * @param prefix The prefix
+   * @param defaultGroup Whether the group is the default group
+   * @param allowedPermissions The allowed permissions, copied
+   * @param deniedPermissions The denied permissions, copied
+   * @since 1.0.0
+   */
+  public PermissionGroup(
+      String name,
+      String prefix,
+      boolean defaultGroup,
+      List<String> allowedPermissions,
+      List<String> deniedPermissions) {
+    this.name = name;
+    this.prefix = prefix;
+    this.defaultGroup = defaultGroup;
+    this.allowedPermissions = List.copyOf(allowedPermissions);
+    this.deniedPermissions = List.copyOf(deniedPermissions);
+  }
+
+  /**
+   * Checks if a group has the given permission, ignoring case
    *
    * @param permission The permission
    * @return The state of permission
    * @since 1.0.0
    */
   public boolean hasPermission(String permission) {
-    if (stateCache.containsKey(permission)) {
-      return stateCache.get(permission);
+    return checkState(permission) == State.ALLOWED;
+  }
+
+  /**
+   * Checks if the given permission is set for a group (allowed or denied), ignoring case
+   *
+   * @param permission The permission
+   * @return Permission set status
+   * @since 1.0.0
+   */
+  public boolean isPermissionSet(String permission) {
+    return checkState(permission) != State.UNSET;
+  }
+
+  /**
+   * Gets the state of a permission from the cache or matches it
+   *
+   * @param permission The permission
+   * @return The state of permission
+   * @since 1.0.0
+   */
+  private State checkState(String permission) {
+    PluginMetrics.PERMISSION_CHECKS.increment();
+    PermissionCheckEvent event = new PermissionCheckEvent();
+    event.begin();
+    // Materialized and registered nodes are lower case, like the node index stores them
+    String node = permission.toLowerCase(Locale.ROOT);
+    State cachedState = stateCache.get(node);
+    State state;
+    if (cachedState != null) {
+      PluginMetrics.STATE_CACHE_HITS.increment();
+      state = cachedState;
+    } else {
+      PluginMetrics.STATE_CACHE_MISSES.increment();
+      state = matchPermission(node);
+    }
+    event.commit(name, node, state == State.ALLOWED, cachedState != null);
+    return state;
+  }
+
+  /**
+   * Matches a permission against the allowed and denied permissions and caches the state
+   *
+   * @param permission The permission
+   * @return The state of permission
+   * @since 1.0.0
+   */
+  private State matchPermission(String permission) {
+    long matchedGeneration = generation.get();
+    State state = State.of(findState(permission));
+    // Only frequently checked unset permissions are cached, so plugins checking ever new nodes
+    // (e.g. per region or item) can't grow the cache without bounds
+    if (state != State.UNSET
+        || PluginMetrics.PERMISSION_NODES.estimate(permission) >= UNSET_ADMISSION_FREQUENCY) {
+      cacheState(permission, state, matchedGeneration);
+    }
+    return state;
+  }
+
+  /**
+   * Caches the state of a permission, unless the permissions changed since it was matched
+   *
+   * <p>States of one generation never differ, so an existing state is kept. Only a state written
+   * by this call is rolled back, which leaves the states of a newer generation untouched.
+   *
+   * @param permission The permission
+   * @param state The state
+   * @param matchedGeneration The generation the state was matched in
+   * @since 1.0.0
+   */
+  private void cacheState(String permission, State state, long matchedGeneration) {
+    // States matched before a change may stem from the previous permissions
+    if (generation.get() != matchedGeneration) {
+      return;
+    }
+
+    boolean written = stateCache.putIfAbsent(permission, state) == null;
+    // A change may have cleared the cache in the meantime, its clearing has to win
+    if (written && generation.get() != matchedGeneration) {
+      stateCache.remove(permission, state);
+    }
+  }
+
+  /**
+   * Finds the state of a permission, set directly or inherited from a registered parent
+   *
+   * @param permission The permission
+   * @return The optional state, empty if the permission isn't set
+   * @since 1.0.0
+   */
+  private Optional<Boolean> findState(String permission) {
+    Optional<Boolean> optionalState = matchPatterns(permission);
+    // Permissions set directly take precedence over inherited ones
+    if (optionalState.isPresent()) {
+      return optionalState;
     }
+    return findInheritedState(permission, 0);
+  }
 
-    for (String perm : allowedPermissions) {
+  /**
+   * Matches a permission against the allowed and denied permissions, allowed permissions take
+   * precedence over denied ones
+   *
+   * @param permission The permission
+   * @return The optional state, empty if no pattern matches
+   * @since 1.0.0
+   */
+  private Optional<Boolean> matchPatterns(String permission) {
+    // Read both lists once, a concurrent change replaces them
+    List<String> allowed = allowedPermissions;
+    List<String> denied = deniedPermissions;
+    for (String perm : allowed) {
       Pattern pattern = getPattern(perm);
       if (pattern.matcher(permission).matches()) {
-        stateCache.put(permission, true);
-        setCache.add(permission);
-        return true;
+        return Optional.of(true);
       }
     }
 
-    for (String perm : deniedPermissions) {
+    for (String perm : denied) {
       Pattern pattern = getPattern(perm);
       if (pattern.matcher(permission).matches()) {
-        stateCache.put(permission, false);
-        setCache.add(permission);
-        return false;
+        return Optional.of(false);
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Finds the state a permission inherits as child of a set registered permission
+   *
+   * <p>The child of a granted parent has the value the parent assigns to it, the child of a denied
+   * parent the inverted value, like bukkit resolves children. Parents are matched against the
+   * permission lists instead of the caches, which may still hold states of a previous generation.
+   *
+   * @param permission The permission
+   * @param depth The amount of parents already walked up
+   * @return The optional state, empty if no parent is set
+   * @since 1.0.0
+   */
+  private Optional<Boolean> findInheritedState(String permission, int depth) {
+    // Cyclic children end here
+    if (depth >= MAX_INHERITANCE_DEPTH) {
+      return Optional.empty();
+    }
+
+    for (Map.Entry<String, Boolean> parent :
+        PermissionHierarchy.getParents(permission).entrySet()) {
+      String parentPermission = parent.getKey();
+      Optional<Boolean> parentState =
+          matchPatterns(parentPermission)
+              .or(() -> findInheritedState(parentPermission, depth + 1));
+      if (parentState.isPresent()) {
+        return Optional.of(parent.getValue() == parentState.get());
       }
     }
-    return false;
+    return Optional.empty();
+  }
+
+  /**
+   * Precomputes the states of the given permissions, so their first checks don't miss the cache
+   *
+   * <p>States computed while the permissions change are dropped, so they never overwrite the
+   * caches of the new permissions.
+   *
+   * @param permissions The permissions
+   * @since 1.0.0
+   */
+  public void materialize(Collection<String> permissions) {
+    for (String permission : permissions) {
+      materializePermission(permission);
+    }
+  }
+
+  /**
+   * Computes the state of a permission and caches it, even if it isn't set
+   *
+   * @param permission The permission
+   * @since 1.0.0
+   */
+  private void materializePermission(String permission) {
+    long matchedGeneration = generation.get();
+    cacheState(permission, State.of(findState(permission)), matchedGeneration);
   }
 
   /**
@@ -74,8 +281,9 @@ public class PermissionGroup {
    */
   @SneakyThrows
   public Pattern getPattern(String input) {
-    if (PATTERN_CACHE.containsKey(input)) {
-      return PATTERN_CACHE.get(input);
+    Pattern cachedPattern = PATTERN_CACHE.get(input);
+    if (cachedPattern != null) {
+      return cachedPattern;
     }
 
     String regex = createRegexFromInput(input);
@@ -108,8 +316,40 @@ public class PermissionGroup {
    * @since 1.0.0
    */
   public void invalidate(String permission) {
-    stateCache.remove(permission);
-    setCache.remove(permission);
+    stateCache.remove(permission.toLowerCase(Locale.ROOT));
+  }
+
+  /**
+   * Applies multiple permission changes to the group and clears the permission caches once
+   * afterwards, as changed wildcard permissions can affect any cached permission
+   *
+   * <p>The changed lists are published as a whole, so concurrent checks never see a list while it
+   * is modified. The most checked permissions are matched again right away, so the next checks
+   * don't miss.
+   *
+   * @param changes The permission changes
+   * @since 1.0.0
+   */
+  public synchronized void applyChanges(Collection<PermissionChange> changes) {
+    List<String> allowed = new ArrayList<>(allowedPermissions);
+    List<String> denied = new ArrayList<>(deniedPermissions);
+    for (PermissionChange change : changes) {
+      List<String> permissions = change.isDenied() ? denied : allowed;
+      if (!change.isAdd()) {
+        permissions.remove(change.getPermission());
+      } else if (!permissions.contains(change.getPermission())) {
+        permissions.add(change.getPermission());
+      }
+    }
+    this.allowedPermissions = List.copyOf(allowed);
+    this.deniedPermissions = List.copyOf(denied);
+    // States matched from here on are from the new permissions
+    generation.incrementAndGet();
+    stateCache.clear();
+    for (Map.Entry<String, Long> node :
+        PluginMetrics.PERMISSION_NODES.getHeavyHitters(PREWARMED_PERMISSIONS)) {
+      matchPermission(node.getKey());
+    }
   }
 
   /**
@@ -125,17 +365,37 @@ public class PermissionGroup {
     String language = permissions.getPlayerLanguageRepository().get(player.getUniqueId());
 
     return Component.text(
-            String.format(localization.getMessage(language, "command.perms.group.header"), name)
-                + "\n",
+            localization.format(language, "command.perms.group.header", name) + "\n",
             NamedTextColor.AQUA)
         .append(
             Component.text(
-                String.format(" - %s: %s\n", localization.getMessage(language, "prefix"), prefix),
+                " - " + localization.getMessage(language, "prefix") + ": " + prefix + "\n",
                 NamedTextColor.GRAY))
         .append(
             Component.text(
-                String.format(
-                    " - %s: %s", localization.getMessage(language, "default"), defaultGroup),
+                " - " + localization.getMessage(language, "default") + ": " + defaultGroup,
                 NamedTextColor.GRAY));
   }
+
+  /**
+   * The cached state of a permission
+   *
+   * @since 1.0.0
+   */
+  public enum State {
+    ALLOWED,
+    DENIED,
+    UNSET;
+
+    /**
+     * Gets the state of a matched permission
+     *
+     * @param optionalState The optional matched state, empty if the permission isn't set
+     * @return The state
+     * @since 1.0.0
+     */
+    public static State of(Optional<Boolean> optionalState) {
+      return optionalState.map(allowed -> allowed ? ALLOWED : DENIED).orElse(UNSET);
+    }
+  }
 }
@@ -3,7 +3,6 @@ package de.lennox.permissions.database.model;
 import de.lennox.permissions.PlayerPermissionPlugin;
 import de.lennox.permissions.group.PermissionGroupRepository;
 import de.lennox.permissions.locale.LocalizationRepository;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
@@ -20,16 +19,45 @@ import java.util.UUID;
  * <p>An empty rank means the fallback default rank will be used internally, this way we don't have
  * to update all players on change of default rank. Even if this is really rare.
  *
+ * <p>The language is only set if the player selected one explicitly, otherwise the language
+ * matching the client locale is used.
+ *
  * @since 1.0.0
  * @author Lennox
  */
 @Data
-@AllArgsConstructor
 public class PermittedPlayer {
   private static final SimpleDateFormat EXPIRE_FORMATTER = new SimpleDateFormat("dd.MM.yyyy HH:mm");
+  private static final String DEFAULT_LANGUAGE = "en";
   private final UUID uuid;
   private String group;
   private long expiresAt;
+  private String language;
+  private String name;
+  private String clientLanguage = DEFAULT_LANGUAGE;
+
+  public PermittedPlayer(UUID uuid, String group, long expiresAt) {
+    this(uuid, group, expiresAt, null, null);
+  }
+
+  public PermittedPlayer(UUID uuid, String group, long expiresAt, String language, String name) {
+    this.uuid = uuid;
+    this.group = group;
+    this.expiresAt = expiresAt;
+    this.language = language;
+    this.name = name;
+  }
+
+  /**
+   * Returns the language messages are displayed in, the selected language if the player chose one
+   * and otherwise the language matching the client locale
+   *
+   * @return The display language
+   * @since 1.0.0
+   */
+  public String getDisplayLanguage() {
+    return language != null ? language : clientLanguage;
+  }
 
   /**
    * Creates a parsed time string to display for when the rank expires
@@ -65,19 +93,18 @@ public class PermittedPlayer {
     String language = permissions.getPlayerLanguageRepository().get(player.getUniqueId());
 
     return Component.text(
-            String.format(
-                localization.getMessage(language, "command.perms.info.header") + "\n", playerName),
+            localization.format(language, "command.perms.info.header", playerName) + "\n",
             NamedTextColor.AQUA)
         .append(
             Component.text(
-                String.format(" - %s: %s\n", localization.getMessage(language, "group"), group),
+                " - " + localization.getMessage(language, "group") + ": " + group + "\n",
                 NamedTextColor.GRAY))
         .append(
             Component.text(
-                String.format(
-                    " - %s: %s",
-                    localization.getMessage(language, "expires_at"),
-                    expiresAt == -1 ? "NEVER" : parseExpiryDate()),
+                " - "
+                    + localization.getMessage(language, "expires_at")
+                    + ": "
+                    + (expiresAt == -1 ? "NEVER" : parseExpiryDate()),
                 NamedTextColor.GRAY));
   }
 
@@ -100,7 +127,7 @@ public class PermittedPlayer {
   }
 
   /**
-   * Uses the players group or default to check if a permission is set
+   * Uses the players group or default to check if a permission is set, ignoring case
    *
    * @param permission The permission
    * @return Permission set status
@@ -114,12 +141,7 @@ public class PermittedPlayer {
     }
 
     PermissionGroup group = optionalGroup.get();
-    if (group.getSetCache().contains(permission)) {
-      return true;
-    }
-    // Re-try after checking for permission
-    group.hasPermission(permission);
-    return group.getSetCache().contains(permission);
+    return group.isPermissionSet(permission);
   }
 
   /**
@@ -128,7 +150,7 @@ public class PermittedPlayer {
    * @return The optional cached group
    * @since 1.0.0
    */
-  private Optional<PermissionGroup> getPlayerGroup() {
+  public Optional<PermissionGroup> getPlayerGroup() {
     PermissionGroupRepository groups = PlayerPermissionPlugin.getSingleton().getGroupRepository();
     Optional<PermissionGroup> optionalGroup = groups.getGroupNoQuery(group);
     // Return default optional group if the group couldn't be found
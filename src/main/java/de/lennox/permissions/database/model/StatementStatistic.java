@@ -0,0 +1,46 @@
+package de.lennox.permissions.database.model;
+
+import lombok.Data;
+
+/**
+ * Aggregated executions of one normalized sql statement.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+@Data
+public class StatementStatistic {
+  private final String sql;
+  private final long executions;
+  private final long totalNanos;
+  private final long maxNanos;
+  private final long rows;
+  private final long failures;
+
+  /**
+   * Gets the average execution time
+   *
+   * @return The average in nanoseconds, 0 without executions
+   * @since 1.0.0
+   */
+  public long getAverageNanos() {
+    return executions == 0 ? 0 : totalNanos / executions;
+  }
+
+  /**
+   * Merges the executions of the same statement
+   *
+   * @param other The other statistic of the same statement
+   * @return The merged statistic
+   * @since 1.0.0
+   */
+  public StatementStatistic merge(StatementStatistic other) {
+    return new StatementStatistic(
+        sql,
+        executions + other.executions,
+        totalNanos + other.totalNanos,
+        Math.max(maxNanos, other.maxNanos),
+        rows + other.rows,
+        failures + other.failures);
+  }
+}
@@ -0,0 +1,190 @@
+package de.lennox.permissions.database.postgres;
+
+import de.lennox.permissions.PlayerPermissionPlugin;
+import de.lennox.permissions.database.DatasetDriver;
+import de.lennox.permissions.database.dataset.DatasetReader;
+import de.lennox.permissions.database.dataset.DatasetWriter;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+
+/**
+ * Transfers the complete dataset with the COPY protocol of postgresql.
+ *
+ * <p>Every table is streamed in the binary COPY format into one section of a dataset archive, rows
+ * are never materialized on the server. Transfers use their own connection, so the shared
+ * connection isn't blocked while millions of rows are copied, and run one at a time.
+ *
+ * @author Lennox
+ * @since 1.0.0
+ */
+@Getter
+@RequiredArgsConstructor
+public class PostgreSqlDatasetDriver implements DatasetDriver {
+  // The copied columns of every table, listed explicitly to not depend on the column order
+  private static final Map<String, String> TABLE_COLUMNS =
+      Map.of(
+          "permission_groups", "\"name\", prefix, \"default\"",
+          "group_permissions", "\"group\", permission, denied",
+          "permitted_players", "id, \"group\", expiration_date, language, name",
+          "informative_signs", "x, y, z, world");
+  private final ExecutorService transferThread =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "PlayerPermissions Dataset Transfer");
+            thread.setDaemon(true);
+            return thread;
+          });
+  private final PostgreSqlGateway gateway;
+
+  /**
+   * Exports a consistent snapshot of the dataset to the given archive file
+   *
+   * <p>The archive is written to a temporary file first and only replaces the target once it is
+   * complete
+   *
+   * @param file The archive file
+   * @return The future optional amount of exported rows, empty if the export failed
+   * @since 1.0.0
+   */
+  @Override
+  public CompletableFuture<Optional<Long>> exportDataset(Path file) {
+    CompletableFuture<Optional<Long>> rowsFuture = new CompletableFuture<>();
+    transferThread.execute(
+        () -> {
+          Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+          try (Connection connection = gateway.openConnection()) {
+            // All tables are read from the same snapshot
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            connection.setReadOnly(true);
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+
+            long rows = 0;
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (OutputStream fileOutput =
+                    new BufferedOutputStream(Files.newOutputStream(temporaryFile));
+                DatasetWriter writer = new DatasetWriter(fileOutput)) {
+              for (Map.Entry<String, String> table : TABLE_COLUMNS.entrySet()) {
+                String sql =
+                    "COPY " + table.getKey() + " (" + table.getValue() + ") TO STDOUT"
+                        + " (FORMAT binary)";
+                rows += copyManager.copyOut(sql, writer.beginSection(table.getKey()));
+              }
+            }
+            connection.commit();
+            Files.move(
+                temporaryFile,
+                file,
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+            rowsFuture.complete(Optional.of(rows));
+          } catch (SQLException | IOException e) {
+            PlayerPermissionPlugin.getSingleton()
+                .getLogger()
+                .log(Level.SEVERE, "Failed to export dataset to " + file + "!", e);
+            deleteQuietly(temporaryFile);
+            // Complete with empty row count on failure
+            rowsFuture.complete(Optional.empty());
+          }
+        });
+    return rowsFuture;
+  }
+
+  /**
+   * Replaces the dataset with the contents of the given archive file
+   *
+   * <p>All tables are truncated and refilled in one transaction, tables without a section in the
+   * archive end up empty. Unknown sections fail the whole import.
+   *
+   * @param file The archive file
+   * @return The future optional amount of imported rows, empty if the import failed
+   * @since 1.0.0
+   */
+  @Override
+  public CompletableFuture<Optional<Long>> importDataset(Path file) {
+    CompletableFuture<Optional<Long>> rowsFuture = new CompletableFuture<>();
+    transferThread.execute(
+        () -> {
+          try (Connection connection = gateway.openConnection();
+              InputStream fileInput = new BufferedInputStream(Files.newInputStream(file));
+              DatasetReader reader = new DatasetReader(fileInput)) {
+            connection.setAutoCommit(false);
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            try (Statement statement = connection.createStatement()) {
+              statement.execute("TRUNCATE " + String.join(", ", TABLE_COLUMNS.keySet()));
+            }
+
+            long rows = 0;
+            Set<String> importedTables = new HashSet<>();
+            Optional<String> section;
+            while ((section = reader.nextSection()).isPresent()) {
+              String table = section.get();
+              String columns = TABLE_COLUMNS.get(table);
+              // Never copy into tables which aren't part of the dataset
+              if (columns == null || !importedTables.add(table)) {
+                throw new IOException("Unexpected dataset section " + table);
+              }
+
+              String sql = "COPY " + table + " (" + columns + ") FROM STDIN (FORMAT binary)";
+              rows += copyManager.copyIn(sql, reader.sectionStream());
+            }
+            connection.commit();
+            rowsFuture.complete(Optional.of(rows));
+          } catch (SQLException | IOException e) {
+            // Uncommitted changes are rolled back once the connection is closed
+            PlayerPermissionPlugin.getSingleton()
+                .getLogger()
+                .log(Level.SEVERE, "Failed to import dataset from " + file + "!", e);
+            // Complete with empty row count on failure
+            rowsFuture.complete(Optional.empty());
+          }
+        });
+    return rowsFuture;
+  }
+
+  /**
+   * Stops accepting transfers, a running transfer is finished
+   *
+   * @since 1.0.0
+   */
+  @Override
+  public void close() {
+    transferThread.shutdown();
+  }
+
+  /**
+   * Deletes a file if it exists, failures are ignored
+   *
+   * @param file The file
+   * @since 1.0.0
+   */
+  private void deleteQuietly(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException ignored) {
+      // Nothing left to do, the file is overwritten by the next export
+    }
+  }
+}
@@ -8,6 +8,7 @@ import org.postgresql.Driver;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.SQLException;
 
 /**
  * Connection gateway to the postgresql database
@@ -36,6 +37,19 @@ public class PostgreSqlGateway {
     prepareTables();
   }
 
+  /**
+   * Opens an additional connection to the database, used for long-running transfers which would
+   * otherwise block the shared connection
+   *
+   * @return The new connection
+   * @throws SQLException If the connection could not be established
+   * @since 1.0.0
+   */
+  public Connection openConnection() throws SQLException {
+    return DriverManager.getConnection(
+        config.createJdbcUri(), config.getUser(), config.getPassword());
+  }
+
   /**
    * Prepares all tables if not existing in the database
    *
@@ -64,6 +78,29 @@ public class PostgreSqlGateway {
                 )
             """)
         .execute();
+    // Add the selected language to permitted players created before it was persisted
+    StatementBuilder.forConnection(connection)
+        .withSql("ALTER TABLE permitted_players ADD COLUMN IF NOT EXISTS language VARCHAR")
+        .execute();
+    // Add the last known name to resolve offline players without profile lookups
+    StatementBuilder.forConnection(connection)
+        .withSql("ALTER TABLE permitted_players ADD COLUMN IF NOT EXISTS name VARCHAR")
+        .execute();
+    StatementBuilder.forConnection(connection)
+        .withSql(
+            """
+               CREATE INDEX IF NOT EXISTS permitted_players_name_index
+               ON permitted_players(LOWER(name))
+            """)
+        .execute();
+    // Index players by group for member listings and statistics
+    StatementBuilder.forConnection(connection)
+        .withSql(
+            """
+               CREATE INDEX IF NOT EXISTS permitted_players_group_index
+               ON permitted_players("group", id)
+            """)
+        .execute();
     // Create permission list table
     StatementBuilder.forConnection(connection)
         .withSql(
@@ -87,5 +124,13 @@ public class PostgreSqlGateway {
                )
             """)
         .execute();
+    // Index informative signs by world and chunk for lazy chunk loading
+    StatementBuilder.forConnection(connection)
+        .withSql(
+            """
+               CREATE INDEX IF NOT EXISTS informative_signs_chunk_index
+               ON informative_signs(world, (x >> 4), (z >> 4))
+            """)
+        .execute();
   }
 }
@@ -3,12 +3,15 @@ package de.lennox.permissions.database.postgres;
 import de.lennox.permissions.PlayerPermissionPlugin;
 import de.lennox.permissions.database.PermissionDriver;
 import de.lennox.permissions.database.builder.StatementBuilder;
+import de.lennox.permissions.database.model.GroupStatistic;
+import de.lennox.permissions.database.model.PermissionChange;
 import de.lennox.permissions.database.model.PermissionGroup;
 import de.lennox.permissions.database.model.PermittedPlayer;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import net.minecraft.util.Tuple;
 
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -50,7 +53,9 @@ public class PostgreSqlPermissionDriver implements PermissionDriver {
           try {
             Optional<ResultSet> optionalResult =
                 StatementBuilder.forConnection(getConnection())
-                    .withSql("SELECT * FROM permitted_players WHERE id = ?")
+                    .withSql(
+                        "SELECT \"group\", expiration_date, language, name FROM permitted_players"
+                            + " WHERE id = ?")
                     .withParameter(uuid.toString())
                     .executeQuery();
             // Complete with empty player if query didn't succeed
@@ -59,17 +64,21 @@ public class PostgreSqlPermissionDriver implements PermissionDriver {
               return;
             }
 
-            ResultSet result = optionalResult.get();
-            // Return empty result if there is no player with this name
-            if (!result.next()) {
-              playerFuture.complete(Optional.empty());
-              return;
-            }
+            try (ResultSet result = optionalResult.get()) {
+              // Return empty result if there is no player with this name
+              if (!result.next()) {
+                playerFuture.complete(Optional.empty());
+                return;
+              }
 
-            String rank = result.getString("group");
-            long expirationDate = result.getLong("expiration_date");
+              String rank = result.getString("group");
+              long expirationDate = result.getLong("expiration_date");
+              String language = result.getString("language");
+              String name = result.getString("name");
 
-            playerFuture.complete(Optional.of(new PermittedPlayer(uuid, rank, expirationDate)));
+              playerFuture.complete(
+                  Optional.of(new PermittedPlayer(uuid, rank, expirationDate, language, name)));
+            }
           } catch (SQLException e) {
             PlayerPermissionPlugin.getSingleton()
                 .getLogger()
@@ -81,6 +90,247 @@ public class PostgreSqlPermissionDriver implements PermissionDriver {
     return playerFuture;
   }
 
+  /**
+   * Queries the uuid of a player by the last known name, case-insensitive
+   *
+   * @param name The player name
+   * @return The future optional player uuid
+   * @since 1.0.0
+   */
+  @Override
+  public CompletableFuture<Optional<UUID>> queryPlayerIdByName(String name) {
+    CompletableFuture<Optional<UUID>> playerIdFuture = new CompletableFuture<>();
+    databaseThreadPool.execute(
+        () -> {
+          try {
+            Optional<ResultSet> optionalResult =
+                StatementBuilder.forConnection(getConnection())
+                    .withSql(
+                        "SELECT id FROM permitted_players WHERE LOWER(name) = LOWER(?) LIMIT 1")
+                    .withParameter(name)
+                    .executeQuery();
+            // Complete with empty id if query didn't succeed
+            if (optionalResult.isEmpty()) {
+              playerIdFuture.complete(Optional.empty());
+              return;
+            }
+
+            try (ResultSet result = optionalResult.get()) {
+              // Return empty result if no player had this name
+              if (!result.next()) {
+                playerIdFuture.complete(Optional.empty());
+                return;
+              }
+
+              playerIdFuture.complete(Optional.of(UUID.fromString(result.getString("id"))));
+            }
+          } catch (SQLException e) {
+            PlayerPermissionPlugin.getSingleton()
+                .getLogger()
+                .log(Level.SEVERE, "Failed to read player name query result!", e);
+            // Complete with empty id on failure
+            playerIdFuture.complete(Optional.empty());
+          }
+        });
+    return playerIdFuture;
+  }
+
+  /**
+   * Queries the last known names of players, at most the given amount
+   *
+   * @param limit The maximum amount of names
+   * @return The future optional list of player names
+   * @since 1.0.0
+   */
+  @Override
+  public CompletableFuture<Optional<List<String>>> queryPlayerNames(int limit) {
+    CompletableFuture<Optional<List<String>>> namesFuture = new CompletableFuture<>();
+    databaseThreadPool.execute(
+        () -> {
+          try {
+            Optional<ResultSet> optionalResult =
+                StatementBuilder.forConnection(getConnection())
+                    .withSql("SELECT name FROM permitted_players WHERE name IS NOT NULL LIMIT ?")
+                    .withParameter(limit)
+                    .executeQuery();
+            // Complete with empty names if query didn't succeed
+            if (optionalResult.isEmpty()) {
+              namesFuture.complete(Optional.empty());
+              return;
+            }
+
+            try (ResultSet result = optionalResult.get()) {
+              List<String> names = new ArrayList<>();
+              while (result.next()) {
+                names.add(result.getString("name"));
+              }
+              namesFuture.complete(Optional.of(names));
+            }
+          } catch (SQLException e) {
+            PlayerPermissionPlugin.getSingleton()
+                .getLogger()
+                .log(Level.SEVERE, "Failed to read player names query result!", e);
+            namesFuture.complete(Optional.empty());
+          }
+        });
+    return namesFuture;
+  }
+
+  /**
+   * Queries a page of the players assigned to a group, ordered by uuid. Pages are addressed by the
+   * uuid of the last player of the previous page, so every page is a single index range scan.
+   *
+   * @param group The group name
+   * @param afterId The uuid of the last player of the previous page, empty for the first page
+   * @param limit The maximum amount of players
+   * @return The future optional list of players
+   * @since 1.0.0
+   */
+  @Override
+  public CompletableFuture<Optional<List<PermittedPlayer>>> queryGroupMembers(
+      String group, String afterId, int limit) {
+    CompletableFuture<Optional<List<PermittedPlayer>>> membersFuture = new CompletableFuture<>();
+    databaseThreadPool.execute(
+        () -> {
+          try {
+            Optional<ResultSet> optionalResult =
+                StatementBuilder.forConnection(getConnection())
+                    .withSql(
+                        """
+                            SELECT id, expiration_date, language, name FROM permitted_players
+                            WHERE "group" = ? AND id > CAST(? AS CHAR(36))
+                            ORDER BY id LIMIT ?
+                        """)
+                    .withParameters(group, afterId, limit)
+                    .executeQuery();
+            // Complete with empty members if query didn't succeed
+            if (optionalResult.isEmpty()) {
+              membersFuture.complete(Optional.empty());
+              return;
+            }
+
+            try (ResultSet result = optionalResult.get()) {
+              List<PermittedPlayer> members = new ArrayList<>();
+              while (result.next()) {
+                members.add(
+                    new PermittedPlayer(
+                        UUID.fromString(result.getString("id")),
+                        group,
+                        result.getLong("expiration_date"),
+                        result.getString("language"),
+                        result.getString("name")));
+              }
+              membersFuture.complete(Optional.of(members));
+            }
+          } catch (SQLException e) {
+            PlayerPermissionPlugin.getSingleton()
+                .getLogger()
+                .log(Level.SEVERE, "Failed to read group members query result!", e);
+            membersFuture.complete(Optional.empty());
+          }
+        });
+    return membersFuture;
+  }
+
+  /**
+   * Queries the uuid of the player assigned to a group which is the given amount of players after
+   * the given uuid, the skipped players are only counted on the index
+   *
+   * @param group The group name
+   * @param afterId The uuid to start from, empty to start with the first player
+   * @param skip The amount of players to skip
+   * @return The future optional uuid, empty if there are not enough players
+   * @since 1.0.0
+   */
+  @Override
+  public CompletableFuture<Optional<String>> queryGroupMemberCursor(
+      String group, String afterId, int skip) {
+    CompletableFuture<Optional<String>> cursorFuture = new CompletableFuture<>();
+    databaseThreadPool.execute(
+        () -> {
+          try {
+            Optional<ResultSet> optionalResult =
+                StatementBuilder.forConnection(getConnection())
+                    .withSql(
+                        """
+                            SELECT id FROM permitted_players
+                            WHERE "group" = ? AND id > CAST(? AS CHAR(36))
+                            ORDER BY id OFFSET ? LIMIT 1
+                        """)
+                    .withParameters(group, afterId, skip)
+                    .executeQuery();
+            // Complete with empty cursor if query didn't succeed
+            if (optionalResult.isEmpty()) {
+              cursorFuture.complete(Optional.empty());
+              return;
+            }
+
+            try (ResultSet result = optionalResult.get()) {
+              // Return empty cursor if the group has less players
+              if (!result.next()) {
+                cursorFuture.complete(Optional.empty());
+                return;
+              }
+              cursorFuture.complete(Optional.of(result.getString("id")));
+            }
+          } catch (SQLException e) {
+            PlayerPermissionPlugin.getSingleton()
+                .getLogger()
+                .log(Level.SEVERE, "Failed to read group member cursor query result!", e);
+            cursorFuture.complete(Optional.empty());
+          }
+        });
+    return cursorFuture;
+  }
+
+  /**
+   * Queries the amount of players holding each group
+   *
+   * @return The future optional list of group statistics
+   * @since 1.0.0
+   */
+  @Override
+  public CompletableFuture<Optional<List<GroupStatistic>>> queryGroupStatistics() {
+    CompletableFuture<Optional<List<GroupStatistic>>> statisticsFuture = new CompletableFuture<>();
+    databaseThreadPool.execute(
+        () -> {
+          try {
+            Optional<ResultSet> optionalResult =
+                StatementBuilder.forConnection(getConnection())
+                    .withSql(
+                        """
+                            SELECT "group", COUNT(*) AS players,
+                              COUNT(*) FILTER (WHERE expiration_date <> -1) AS temporary_players
+                            FROM permitted_players GROUP BY "group" ORDER BY "group"
+                        """)
+                    .executeQuery();
+            // Complete with empty statistics if query didn't succeed
+            if (optionalResult.isEmpty()) {
+              statisticsFuture.complete(Optional.empty());
+              return;
+            }
+
+            try (ResultSet result = optionalResult.get()) {
+              List<GroupStatistic> statistics = new ArrayList<>();
+              while (result.next()) {
+                statistics.add(
+                    new GroupStatistic(
+                        result.getString("group"),
+                        result.getLong("players"),
+                        result.getLong("temporary_players")));
+              }
+              statisticsFuture.complete(Optional.of(statistics));
+            }
+          } catch (SQLException e) {
+            PlayerPermissionPlugin.getSingleton()
+                .getLogger()
+                .log(Level.SEVERE, "Failed to read group statistics query result!", e);
+            statisticsFuture.complete(Optional.empty());
+          }
+        });
+    return statisticsFuture;
+  }
+
   /**
    * Queries all groups from the database
    *
@@ -103,30 +353,31 @@ public class PostgreSqlPermissionDriver implements PermissionDriver {
               return;
             }
 
-            ResultSet result = optionalResult.get();
-            // Construct the groups from query result
-            List<PermissionGroup> groups = new ArrayList<>();
-            while (result.next()) {
-              String groupName = result.getString("name");
-              String prefix = result.getString("prefix");
-              boolean defaultGroup = result.getBoolean("default");
+            try (ResultSet result = optionalResult.get()) {
+              // Construct the groups from query result
+              List<PermissionGroup> groups = new ArrayList<>();
+              while (result.next()) {
+                String groupName = result.getString("name");
+                String prefix = result.getString("prefix");
+                boolean defaultGroup = result.getBoolean("default");
+
+                Optional<Tuple<List<String>, List<String>>> optionalPermissions =
+                    queryGroupPermissions(groupName).join();
+                // Insert non-permitted group if no permission could be received
+                if (optionalPermissions.isEmpty()) {
+                  groups.add(
+                      new PermissionGroup(
+                          groupName, prefix, defaultGroup, new ArrayList<>(), new ArrayList<>()));
+                  return;
+                }
 
-              Optional<Tuple<List<String>, List<String>>> optionalPermissions =
-                  queryGroupPermissions(groupName).join();
-              // Insert non-permitted group if no permission could be received
-              if (optionalPermissions.isEmpty()) {
+                Tuple<List<String>, List<String>> permissions = optionalPermissions.get();
                 groups.add(
                     new PermissionGroup(
-                        groupName, prefix, defaultGroup, new ArrayList<>(), new ArrayList<>()));
-                return;
+                        groupName, prefix, defaultGroup, permissions.getA(), permissions.getB()));
               }
-
-              Tuple<List<String>, List<String>> permissions = optionalPermissions.get();
-              groups.add(
-                  new PermissionGroup(
-                      groupName, prefix, defaultGroup, permissions.getA(), permissions.getB()));
+              groupListFuture.complete(Optional.of(groups));
             }
-            groupListFuture.complete(Optional.of(groups));
           } catch (SQLException e) {
             PlayerPermissionPlugin.getSingleton()
                 .getLogger()
@@ -161,41 +412,42 @@ public class PostgreSqlPermissionDriver implements PermissionDriver {
               return;
             }
 
-            ResultSet result = optionalResult.get();
-            // Return empty result if there is no group with this name
-            if (!result.next()) {
-              groupFuture.complete(Optional.empty());
-              return;
-            }
-            String prefix = result.getString("prefix");
-            boolean defaultGroup = result.getBoolean("default");
-
-            queryGroupPermissions(name)
-                .whenComplete(
-                    (optionalPermissions, t) -> {
-                      // Complete with non-permitted group if no permission could be received
-                      if (optionalPermissions.isEmpty()) {
+            try (ResultSet result = optionalResult.get()) {
+              // Return empty result if there is no group with this name
+              if (!result.next()) {
+                groupFuture.complete(Optional.empty());
+                return;
+              }
+              String prefix = result.getString("prefix");
+              boolean defaultGroup = result.getBoolean("default");
+
+              queryGroupPermissions(name)
+                  .whenComplete(
+                      (optionalPermissions, t) -> {
+                        // Complete with non-permitted group if no permission could be received
+                        if (optionalPermissions.isEmpty()) {
+                          groupFuture.complete(
+                              Optional.of(
+                                  new PermissionGroup(
+                                      name,
+                                      prefix,
+                                      defaultGroup,
+                                      new ArrayList<>(),
+                                      new ArrayList<>())));
+                          return;
+                        }
+
+                        Tuple<List<String>, List<String>> permissions = optionalPermissions.get();
                         groupFuture.complete(
                             Optional.of(
                                 new PermissionGroup(
                                     name,
                                     prefix,
                                     defaultGroup,
-                                    new ArrayList<>(),
-                                    new ArrayList<>())));
-                        return;
-                      }
-
-                      Tuple<List<String>, List<String>> permissions = optionalPermissions.get();
-                      groupFuture.complete(
-                          Optional.of(
-                              new PermissionGroup(
-                                  name,
-                                  prefix,
-                                  defaultGroup,
-                                  permissions.getA(),
-                                  permissions.getB())));
-                    });
+                                    permissions.getA(),
+                                    permissions.getB())));
+                      });
+            }
           } catch (SQLException e) {
             PlayerPermissionPlugin.getSingleton()
                 .getLogger()
@@ -237,23 +489,25 @@ public class PostgreSqlPermissionDriver implements PermissionDriver {
                     .withParameter(name)
                     .executeQuery();
 
-            // Complete with empty permissions if query didn't succeed
-            if (optionalAllowedPerms.isEmpty() || optionalDeniedPerms.isEmpty()) {
-              permissionFuture.complete(Optional.empty());
-              return;
-            }
+            // Results of a succeeded query are closed even if the other query failed
+            try (ResultSet allowedPerms = optionalAllowedPerms.orElse(null);
+                ResultSet deniedPerms = optionalDeniedPerms.orElse(null)) {
+              // Complete with empty permissions if query didn't succeed
+              if (allowedPerms == null || deniedPerms == null) {
+                permissionFuture.complete(Optional.empty());
+                return;
+              }
 
-            // Add all permissions to corresponding type of permission
-            ResultSet allowedPerms = optionalAllowedPerms.get();
-            ResultSet deniedPerms = optionalDeniedPerms.get();
-            while (allowedPerms.next()) {
-              allowed.add(allowedPerms.getString("permission"));
-            }
-            while (deniedPerms.next()) {
-              denied.add(deniedPerms.getString("permission"));
-            }
+              // Add all permissions to corresponding type of permission
+              while (allowedPerms.next()) {
+                allowed.add(allowedPerms.getString("permission"));
+              }
+              while (deniedPerms.next()) {
+                denied.add(deniedPerms.getString("permission"));
+              }
 
-            permissionFuture.complete(Optional.of(new Tuple<>(allowed, denied)));
+              permissionFuture.complete(Optional.of(new Tuple<>(allowed, denied)));
+            }
           } catch (SQLException e) {
             PlayerPermissionPlugin.getSingleton()
                 .getLogger()
@@ -338,6 +592,63 @@ public class PostgreSqlPermissionDriver implements PermissionDriver {
                 .execute());
   }
 
+  /**
+   * Applies multiple permission changes to a group in a single statement. All changed rows are
+   * deleted and the added permissions are re-inserted, so adding an existing permission doesn't
+   * create duplicates.
+   *
+   * @param name The group name
+   * @param changes The permission changes
+   * @return The future success state
+   * @since 1.0.0
+   */
+  @Override
+  public CompletableFuture<Boolean> applyPermissionChanges(
+      String name, List<PermissionChange> changes) {
+    CompletableFuture<Boolean> changeFuture = new CompletableFuture<>();
+    databaseThreadPool.execute(
+        () -> {
+          try {
+            Connection connection = getConnection();
+            Array permissions =
+                connection.createArrayOf(
+                    "varchar", changes.stream().map(PermissionChange::getPermission).toArray());
+            Array denied =
+                connection.createArrayOf(
+                    "boolean", changes.stream().map(PermissionChange::isDenied).toArray());
+            Array add =
+                connection.createArrayOf(
+                    "boolean", changes.stream().map(PermissionChange::isAdd).toArray());
+
+            int result =
+                StatementBuilder.forConnection(connection)
+                    .withSql(
+                        """
+                            WITH changes AS (
+                              SELECT * FROM unnest(?::varchar[], ?::boolean[], ?::boolean[])
+                              AS change(permission, denied, "add")
+                            ), removed AS (
+                              DELETE FROM group_permissions USING changes
+                              WHERE group_permissions."group" = ?
+                              AND group_permissions.permission = changes.permission
+                              AND group_permissions.denied = changes.denied
+                            )
+                            INSERT INTO group_permissions
+                            SELECT ?::varchar, permission, denied FROM changes WHERE "add"
+                        """)
+                    .withParameters(permissions, denied, add, name, name)
+                    .executeUpdate();
+            changeFuture.complete(result != -1);
+          } catch (SQLException e) {
+            PlayerPermissionPlugin.getSingleton()
+                .getLogger()
+                .log(Level.SEVERE, "Failed to create permission change arrays!", e);
+            changeFuture.complete(false);
+          }
+        });
+    return changeFuture;
+  }
+
   /**
    * Deletes a group by its name
    *
@@ -384,7 +695,8 @@ public class PostgreSqlPermissionDriver implements PermissionDriver {
     databaseThreadPool.execute(
         () -> {
           StatementBuilder.forConnection(getConnection())
-              .withSql("INSERT INTO permitted_players VALUES(?, ?, ?)")
+              .withSql(
+                  "INSERT INTO permitted_players(id, \"group\", expiration_date) VALUES(?, ?, ?)")
               .withParameters(uuid.toString(), "", -1)
               .execute();
 
@@ -412,6 +724,48 @@ public class PostgreSqlPermissionDriver implements PermissionDriver {
                 .execute());
   }
 
+  /**
+   * Updates a players selected language
+   *
+   * @param uuid The player uuid
+   * @param language The language
+   * @since 1.0.0
+   */
+  @Override
+  public void updatePlayerLanguage(UUID uuid, String language) {
+    databaseThreadPool.execute(
+        () ->
+            StatementBuilder.forConnection(getConnection())
+                .withSql("UPDATE permitted_players SET language = ? WHERE id = ?")
+                .withParameters(language, uuid.toString())
+                .execute());
+  }
+
+  /**
+   * Updates a players last known name, the name is removed from all other players as names can be
+   * taken over by other accounts
+   *
+   * @param uuid The player uuid
+   * @param name The player name
+   * @since 1.0.0
+   */
+  @Override
+  public void updatePlayerName(UUID uuid, String name) {
+    databaseThreadPool.execute(
+        () -> {
+          StatementBuilder.forConnection(getConnection())
+              .withSql(
+                  "UPDATE permitted_players SET name = NULL"
+                      + " WHERE LOWER(name) = LOWER(?) AND id <> ?")
+              .withParameters(name, uuid.toString())
+              .execute();
+          StatementBuilder.forConnection(getConnection())
+              .withSql("UPDATE permitted_players SET name = ? WHERE id = ?")
+              .withParameters(name, uuid.toString())
+              .execute();
+        });
+  }
+
   private Connection getConnection() {
     return gateway.getConnection();
   }
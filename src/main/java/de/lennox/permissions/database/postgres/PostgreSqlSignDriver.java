@@ -4,6 +4,9 @@ import de.lennox.permissions.PlayerPermissionPlugin;
 import de.lennox.permissions.database.SignDriver;
 import de.lennox.permissions.database.builder.StatementBuilder;
 import de.lennox.permissions.database.model.InformativeSign;
+import de.lennox.permissions.sign.SignSpatialIndex;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
@@ -11,6 +14,7 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
@@ -33,20 +37,71 @@ public class PostgreSqlSignDriver implements SignDriver {
   private final PostgreSqlGateway gateway;
 
   /**
-   * Queries all signs from the database
+   * Queries the keys of all chunks in the given world which contain at least one sign
    *
+   * @param world The world
+   * @return The future optional set of packed chunk keys
+   * @since 1.0.0
+   */
+  @Override
+  public CompletableFuture<Optional<LongSet>> querySignChunks(String world) {
+    CompletableFuture<Optional<LongSet>> chunkFuture = new CompletableFuture<>();
+    databaseThreadPool.execute(
+        () -> {
+          try {
+            Optional<ResultSet> optionalResult =
+                StatementBuilder.forConnection(getConnection())
+                    .withSql(
+                        "SELECT DISTINCT (x >> 4) AS chunk_x, (z >> 4) AS chunk_z"
+                            + " FROM informative_signs WHERE world = ?")
+                    .withParameter(world)
+                    .executeQuery();
+            // Complete with empty chunks if query didn't succeed
+            if (optionalResult.isEmpty()) {
+              chunkFuture.complete(Optional.empty());
+              return;
+            }
+
+            try (ResultSet result = optionalResult.get()) {
+              LongSet chunks = new LongOpenHashSet();
+              while (result.next()) {
+                chunks.add(
+                    SignSpatialIndex.chunkKey(result.getInt("chunk_x"), result.getInt("chunk_z")));
+              }
+              chunkFuture.complete(Optional.of(chunks));
+            }
+          } catch (SQLException e) {
+            PlayerPermissionPlugin.getSingleton()
+                .getLogger()
+                .log(Level.SEVERE, "Could not query informative sign chunks!", e);
+            chunkFuture.complete(Optional.empty());
+          }
+        });
+    return chunkFuture;
+  }
+
+  /**
+   * Queries all signs located in the given chunk
+   *
+   * @param world The world
+   * @param chunkX The chunk x coordinate
+   * @param chunkZ The chunk z coordinate
    * @return The future optional list of informative signs
    * @since 1.0.0
    */
   @Override
-  public CompletableFuture<Optional<List<InformativeSign>>> queryAllSigns() {
+  public CompletableFuture<Optional<List<InformativeSign>>> querySignsInChunk(
+      String world, int chunkX, int chunkZ) {
     CompletableFuture<Optional<List<InformativeSign>>> signFuture = new CompletableFuture<>();
     databaseThreadPool.execute(
         () -> {
           try {
             Optional<ResultSet> optionalResult =
                 StatementBuilder.forConnection(getConnection())
-                    .withSql("SELECT * FROM informative_signs")
+                    .withSql(
+                        "SELECT * FROM informative_signs"
+                            + " WHERE world = ? AND (x >> 4) = ? AND (z >> 4) = ?")
+                    .withParameters(world, chunkX, chunkZ)
                     .executeQuery();
             // Complete with empty signs if query didn't succeed
             if (optionalResult.isEmpty()) {
@@ -54,18 +109,19 @@ public class PostgreSqlSignDriver implements SignDriver {
               return;
             }
 
-            ResultSet result = optionalResult.get();
-            // Construct the signs from query result
-            List<InformativeSign> signs = new ArrayList<>();
-            while (result.next()) {
-              int x = result.getInt("x");
-              int y = result.getInt("y");
-              int z = result.getInt("z");
-              String world = result.getString("world");
+            try (ResultSet result = optionalResult.get()) {
+              // Construct the signs from query result
+              List<InformativeSign> signs = new ArrayList<>();
+              while (result.next()) {
+                int x = result.getInt("x");
+                int y = result.getInt("y");
+                int z = result.getInt("z");
+                String world = result.getString("world");
 
-              signs.add(new InformativeSign(x, y, z, world));
+                signs.add(new InformativeSign(x, y, z, world));
+              }
+              signFuture.complete(Optional.of(signs));
             }
-            signFuture.complete(Optional.of(signs));
           } catch (SQLException e) {
             PlayerPermissionPlugin.getSingleton()
                 .getLogger()
@@ -77,39 +133,64 @@ public class PostgreSqlSignDriver implements SignDriver {
   }
 
   /**
-   * Creates a new informative sign of a given player
+   * Persists created and deleted informative signs in batches
    *
-   * @param x The x position
-   * @param y The y position
-   * @param z The z position
-   * @param world The world
+   * <p>All affected positions are deleted first, so re-created signs never end up duplicated. Both
+   * batches run in one transaction on a separate connection, which is rolled back if either fails.
+   *
+   * @param created The created signs
+   * @param deleted The deleted signs
+   * @return The future success state
    * @since 1.0.0
    */
   @Override
-  public void createSign(int x, int y, int z, String world) {
+  public CompletableFuture<Boolean> persistSigns(
+      Collection<InformativeSign> created, Collection<InformativeSign> deleted) {
+    CompletableFuture<Boolean> persistFuture = new CompletableFuture<>();
     databaseThreadPool.execute(
-        () ->
-            StatementBuilder.forConnection(getConnection())
-                .withSql("INSERT INTO informative_signs VALUES(?, ?, ?, ?)")
-                .withParameters(x, y, z, world)
-                .execute());
+        () -> {
+          try (Connection connection = gateway.openConnection()) {
+            connection.setAutoCommit(false);
+            StatementBuilder deletion =
+                StatementBuilder.forConnection(connection)
+                    .withSql(
+                        "DELETE FROM informative_signs"
+                            + " WHERE x = ? AND y = ? AND z = ? AND world = ?");
+            for (InformativeSign sign : deleted) {
+              deletion.withParameters(columnsOf(sign)).addBatch();
+            }
+            for (InformativeSign sign : created) {
+              deletion.withParameters(columnsOf(sign)).addBatch();
+            }
+
+            StatementBuilder creation =
+                StatementBuilder.forConnection(connection)
+                    .withSql("INSERT INTO informative_signs VALUES(?, ?, ?, ?)");
+            for (InformativeSign sign : created) {
+              creation.withParameters(columnsOf(sign)).addBatch();
+            }
+            // Keep the previous signs if either batch failed, the failure is already logged
+            if (!deletion.executeBatch() || !creation.executeBatch()) {
+              connection.rollback();
+              persistFuture.complete(false);
+              return;
+            }
+
+            connection.commit();
+            persistFuture.complete(true);
+          } catch (SQLException e) {
+            // Uncommitted changes are rolled back once the connection is closed
+            PlayerPermissionPlugin.getSingleton()
+                .getLogger()
+                .log(Level.SEVERE, "Could not persist informative signs!", e);
+            persistFuture.complete(false);
+          }
+        });
+    return persistFuture;
   }
 
-  /**
-   * Deletes a given informative sign from the database
-   *
-   * @param sign The informative sign
-   * @since 1.0.0
-   */
-  @Override
-  public void deleteSign(InformativeSign sign) {
-    databaseThreadPool.execute(
-        () ->
-            StatementBuilder.forConnection(getConnection())
-                .withSql(
-                    "DELETE FROM informative_signs WHERE x = ? AND y = ? AND z = ? AND world = ?")
-                .withParameters(sign.getX(), sign.getY(), sign.getZ(), sign.getWorld())
-                .execute());
+  private Object[] columnsOf(InformativeSign sign) {
+    return new Object[] {sign.getX(), sign.getY(), sign.getZ(), sign.getWorld()};
   }
 
   private Connection getConnection() {
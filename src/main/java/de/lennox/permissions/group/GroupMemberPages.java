@@ -0,0 +1,153 @@
+package de.lennox.permissions.group;
+
+import de.lennox.permissions.PlayerPermissionPlugin;
+import de.lennox.permissions.database.PermissionDriver;
+import de.lennox.permissions.database.model.PermittedPlayer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pages through the members of a group with keyset pagination.
+ *
+ * <p>The uuid of the last member of every page a viewer has seen is remembered, so the next and
+ * previous pages are single index range scans. Pages further away are started from the closest
+ * remembered page. Only one page of members is ever held in memory.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+public class GroupMemberPages {
+  public static final int PAGE_SIZE = 10;
+  private final Map<UUID, Cursor> cursors = new ConcurrentHashMap<>();
+
+  /**
+   * Gets a page of members of the given group
+   *
+   * @param viewer The uuid of the player viewing the members
+   * @param group The group name
+   * @param page The page, starting at 1
+   * @return The future optional members of the page, empty if the query failed
+   * @since 1.0.0
+   */
+  public CompletableFuture<Optional<List<PermittedPlayer>>> getPage(
+      UUID viewer, String group, int page) {
+    PermissionDriver driver = PlayerPermissionPlugin.getSingleton().getPermissionDriver();
+    // Remembered pages are only valid for the group they were seen in
+    Cursor cursor =
+        cursors.compute(
+            viewer,
+            (uuid, current) ->
+                current != null && current.group.equals(group) ? current : new Cursor(group));
+
+    return findPageStart(driver, cursor, page)
+        .thenCompose(
+            optionalStart -> {
+              // Pages after the last member are empty
+              if (optionalStart.isEmpty()) {
+                return CompletableFuture.completedFuture(Optional.of(List.of()));
+              }
+
+              return driver
+                  .queryGroupMembers(group, optionalStart.get(), PAGE_SIZE)
+                  .thenApply(
+                      optionalMembers -> {
+                        optionalMembers
+                            .filter(members -> members.size() == PAGE_SIZE)
+                            .ifPresent(
+                                members ->
+                                    cursor.remember(
+                                        page,
+                                        members.get(PAGE_SIZE - 1).getUuid().toString()));
+                        return optionalMembers;
+                      });
+            });
+  }
+
+  /**
+   * Forgets the remembered pages of a viewer
+   *
+   * @param viewer The uuid of the viewer
+   * @since 1.0.0
+   */
+  public void forget(UUID viewer) {
+    cursors.remove(viewer);
+  }
+
+  /**
+   * Finds the uuid after which the given page starts
+   *
+   * @param driver The permission driver
+   * @param cursor The remembered pages of the viewer
+   * @param page The page
+   * @return The future optional uuid, empty if the page is after the last member
+   * @since 1.0.0
+   */
+  private CompletableFuture<Optional<String>> findPageStart(
+      PermissionDriver driver, Cursor cursor, int page) {
+    // The first page starts before every uuid
+    if (page == 1) {
+      return CompletableFuture.completedFuture(Optional.of(""));
+    }
+
+    Map.Entry<Integer, String> closest = cursor.closest(page - 1);
+    // The previous page was already seen
+    if (closest != null && closest.getKey() == page - 1) {
+      return CompletableFuture.completedFuture(Optional.of(closest.getValue()));
+    }
+
+    int seenPage = closest == null ? 0 : closest.getKey();
+    String afterId = closest == null ? "" : closest.getValue();
+    int skip = (page - 1 - seenPage) * PAGE_SIZE - 1;
+    return driver
+        .queryGroupMemberCursor(cursor.group, afterId, skip)
+        .thenApply(
+            optionalId -> {
+              optionalId.ifPresent(id -> cursor.remember(page - 1, id));
+              return optionalId;
+            });
+  }
+
+  /**
+   * The uuids of the last members of all pages a viewer has seen
+   *
+   * @since 1.0.0
+   * @author Lennox
+   */
+  private static class Cursor {
+    private final String group;
+    private final NavigableMap<Integer, String> pageEnds = new TreeMap<>();
+
+    private Cursor(String group) {
+      this.group = group;
+    }
+
+    /**
+     * Remembers the uuid of the last member of a page
+     *
+     * @param page The page
+     * @param lastId The uuid of the last member
+     * @since 1.0.0
+     */
+    private synchronized void remember(int page, String lastId) {
+      pageEnds.put(page, lastId);
+    }
+
+    /**
+     * Gets the closest remembered page at or before the given page
+     *
+     * @param page The page
+     * @return The page and the uuid of its last member or null if none is remembered
+     * @since 1.0.0
+     */
+    private synchronized Map.Entry<Integer, String> closest(int page) {
+      return pageEnds.floorEntry(page);
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package de.lennox.permissions.group;
+
+import de.lennox.permissions.database.model.PermissionChange;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Fluent builder for editing multiple permissions of a group at once, available to other plugins
+ * through {@link PermissionGroupRepository#edit(String)}.
+ *
+ * <p>All changes are applied in a single database statement and the group caches are only cleared
+ * once. Multiple changes of the same permission are coalesced, the latest change wins.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+@RequiredArgsConstructor
+public class PermissionGroupEdit {
+  private final PermissionGroupRepository repository;
+  private final String group;
+  // Keyed by denied state and permission to coalesce changes of the same row
+  private final Map<String, PermissionChange> changes = new LinkedHashMap<>();
+
+  /**
+   * Adds an allowed permission
+   *
+   * @param permission The permission
+   * @return The current edit
+   * @since 1.0.0
+   */
+  public PermissionGroupEdit allow(String permission) {
+    return change(new PermissionChange(permission, false, true));
+  }
+
+  /**
+   * Adds a denied permission
+   *
+   * @param permission The permission
+   * @return The current edit
+   * @since 1.0.0
+   */
+  public PermissionGroupEdit deny(String permission) {
+    return change(new PermissionChange(permission, true, true));
+  }
+
+  /**
+   * Removes an allowed permission
+   *
+   * @param permission The permission
+   * @return The current edit
+   * @since 1.0.0
+   */
+  public PermissionGroupEdit removeAllowed(String permission) {
+    return change(new PermissionChange(permission, false, false));
+  }
+
+  /**
+   * Removes a denied permission
+   *
+   * @param permission The permission
+   * @return The current edit
+   * @since 1.0.0
+   */
+  public PermissionGroupEdit removeDenied(String permission) {
+    return change(new PermissionChange(permission, true, false));
+  }
+
+  /**
+   * Adds a permission change
+   *
+   * @param change The permission change
+   * @return The current edit
+   * @since 1.0.0
+   */
+  public PermissionGroupEdit change(PermissionChange change) {
+    String key = (change.isDenied() ? "!" : "") + change.getPermission();
+    // Re-insert to keep the order of the latest change
+    changes.remove(key);
+    changes.put(key, change);
+    return this;
+  }
+
+  /**
+   * Adds multiple permission changes
+   *
+   * @param changes The permission changes
+   * @return The current edit
+   * @since 1.0.0
+   */
+  public PermissionGroupEdit changes(Collection<PermissionChange> changes) {
+    changes.forEach(this::change);
+    return this;
+  }
+
+  /**
+   * Returns the coalesced changes of this edit
+   *
+   * @return The permission changes
+   * @since 1.0.0
+   */
+  public List<PermissionChange> getChanges() {
+    return new ArrayList<>(changes.values());
+  }
+
+  /**
+   * Applies all changes to the group
+   *
+   * @return The future success state, false if the group doesn't exist or persisting failed
+   * @since 1.0.0
+   */
+  public CompletableFuture<Boolean> apply() {
+    return repository.applyChanges(group, getChanges());
+  }
+}
@@ -1,63 +1,95 @@
 package de.lennox.permissions.group;
 
 import de.lennox.permissions.PlayerPermissionPlugin;
+import de.lennox.permissions.database.model.PermissionChange;
 import de.lennox.permissions.database.model.PermissionGroup;
+import de.lennox.permissions.metrics.event.CacheLoadEvent;
+import de.lennox.permissions.permission.PermissionNodeIndex;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Contains all cached permission groups.
  *
- * <p>The group cache is never being invalidated, it is only being updated.
+ * <p>The group cache is never being invalidated, it is only being updated. Whenever a group is
+ * loaded or edited, its states of all known permission nodes are computed on a background thread.
  *
  * @since 1.0.0
  * @author Lennox
  */
 @Getter
 public class PermissionGroupRepository {
-  private final Map<String, PermissionGroup> cachedGroups = new HashMap<>();
+  private final Map<String, PermissionGroup> cachedGroups = new ConcurrentHashMap<>();
+  private final ExecutorService materializationThread =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "PlayerPermissions Group Materialization");
+            thread.setDaemon(true);
+            return thread;
+          });
 
   @Setter private PermissionGroup defaultGroup;
 
   /**
    * Builds an initial cache with all currently in-database persistent permission groups
    *
-   * <p>The cache is usually also updated after command executions to save database queries
+   * <p>The cache is usually also updated after command executions to save database queries. When
+   * called again, groups which no longer exist in the database are removed from the cache.
    *
+   * @return The future which completes once the cache is built
    * @since 1.0.0
    */
-  public void buildInitialCache() {
+  public CompletableFuture<Void> buildInitialCache() {
     Logger logger = PlayerPermissionPlugin.getSingleton().getLogger();
-    PlayerPermissionPlugin.getSingleton()
+    PermissionNodeIndex nodeIndex = PlayerPermissionPlugin.getSingleton().getPermissionNodeIndex();
+    CacheLoadEvent event = new CacheLoadEvent();
+    event.begin();
+    return PlayerPermissionPlugin.getSingleton()
         .getPermissionDriver()
         .queryAllGroups()
-        .whenCompleteAsync(
-            (optionalGroups, t) -> {
+        .thenAcceptAsync(
+            optionalGroups -> {
               // Notify server administrator if groups could not be fetched
               if (optionalGroups.isEmpty()) {
+                event.commit("groups", "", 0, false);
                 logger.log(
                     Level.WARNING, "Could not cache groups as loading from database failed!");
                 return;
               }
 
               List<PermissionGroup> groups = optionalGroups.get();
+              Set<String> groupNames = new HashSet<>();
+              PermissionGroup loadedDefaultGroup = null;
               for (PermissionGroup group : groups) {
                 if (group.isDefaultGroup()) {
-                  defaultGroup = group;
+                  loadedDefaultGroup = group;
                 }
 
+                groupNames.add(group.getName());
                 cachedGroups.put(group.getName(), group);
+                nodeIndex.addAll(group.getAllowedPermissions());
+                nodeIndex.addAll(group.getDeniedPermissions());
               }
+              cachedGroups.keySet().retainAll(groupNames);
+              defaultGroup = loadedDefaultGroup;
+              updateSuggestions();
+              materializeGroups(groups);
+              event.commit("groups", "", groups.size(), true);
 
-              logger.log(Level.INFO, "Cached " + groups.size() + " group(s) on start-up!");
+              logger.log(Level.INFO, "Cached " + groups.size() + " group(s)!");
             });
   }
 
@@ -74,11 +106,15 @@ public class PermissionGroupRepository {
     if (cachedGroups.containsKey(name)) {
       groupFuture.complete(Optional.of(cachedGroups.get(name)));
     } else {
+      CacheLoadEvent event = new CacheLoadEvent();
+      event.begin();
       PlayerPermissionPlugin.getSingleton()
           .getPermissionDriver()
           .queryGroupByName(name)
           .whenCompleteAsync(
               (optionalGroup, t) -> {
+                boolean found = optionalGroup.isPresent();
+                event.commit("groups", name, found ? 1 : 0, found);
                 // Complete with empty group if no group could be found
                 if (optionalGroup.isEmpty()) {
                   groupFuture.complete(Optional.empty());
@@ -87,6 +123,8 @@ public class PermissionGroupRepository {
 
                 PermissionGroup databaseGroup = optionalGroup.get();
                 cachedGroups.put(databaseGroup.getName(), databaseGroup);
+                updateSuggestions();
+                materializeGroups(List.of(databaseGroup));
                 groupFuture.complete(Optional.of(databaseGroup));
               });
     }
@@ -135,5 +173,113 @@ public class PermissionGroupRepository {
    */
   public void invalidate(String name) {
     cachedGroups.remove(name);
+    updateSuggestions();
+  }
+
+  /**
+   * Adds a newly created group to the cache
+   *
+   * @param group The group
+   * @since 1.0.0
+   */
+  public void register(PermissionGroup group) {
+    cachedGroups.put(group.getName(), group);
+    updateSuggestions();
+    materializeGroups(List.of(group));
+  }
+
+  /**
+   * Creates a new permission edit for the given group, used to change multiple permissions at once
+   *
+   * @param name The group name
+   * @return The permission edit
+   * @since 1.0.0
+   */
+  public PermissionGroupEdit edit(String name) {
+    return new PermissionGroupEdit(this, name);
+  }
+
+  /**
+   * Persists the given permission changes of a group and applies them to the cached group
+   *
+   * @param name The group name
+   * @param changes The permission changes
+   * @return The future success state, false if the group doesn't exist or persisting failed
+   * @since 1.0.0
+   */
+  public CompletableFuture<Boolean> applyChanges(String name, List<PermissionChange> changes) {
+    PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
+    return getGroup(name)
+        .thenCompose(
+            optionalGroup -> {
+              // Nothing to apply if the group doesn't exist or nothing changes
+              if (optionalGroup.isEmpty() || changes.isEmpty()) {
+                return CompletableFuture.completedFuture(optionalGroup.isPresent());
+              }
+
+              PermissionGroup group = optionalGroup.get();
+              return permissions
+                  .getPermissionDriver()
+                  .applyPermissionChanges(name, changes)
+                  .thenApply(
+                      success -> {
+                        // Keep the cache in sync with the database
+                        if (!success) {
+                          return false;
+                        }
+
+                        group.applyChanges(changes);
+                        for (PermissionChange change : changes) {
+                          if (change.isAdd()) {
+                            permissions.getPermissionNodeIndex().add(change.getPermission());
+                          }
+                        }
+                        materializeGroups(List.of(group));
+                        permissions.getCommandRegistrar().updateGroupCommands(name);
+                        return true;
+                      });
+            });
+  }
+
+  /**
+   * Computes the states of all known permission nodes for the given groups in the background
+   *
+   * @param groups The groups
+   * @since 1.0.0
+   */
+  public void materializeGroups(Collection<PermissionGroup> groups) {
+    PermissionNodeIndex nodeIndex = PlayerPermissionPlugin.getSingleton().getPermissionNodeIndex();
+    materializationThread.execute(
+        () -> {
+          // The nodes are read once the task runs, so nodes indexed in the meantime are included
+          for (PermissionGroup group : groups) {
+            group.materialize(nodeIndex.getNodes());
+          }
+        });
+  }
+
+  /**
+   * Computes the states of the given newly known permission nodes for all cached groups in the
+   * background
+   *
+   * @param nodes The permission nodes
+   * @since 1.0.0
+   */
+  public void materializeNodes(Collection<String> nodes) {
+    materializationThread.execute(
+        () -> {
+          for (PermissionGroup group : cachedGroups.values()) {
+            group.materialize(nodes);
+          }
+        });
+  }
+
+  /**
+   * Updates the group name suggestions after the cached groups changed
+   *
+   * @since 1.0.0
+   */
+  private void updateSuggestions() {
+    PlayerPermissionPlugin.getSingleton().getSuggestionIndex().updateGroups(cachedGroups.keySet());
   }
 }
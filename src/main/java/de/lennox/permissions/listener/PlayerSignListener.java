@@ -4,14 +4,15 @@ import de.lennox.permissions.PlayerPermissionPlugin;
 import de.lennox.permissions.database.model.InformativeSign;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.Tag;
 import org.bukkit.block.Block;
-import org.bukkit.block.Sign;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.SignChangeEvent;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Listens to all sign changes and block breaks a player makes to create / remove informative signs
@@ -36,25 +37,34 @@ public class PlayerSignListener implements Listener {
     int y = block.getY();
     int z = block.getZ();
     String worldName = block.getWorld().getName();
-    PlayerPermissionPlugin.getSingleton().getSignDriver().createSign(x, y, z, worldName);
-    PlayerPermissionPlugin.getSingleton()
-        .getSignRepository()
-        .register(new InformativeSign(x, y, z, worldName));
+    PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
+    InformativeSign sign = new InformativeSign(x, y, z, worldName);
+    permissions.getSignPersistenceQueue().create(sign);
+    permissions.getSignRepository().register(sign);
+    permissions.getSignTextUpdater().markAllDirty();
   }
 
   @EventHandler
   public void onBlockBreak(BlockBreakEvent event) {
     PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
     Block block = event.getBlock();
+    Optional<InformativeSign> optionalSign =
+        permissions.getSignRepository().invalidate(block.getLocation());
+    if (optionalSign.isPresent()) {
+      InformativeSign sign = optionalSign.get();
+      permissions.getSignPersistenceQueue().delete(sign);
+      permissions.getSignTextUpdater().forget(sign);
+      return;
+    }
 
-    // Only invalidate signs
-    if (block.getState() instanceof Sign) {
+    // Signs of chunks whose signs are still loading aren't registered yet, delete them anyway so
+    // they don't come back once the chunk query completes
+    if (Tag.SIGNS.isTagged(block.getType())) {
       permissions
-          .getSignDriver()
-          .deleteSign(
+          .getSignPersistenceQueue()
+          .delete(
               new InformativeSign(
                   block.getX(), block.getY(), block.getZ(), block.getWorld().getName()));
-      permissions.getSignRepository().invalidate(event.getBlock().getLocation());
     }
   }
 }
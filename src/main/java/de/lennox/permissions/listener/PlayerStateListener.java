@@ -4,7 +4,6 @@ import de.lennox.permissions.PlayerPermissionPlugin;
 import de.lennox.permissions.database.model.PermissionGroup;
 import de.lennox.permissions.database.model.PermittedPlayer;
 import de.lennox.permissions.group.PermissionGroupRepository;
-import de.lennox.permissions.permission.PermissibleBaseInjector;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.Bukkit;
@@ -12,9 +11,12 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLocaleChangeEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -27,8 +29,6 @@ import java.util.UUID;
  * @author Lennox
  */
 public class PlayerStateListener implements Listener {
-  private final PermissibleBaseInjector injector = new PermissibleBaseInjector();
-
   @EventHandler
   private void onPlayerLogin(AsyncPlayerPreLoginEvent event) {
     PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
@@ -52,7 +52,13 @@ public class PlayerStateListener implements Listener {
     PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
     PermissionGroupRepository groups = permissions.getGroupRepository();
 
-    injector.injectIntoPlayer(player);
+    permissions.getPermissibleBaseInjector().injectIntoPlayer(player);
+    permissions.getPlayerRepository().registerName(player.getUniqueId(), player.getName());
+    permissions.getSuggestionIndex().addPlayerNames(List.of(player.getName()));
+    // The locale may already be known from the client settings, later changes fire an event
+    permissions
+        .getPlayerLanguageRepository()
+        .storeClientLocale(player.getUniqueId(), player.getLocale());
     permissions
         .getPlayerRepository()
         .getPermittedPlayer(player.getUniqueId())
@@ -85,7 +91,26 @@ public class PlayerStateListener implements Listener {
 
   @EventHandler
   private void onPlayerQuit(PlayerQuitEvent event) {
+    Player player = event.getPlayer();
+    UUID uuid = player.getUniqueId();
+    PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
+    permissions.getPlayerRepository().unregisterName(uuid, player.getName());
+    permissions.getSignTextUpdater().forget(uuid);
+    permissions.getMemberPages().forget(uuid);
+    permissions.getVerboseTracer().stop(uuid);
+  }
+
+  @EventHandler
+  private void onPlayerLocaleChange(PlayerLocaleChangeEvent event) {
+    UUID uuid = event.getPlayer().getUniqueId();
+    PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
+    permissions.getPlayerLanguageRepository().storeClientLocale(uuid, event.getLocale());
+    permissions.getSignTextUpdater().markDirty(uuid);
+  }
+
+  @EventHandler
+  private void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
     UUID uuid = event.getPlayer().getUniqueId();
-    PlayerPermissionPlugin.getSingleton().getPlayerLanguageRepository().invalidate(uuid);
+    PlayerPermissionPlugin.getSingleton().getSignTextUpdater().markDirty(uuid);
   }
 }
@@ -0,0 +1,45 @@
+package de.lennox.permissions.listener;
+
+import de.lennox.permissions.PlayerPermissionPlugin;
+import org.bukkit.Chunk;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+/**
+ * Listens to world and chunk loading to lazily load and release informative signs
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+public class WorldStateListener implements Listener {
+
+  @EventHandler
+  private void onWorldLoad(WorldLoadEvent event) {
+    PlayerPermissionPlugin.getSingleton().getSignRepository().loadWorld(event.getWorld());
+  }
+
+  @EventHandler
+  private void onWorldUnload(WorldUnloadEvent event) {
+    PlayerPermissionPlugin.getSingleton().getSignRepository().unloadWorld(event.getWorld());
+  }
+
+  @EventHandler
+  private void onChunkLoad(ChunkLoadEvent event) {
+    Chunk chunk = event.getChunk();
+    PlayerPermissionPlugin.getSingleton()
+        .getSignRepository()
+        .loadChunk(chunk.getWorld(), chunk.getX(), chunk.getZ());
+  }
+
+  @EventHandler
+  private void onChunkUnload(ChunkUnloadEvent event) {
+    Chunk chunk = event.getChunk();
+    PlayerPermissionPlugin.getSingleton()
+        .getSignRepository()
+        .unloadChunk(chunk.getWorld(), chunk.getX(), chunk.getZ());
+  }
+}
@@ -0,0 +1,112 @@
+package de.lennox.permissions.locale;
+
+import de.lennox.permissions.PlayerPermissionPlugin;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Watches the language folder and reloads the language bundles once a bundle file changed
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+@RequiredArgsConstructor
+public class LanguageBundleWatcher {
+  private static final long SETTLE_MILLIS = 500;
+  private final LocalizationRepository localization;
+  private final Path folder;
+  private WatchService watchService;
+
+  /**
+   * Starts watching the language folder on a daemon thread
+   *
+   * @since 1.0.0
+   */
+  public void start() {
+    try {
+      this.watchService = folder.getFileSystem().newWatchService();
+      folder.register(
+          watchService,
+          StandardWatchEventKinds.ENTRY_CREATE,
+          StandardWatchEventKinds.ENTRY_MODIFY);
+    } catch (IOException e) {
+      PlayerPermissionPlugin.getSingleton()
+          .getLogger()
+          .log(Level.WARNING, "Could not watch language folder, hot reload is disabled", e);
+      return;
+    }
+
+    Thread watcherThread = new Thread(this::watch, "PlayerPermissions Language Watcher");
+    watcherThread.setDaemon(true);
+    watcherThread.start();
+  }
+
+  /**
+   * Stops watching the language folder
+   *
+   * @since 1.0.0
+   */
+  public void stop() {
+    // Nothing to stop if watching never started
+    if (watchService == null) {
+      return;
+    }
+    try {
+      watchService.close();
+    } catch (IOException ignored) {
+      // The watch service is discarded either way
+    }
+  }
+
+  /**
+   * Waits for changes of bundle files and triggers a reload for every batch of changes
+   *
+   * @since 1.0.0
+   */
+  private void watch() {
+    Logger logger = PlayerPermissionPlugin.getSingleton().getLogger();
+    try {
+      while (true) {
+        WatchKey key = watchService.take();
+        // Editors often write files in several steps, let the changes settle first
+        Thread.sleep(SETTLE_MILLIS);
+
+        boolean bundleChanged = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+          if (event.context() instanceof Path path
+              && path.getFileName().toString().endsWith(".properties")) {
+            bundleChanged = true;
+          }
+        }
+        // Stop watching if the folder is no longer accessible
+        if (!key.reset()) {
+          return;
+        }
+
+        if (bundleChanged) {
+          localization
+              .reload()
+              .thenAccept(
+                  success -> {
+                    // Signs show localized text, so they have to be re-sent
+                    if (success) {
+                      logger.log(Level.INFO, "Reloaded language bundles after a file change");
+                      PlayerPermissionPlugin.getSingleton().getSignTextUpdater().markAllDirty();
+                    }
+                  });
+        }
+      }
+    } catch (InterruptedException | ClosedWatchServiceException ignored) {
+      // The watcher was stopped
+    }
+  }
+}
@@ -2,11 +2,16 @@ package de.lennox.permissions.locale;
 
 import lombok.RequiredArgsConstructor;
 
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.ResourceBundle;
 
 /**
- * Access point for internationalized messages
+ * Access point for internationalized messages.
+ *
+ * <p>The bundle is flattened into an immutable map of pre-parsed message templates on load, so
+ * message lookups neither walk the bundle parent chain nor parse formats again.
  *
  * @since 1.0.0
  * @author Lennox
@@ -16,26 +21,43 @@ public class LocalizationProvider {
   private static final String BUNDLE_KEY = "permissions";
   private final ClassLoader loader;
   private final Locale locale;
-  private ResourceBundle bundle;
+  private Map<String, MessageTemplate> templates = Map.of();
 
   /**
-   * Loads the bundle for the given locale
+   * Loads the bundle for the given locale and compiles all of its messages
    *
    * @since 1.0.0
    */
   public void load() {
-    this.bundle = ResourceBundle.getBundle(BUNDLE_KEY, locale, loader);
+    ResourceBundle bundle = ResourceBundle.getBundle(BUNDLE_KEY, locale, loader);
+    Map<String, MessageTemplate> compiledTemplates = new HashMap<>();
+    for (String key : bundle.keySet()) {
+      compiledTemplates.put(key, MessageTemplate.compile(bundle.getString(key)));
+    }
+    this.templates = Map.copyOf(compiledTemplates);
+  }
+
+  /**
+   * Gets the message template with the given key
+   *
+   * @param key Message key
+   * @return The message template or null if the bundle doesn't contain the key
+   * @since 1.0.0
+   */
+  public MessageTemplate getTemplate(String key) {
+    return templates.get(key);
   }
 
   /**
    * Gets a message from the localization bundle with the given key
    *
    * @param key Message key
-   * @return The localized message
+   * @return The localized message or the key if the bundle doesn't contain the key
    * @since 1.0.0
    */
   public String getMessage(String key) {
-    return this.bundle.getString(key);
+    MessageTemplate template = templates.get(key);
+    return template == null ? key : template.getPattern();
   }
 
   /**
@@ -7,6 +7,7 @@ import org.bukkit.configuration.file.FileConfiguration;
 
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.net.URLClassLoader;
@@ -14,19 +15,35 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Stores the I18n localization equivalents for the configured languages
+ * Stores the I18n localization equivalents for the configured languages.
+ *
+ * <p>All providers are kept in an immutable snapshot. Reloads build a new snapshot off-thread and
+ * swap it in as a whole, readers never block and always see either the old or the new bundles.
  *
  * @since 1.0.0
  * @author Lennox
  */
-@Getter
 public class LocalizationRepository {
   private static final String[] PROVIDED_BUNDLES = new String[] {"de", "en"};
-  private final Map<String, LocalizationProvider> localeCache = new HashMap<>();
+  public static final String DEFAULT_LANGUAGE = "en";
+  private static final File LANGUAGE_BUNDLE_FOLDER =
+      new File("plugins/PlayerPermissions/languages/");
+  private final ExecutorService reloadThread = Executors.newSingleThreadExecutor();
+  @Getter private volatile Map<String, LocalizationProvider> localeCache = Map.of();
+  @Getter private List<String> languages = List.of();
+  // Counts the swapped in snapshots, only written on the reload thread
+  @Getter private volatile long generation;
+  // Only accessed on the reload thread
+  private URLClassLoader bundleLoader;
+  private LanguageBundleWatcher watcher;
 
   /**
    * Loads all in the configuration provided localization bundles.
@@ -34,36 +51,115 @@ public class LocalizationRepository {
    * @param config The plugin configuration
    * @since 1.0.0
    */
-  @SneakyThrows
   public void load(FileConfiguration config) {
     extractLanguageBundles();
 
     Logger logger = PlayerPermissionPlugin.getSingleton().getLogger();
     //noinspection unchecked
-    List<String> languages = (List<String>) config.getList("languages");
+    List<String> configuredLanguages = (List<String>) config.getList("languages");
     // Stop loading of plugin if no languages are provided
-    if (languages == null) {
+    if (configuredLanguages == null) {
       logger.log(
           Level.SEVERE,
           "Could not find languages attribute in config file, plugin cannot continue operating.");
       throw new IllegalStateException("Missing language attribute in config");
     }
+    this.languages = List.copyOf(configuredLanguages);
+
+    // Messages have to be available as soon as the plugin is enabled
+    reload().join();
+    if (config.getBoolean("language-hot-reload", true) && LANGUAGE_BUNDLE_FOLDER.exists()) {
+      this.watcher = new LanguageBundleWatcher(this, LANGUAGE_BUNDLE_FOLDER.toPath());
+      this.watcher.start();
+    }
+  }
+
+  /**
+   * Reloads all language bundles from the language folder on the reload thread and swaps in the
+   * new bundles once all of them are loaded. The current bundles stay active if loading fails.
+   *
+   * @return The future reload state
+   * @since 1.0.0
+   */
+  public CompletableFuture<Boolean> reload() {
+    CompletableFuture<Boolean> reloadFuture = new CompletableFuture<>();
+    reloadThread.execute(
+        () -> {
+          try {
+            reloadFuture.complete(loadSnapshot());
+          } catch (Exception e) {
+            PlayerPermissionPlugin.getSingleton()
+                .getLogger()
+                .log(Level.SEVERE, "Failed to reload language bundles!", e);
+            reloadFuture.complete(false);
+          }
+        });
+    return reloadFuture;
+  }
+
+  /**
+   * Stops the bundle watcher and releases the loaded bundles
+   *
+   * @since 1.0.0
+   */
+  public void close() {
+    if (watcher != null) {
+      watcher.stop();
+    }
+    reloadThread.execute(
+        () -> {
+          try {
+            if (bundleLoader != null) {
+              bundleLoader.close();
+            }
+          } catch (IOException ignored) {
+            // The loader is discarded either way
+          }
+        });
+    reloadThread.shutdown();
+  }
 
-    File languageBundleFolder = new File("plugins/PlayerPermissions/languages/");
+  /**
+   * Loads the bundles of all configured languages with a fresh class loader and publishes them
+   *
+   * @return The load state
+   * @throws IOException If the language folder could not be accessed
+   * @since 1.0.0
+   */
+  private boolean loadSnapshot() throws IOException {
     // Do not proceed loading if the language bundles are absent
-    if (!languageBundleFolder.exists()) {
-      logger.log(
-          Level.SEVERE,
-          "Could not find language bundle folder, please check the folder permissions");
-      return;
+    if (!LANGUAGE_BUNDLE_FOLDER.exists()) {
+      PlayerPermissionPlugin.getSingleton()
+          .getLogger()
+          .log(
+              Level.SEVERE,
+              "Could not find language bundle folder, please check the folder permissions");
+      return false;
     }
 
-    ClassLoader languageBundleLoader =
-        new URLClassLoader(new URL[] {languageBundleFolder.toURI().toURL()});
-    for (String language : languages) {
-      localeCache.put(
-          language, LocalizationProvider.of(Locale.forLanguageTag(language), languageBundleLoader));
+    // A fresh loader is required as bundles are cached per class loader
+    URLClassLoader loader =
+        new URLClassLoader(new URL[] {LANGUAGE_BUNDLE_FOLDER.toURI().toURL()});
+    Map<String, LocalizationProvider> providers = new HashMap<>();
+    try {
+      for (String language : languages) {
+        providers.put(language, LocalizationProvider.of(Locale.forLanguageTag(language), loader));
+      }
+    } catch (RuntimeException e) {
+      loader.close();
+      throw e;
     }
+    this.localeCache = Map.copyOf(providers);
+    this.generation++;
+
+    // Providers hold compiled templates only, so the previous loader can be released safely
+    URLClassLoader previousLoader = bundleLoader;
+    this.bundleLoader = loader;
+    if (previousLoader != null) {
+      ResourceBundle.clearCache(previousLoader);
+      previousLoader.close();
+    }
+    return true;
   }
 
   /**
@@ -102,6 +198,57 @@ public class LocalizationRepository {
     }
   }
 
+  /**
+   * Matches a client locale against the loaded languages, first by the full locale and then by its
+   * language. Falls back to the default language if no language matches.
+   *
+   * @param clientLocale The client locale (e.g. de_de)
+   * @return The matching language
+   * @since 1.0.0
+   */
+  public String matchLanguage(String clientLocale) {
+    Map<String, LocalizationProvider> providers = localeCache;
+    String tag = clientLocale.replace('_', '-').toLowerCase(Locale.ROOT);
+    if (providers.containsKey(tag)) {
+      return tag;
+    }
+
+    int separator = tag.indexOf('-');
+    String language = separator == -1 ? tag : tag.substring(0, separator);
+    return providers.containsKey(language) ? language : DEFAULT_LANGUAGE;
+  }
+
+  /**
+   * Gets the message template for the given key and language. Falls back to the default language
+   * if the language or the key is unknown and to the key itself if nothing matches.
+   *
+   * @param lang The lang / language
+   * @param key The message key
+   * @return The message template
+   * @since 1.0.0
+   */
+  public MessageTemplate getTemplate(String lang, String key) {
+    // Read the snapshot once to resolve all fallbacks from the same bundles
+    Map<String, LocalizationProvider> providers = localeCache;
+    LocalizationProvider provider = providers.get(lang);
+    if (provider != null) {
+      MessageTemplate template = provider.getTemplate(key);
+      if (template != null) {
+        return template;
+      }
+    }
+
+    LocalizationProvider defaultProvider = providers.get(DEFAULT_LANGUAGE);
+    if (defaultProvider != null && defaultProvider != provider) {
+      MessageTemplate template = defaultProvider.getTemplate(key);
+      if (template != null) {
+        return template;
+      }
+    }
+    // Return the key if no bundle knows the message
+    return MessageTemplate.literal(key);
+  }
+
   /**
    * Gets a message for the given key and language
    *
@@ -111,11 +258,19 @@ public class LocalizationRepository {
    * @since 1.0.0
    */
   public String getMessage(String lang, String key) {
-    // Return the key on invalid language
-    if (!localeCache.containsKey(lang)) {
-      return key;
-    }
+    return getTemplate(lang, key).getPattern();
+  }
 
-    return localeCache.get(lang).getMessage(key);
+  /**
+   * Gets a message for the given key and language and fills in the given arguments
+   *
+   * @param lang The lang / language
+   * @param key The message key
+   * @param args The message arguments
+   * @return The localized and formatted string
+   * @since 1.0.0
+   */
+  public String format(String lang, String key, Object... args) {
+    return getTemplate(lang, key).render(args);
   }
 }
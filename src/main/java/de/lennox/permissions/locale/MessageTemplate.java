@@ -0,0 +1,166 @@
+package de.lennox.permissions.locale;
+
+import lombok.Getter;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.IllegalFormatConversionException;
+import java.util.List;
+
+/**
+ * A pre-parsed localized message format.
+ *
+ * <p>The format is split into literal parts and argument references once, rendering only fills in
+ * the arguments. Supported are {@code %s}, {@code %d} (optionally with an explicit index like
+ * {@code %1$s}), {@code %%} and {@code %n}. Formats using any other specifier are rendered through
+ * {@link String#format(String, Object...)} instead. Like there, {@code %d} only accepts integral
+ * numbers.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+public class MessageTemplate {
+  @Getter private final String pattern;
+  // All three are null if the pattern has to be rendered through String#format
+  private final String[] literals;
+  private final int[] arguments;
+  // Whether the argument reference at the same position is a %d
+  private final boolean[] integral;
+
+  private MessageTemplate(String pattern, String[] literals, int[] arguments, boolean[] integral) {
+    this.pattern = pattern;
+    this.literals = literals;
+    this.arguments = arguments;
+    this.integral = integral;
+  }
+
+  /**
+   * Parses the given format into a message template
+   *
+   * @param pattern The format
+   * @return The message template
+   * @since 1.0.0
+   */
+  public static MessageTemplate compile(String pattern) {
+    List<String> literals = new ArrayList<>();
+    List<Integer> arguments = new ArrayList<>();
+    List<Boolean> integral = new ArrayList<>();
+    StringBuilder literal = new StringBuilder();
+    int ordinaryIndex = 0;
+
+    for (int i = 0; i < pattern.length(); i++) {
+      char c = pattern.charAt(i);
+      if (c != '%') {
+        literal.append(c);
+        continue;
+      }
+      // A trailing percent sign is no valid specifier
+      if (i + 1 >= pattern.length()) {
+        return new MessageTemplate(pattern, null, null, null);
+      }
+
+      char next = pattern.charAt(i + 1);
+      if (next == '%') {
+        literal.append('%');
+        i++;
+        continue;
+      }
+      if (next == 'n') {
+        literal.append(System.lineSeparator());
+        i++;
+        continue;
+      }
+
+      // Resolve an explicit argument index (e.g. %2$s)
+      int end = i + 1;
+      while (end < pattern.length() && Character.isDigit(pattern.charAt(end))) {
+        end++;
+      }
+      int index = -1;
+      if (end > i + 1 && end < pattern.length() && pattern.charAt(end) == '$') {
+        index = Integer.parseInt(pattern.substring(i + 1, end)) - 1;
+        end++;
+      } else {
+        end = i + 1;
+      }
+
+      // Fall back to String#format for unsupported specifiers
+      if (end >= pattern.length() || (pattern.charAt(end) != 's' && pattern.charAt(end) != 'd')) {
+        return new MessageTemplate(pattern, null, null, null);
+      }
+
+      literals.add(literal.toString());
+      literal.setLength(0);
+      arguments.add(index == -1 ? ordinaryIndex++ : index);
+      integral.add(pattern.charAt(end) == 'd');
+      i = end;
+    }
+    literals.add(literal.toString());
+
+    boolean[] integralArguments = new boolean[integral.size()];
+    for (int i = 0; i < integralArguments.length; i++) {
+      integralArguments[i] = integral.get(i);
+    }
+    return new MessageTemplate(
+        pattern,
+        literals.toArray(new String[0]),
+        arguments.stream().mapToInt(Integer::intValue).toArray(),
+        integralArguments);
+  }
+
+  /**
+   * Creates a message template which always renders the given text as it is
+   *
+   * @param text The text
+   * @return The message template
+   * @since 1.0.0
+   */
+  public static MessageTemplate literal(String text) {
+    return new MessageTemplate(text, new String[] {text}, new int[0], new boolean[0]);
+  }
+
+  /**
+   * Renders the message with the given arguments
+   *
+   * @param args The arguments
+   * @return The rendered message
+   * @throws IllegalFormatConversionException If a {@code %d} argument isn't an integral number
+   * @since 1.0.0
+   */
+  public String render(Object... args) {
+    if (literals == null) {
+      return String.format(pattern, args);
+    }
+    // Messages without arguments don't need to be built
+    if (arguments.length == 0) {
+      return literals[0];
+    }
+
+    StringBuilder builder = new StringBuilder(pattern.length() + 16 * arguments.length);
+    for (int i = 0; i < arguments.length; i++) {
+      builder.append(literals[i]);
+      Object argument = arguments[i] < args.length ? args[arguments[i]] : null;
+      // Report mismatching arguments like String#format instead of rendering them
+      if (integral[i] && argument != null && !isIntegral(argument)) {
+        throw new IllegalFormatConversionException('d', argument.getClass());
+      }
+      builder.append(argument);
+    }
+    return builder.append(literals[arguments.length]).toString();
+  }
+
+  /**
+   * Returns if the argument is accepted by {@code %d}
+   *
+   * @param argument The argument
+   * @return Whether the argument is an integral number
+   * @since 1.0.0
+   */
+  private static boolean isIntegral(Object argument) {
+    return argument instanceof Integer
+        || argument instanceof Long
+        || argument instanceof Short
+        || argument instanceof Byte
+        || argument instanceof BigInteger;
+  }
+}
@@ -0,0 +1,67 @@
+package de.lennox.permissions.metrics;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing counter.
+ *
+ * <p>Increments are striped across cells, so counting on hot paths from many threads doesn't
+ * contend on a single memory location.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+@Getter
+@RequiredArgsConstructor
+public class Counter implements Metric {
+  private final String name;
+  private final String help;
+  @Getter(AccessLevel.NONE)
+  private final LongAdder value = new LongAdder();
+
+  /**
+   * Increments the counter by one
+   *
+   * @since 1.0.0
+   */
+  public void increment() {
+    value.increment();
+  }
+
+  /**
+   * Increments the counter by the given amount
+   *
+   * @param amount The amount
+   * @since 1.0.0
+   */
+  public void add(long amount) {
+    value.add(amount);
+  }
+
+  /**
+   * Gets the current value of the counter
+   *
+   * @return The value
+   * @since 1.0.0
+   */
+  public long get() {
+    return value.sum();
+  }
+
+  /**
+   * Appends the samples of the metric in the Prometheus text format
+   *
+   * @param output The output
+   * @since 1.0.0
+   */
+  @Override
+  public void writePrometheus(StringBuilder output) {
+    output.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    output.append("# TYPE ").append(name).append(" counter\n");
+    output.append(name).append(' ').append(get()).append('\n');
+  }
+}
@@ -0,0 +1,247 @@
+package de.lennox.permissions.metrics;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Approximate frequencies of keys with a count-min sketch and the most frequent keys.
+ *
+ * <p>Every key increments one counter in each of four rows, its frequency is estimated as the
+ * smallest of these counters, which can only overestimate. The keys with the highest estimates are
+ * kept as heavy hitters, so memory stays constant no matter how many distinct keys are counted.
+ * Once the sample size is reached all counters are halved, so the frequencies follow recent
+ * traffic.
+ *
+ * <p>Only one in {@code sampleRate} occurrences is counted, the others cost a thread-local random
+ * number. Estimates are scaled back up by the sample rate. Sampled occurrences increment the
+ * counters and a striped adder, and only touch the heavy hitters if the key is or becomes one.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+@Getter
+public class FrequencySketch implements Metric {
+  private static final long[] SEEDS = {
+    0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+  };
+  private final String name;
+  private final String help;
+  private final int width;
+  private final int heavyHitterCapacity;
+  private final long sampleSize;
+  private final int sampleRate;
+
+  @Getter(AccessLevel.NONE)
+  private final AtomicLongArray counters;
+
+  @Getter(AccessLevel.NONE)
+  private final LongAdder additions = new LongAdder();
+
+  // The amount of additions at which the counters are halved next
+  @Getter(AccessLevel.NONE)
+  private final AtomicLong nextAging;
+
+  @Getter(AccessLevel.NONE)
+  private final Map<String, Long> heavyHitters = new ConcurrentHashMap<>();
+
+  @Getter(AccessLevel.NONE)
+  private volatile long heavyHitterFloor;
+
+  /**
+   * Creates a new empty sketch
+   *
+   * @param name The name
+   * @param help The description
+   * @param width The counters per row, a power of two
+   * @param heavyHitterCapacity The amount of heavy hitters kept
+   * @param sampleSize The amount of counted keys after which all counters are halved
+   * @param sampleRate Counts one in this many occurrences, a power of two
+   * @throws IllegalArgumentException If the width or the sample rate isn't a positive power of two
+   * @since 1.0.0
+   */
+  public FrequencySketch(
+      String name,
+      String help,
+      int width,
+      int heavyHitterCapacity,
+      long sampleSize,
+      int sampleRate) {
+    if (width <= 0 || Integer.bitCount(width) != 1) {
+      throw new IllegalArgumentException("Width has to be a power of two: " + width);
+    }
+    if (sampleRate <= 0 || Integer.bitCount(sampleRate) != 1) {
+      throw new IllegalArgumentException("Sample rate has to be a power of two: " + sampleRate);
+    }
+    this.name = name;
+    this.help = help;
+    this.width = width;
+    this.heavyHitterCapacity = heavyHitterCapacity;
+    this.sampleSize = sampleSize;
+    this.sampleRate = sampleRate;
+    this.nextAging = new AtomicLong(sampleSize);
+    this.counters = new AtomicLongArray(SEEDS.length * width);
+  }
+
+  /**
+   * Counts one occurrence of the key, if it is sampled
+   *
+   * @param key The key
+   * @since 1.0.0
+   */
+  public void increment(String key) {
+    // Most occurrences aren't sampled and never touch shared state
+    if (sampleRate > 1 && (ThreadLocalRandom.current().nextInt() & (sampleRate - 1)) != 0) {
+      return;
+    }
+
+    int hash = key.hashCode();
+    long counted = Long.MAX_VALUE;
+    for (int row = 0; row < SEEDS.length; row++) {
+      counted = Math.min(counted, counters.incrementAndGet(index(hash, row)));
+    }
+    additions.increment();
+    long agingAt = nextAging.get();
+    // Only the thread moving the threshold ages the counters
+    if (additions.sum() >= agingAt && nextAging.compareAndSet(agingAt, agingAt + sampleSize)) {
+      age();
+      counted >>= 1;
+    }
+    updateHeavyHitters(key, counted * sampleRate);
+  }
+
+  /**
+   * Estimates how often the key was counted recently
+   *
+   * @param key The key
+   * @return The estimate, never below the sampled frequency
+   * @since 1.0.0
+   */
+  public long estimate(String key) {
+    int hash = key.hashCode();
+    long counted = Long.MAX_VALUE;
+    for (int row = 0; row < SEEDS.length; row++) {
+      counted = Math.min(counted, counters.get(index(hash, row)));
+    }
+    return counted * sampleRate;
+  }
+
+  /**
+   * Gets the most frequent keys with their estimates
+   *
+   * @param limit The maximum amount of keys
+   * @return The keys ordered by their estimates, highest first
+   * @since 1.0.0
+   */
+  public List<Map.Entry<String, Long>> getHeavyHitters(int limit) {
+    List<Map.Entry<String, Long>> entries = new ArrayList<>();
+    for (Map.Entry<String, Long> entry : heavyHitters.entrySet()) {
+      entries.add(Map.entry(entry.getKey(), entry.getValue()));
+    }
+    entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+    return entries.size() > limit ? entries.subList(0, limit) : entries;
+  }
+
+  /**
+   * Writes the heavy hitters as gauge labeled with their key
+   *
+   * @param output The output
+   * @since 1.0.0
+   */
+  @Override
+  public void writePrometheus(StringBuilder output) {
+    output.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    output.append("# TYPE ").append(name).append(" gauge\n");
+    for (Map.Entry<String, Long> entry : getHeavyHitters(heavyHitterCapacity)) {
+      String key = entry.getKey().replace("\\", "\\\\").replace("\"", "\\\"");
+      output.append(name).append("{key=\"").append(key).append("\"} ");
+      output.append(entry.getValue()).append('\n');
+    }
+  }
+
+  /**
+   * Updates the estimate of a heavy hitter or replaces the least frequent heavy hitter
+   *
+   * @param key The key
+   * @param estimate The current estimate of the key
+   * @since 1.0.0
+   */
+  private void updateHeavyHitters(String key, long estimate) {
+    // Keys less frequent than all heavy hitters are ignored without touching the map
+    if (estimate <= heavyHitterFloor && heavyHitters.size() >= heavyHitterCapacity) {
+      return;
+    }
+    Long knownEstimate = heavyHitters.get(key);
+    // Known heavy hitters only update their estimate
+    if (knownEstimate != null) {
+      if (knownEstimate != estimate) {
+        heavyHitters.replace(key, estimate);
+      }
+      return;
+    }
+
+    synchronized (heavyHitters) {
+      heavyHitters.put(key, estimate);
+      if (heavyHitters.size() > heavyHitterCapacity) {
+        Map.Entry<String, Long> leastFrequent = null;
+        for (Map.Entry<String, Long> entry : heavyHitters.entrySet()) {
+          if (leastFrequent == null || entry.getValue() < leastFrequent.getValue()) {
+            leastFrequent = entry;
+          }
+        }
+        heavyHitters.remove(leastFrequent.getKey());
+      }
+      this.heavyHitterFloor = findHeavyHitterFloor();
+    }
+  }
+
+  /**
+   * Finds the smallest estimate of all heavy hitters
+   *
+   * @return The smallest estimate or 0 without heavy hitters
+   * @since 1.0.0
+   */
+  private long findHeavyHitterFloor() {
+    long floor = Long.MAX_VALUE;
+    for (long estimate : heavyHitters.values()) {
+      floor = Math.min(floor, estimate);
+    }
+    return heavyHitters.isEmpty() ? 0 : floor;
+  }
+
+  /**
+   * Halves all counters and heavy hitters, increments racing with it may get lost
+   *
+   * @since 1.0.0
+   */
+  private void age() {
+    for (int i = 0; i < counters.length(); i++) {
+      counters.set(i, counters.get(i) >> 1);
+    }
+    synchronized (heavyHitters) {
+      heavyHitters.replaceAll((key, estimate) -> estimate >> 1);
+      this.heavyHitterFloor = findHeavyHitterFloor();
+    }
+  }
+
+  /**
+   * Gets the counter index of a hash in a row
+   *
+   * @param hash The hash of the key
+   * @param row The row
+   * @return The counter index
+   * @since 1.0.0
+   */
+  private int index(int hash, int row) {
+    long mixed = (hash + SEEDS[row]) * SEEDS[row];
+    return row * width + ((int) (mixed >>> 32) & (width - 1));
+  }
+}
@@ -0,0 +1,199 @@
+package de.lennox.permissions.metrics;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations in nanoseconds with log-linear buckets, similar to HdrHistogram.
+ *
+ * <p>Every power of two is split into 8 linear buckets, so recorded values are accurate to 12.5%
+ * over the whole range of longs with a fixed amount of buckets. Recording is a few bit operations
+ * and an increment of a striped counter, there are no locks and no allocations. Durations are
+ * exported in seconds.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+@Getter
+public class Histogram implements Metric {
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+  private static final double[] EXPORTED_QUANTILES = {0.5, 0.9, 0.99};
+  private final String name;
+  private final String help;
+
+  @Getter(AccessLevel.NONE)
+  private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+  @Getter(AccessLevel.NONE)
+  private final LongAdder sum = new LongAdder();
+
+  @Getter(AccessLevel.NONE)
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Creates a new empty histogram
+   *
+   * @param name The name
+   * @param help The description
+   * @since 1.0.0
+   */
+  public Histogram(String name, String help) {
+    this.name = name;
+    this.help = help;
+    for (int i = 0; i < BUCKETS; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Records a duration, negative durations are recorded as zero
+   *
+   * @param nanos The duration in nanoseconds
+   * @since 1.0.0
+   */
+  public void record(long nanos) {
+    long value = Math.max(0, nanos);
+    buckets[bucketIndex(value)].increment();
+    sum.add(value);
+    max.accumulate(value);
+  }
+
+  /**
+   * Gets the amount of recorded durations
+   *
+   * @return The amount
+   * @since 1.0.0
+   */
+  public long getCount() {
+    long count = 0;
+    for (LongAdder bucket : buckets) {
+      count += bucket.sum();
+    }
+    return count;
+  }
+
+  /**
+   * Gets the sum of all recorded durations
+   *
+   * @return The sum in nanoseconds
+   * @since 1.0.0
+   */
+  public long getSum() {
+    return sum.sum();
+  }
+
+  /**
+   * Gets the longest recorded duration
+   *
+   * @return The duration in nanoseconds
+   * @since 1.0.0
+   */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Gets the duration at the given quantile, rounded up to the end of its bucket
+   *
+   * @param quantile The quantile between 0 and 1
+   * @return The duration in nanoseconds, 0 if nothing was recorded
+   * @since 1.0.0
+   */
+  public long getValueAtQuantile(double quantile) {
+    long[] counts = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = buckets[i].sum();
+      total += counts[i];
+    }
+    // Empty histograms have no quantiles
+    if (total == 0) {
+      return 0;
+    }
+
+    long rank = Math.max(1, (long) Math.ceil(quantile * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.min(bucketUpperBound(i), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  /**
+   * Appends the samples of the metric as Prometheus summary in seconds
+   *
+   * @param output The output
+   * @since 1.0.0
+   */
+  @Override
+  public void writePrometheus(StringBuilder output) {
+    output.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    output.append("# TYPE ").append(name).append(" summary\n");
+    for (double quantile : EXPORTED_QUANTILES) {
+      output
+          .append(name)
+          .append("{quantile=\"")
+          .append(quantile)
+          .append("\"} ")
+          .append(toSeconds(getValueAtQuantile(quantile)))
+          .append('\n');
+    }
+    output.append(name).append("_sum ").append(toSeconds(getSum())).append('\n');
+    output.append(name).append("_count ").append(getCount()).append('\n');
+  }
+
+  /**
+   * Gets the bucket of a value, values below 8 have their own bucket
+   *
+   * @param value The non-negative value
+   * @return The bucket index
+   * @since 1.0.0
+   */
+  static int bucketIndex(long value) {
+    // Small values are counted exactly
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+
+    int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  /**
+   * Gets the largest value which falls into a bucket
+   *
+   * @param index The bucket index
+   * @return The largest value
+   * @since 1.0.0
+   */
+  static long bucketUpperBound(int index) {
+    // Small values are counted exactly
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+
+    int shift = index / SUB_BUCKETS - 1;
+    long lowerBound = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+    return lowerBound + (1L << shift) - 1;
+  }
+
+  /**
+   * Converts nanoseconds to seconds
+   *
+   * @param nanos The nanoseconds
+   * @return The seconds
+   * @since 1.0.0
+   */
+  private static double toSeconds(long nanos) {
+    return nanos / 1e9;
+  }
+}
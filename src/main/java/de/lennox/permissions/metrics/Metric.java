@@ -0,0 +1,34 @@
+package de.lennox.permissions.metrics;
+
+/**
+ * A named metric which can be exported in the Prometheus text format
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+public interface Metric {
+
+  /**
+   * Gets the name of the metric
+   *
+   * @return The name
+   * @since 1.0.0
+   */
+  String getName();
+
+  /**
+   * Gets the description of the metric
+   *
+   * @return The description
+   * @since 1.0.0
+   */
+  String getHelp();
+
+  /**
+   * Appends the samples of the metric in the Prometheus text format
+   *
+   * @param output The output
+   * @since 1.0.0
+   */
+  void writePrometheus(StringBuilder output);
+}
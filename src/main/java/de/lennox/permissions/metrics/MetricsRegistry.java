@@ -0,0 +1,102 @@
+package de.lennox.permissions.metrics;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Contains all metrics in the order they were registered
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+@Getter
+public class MetricsRegistry {
+  private final List<Metric> metrics = new CopyOnWriteArrayList<>();
+  private final long createdAt = System.nanoTime();
+
+  /**
+   * Creates and registers a new counter
+   *
+   * @param name The name
+   * @param help The description
+   * @return The counter
+   * @since 1.0.0
+   */
+  public Counter counter(String name, String help) {
+    return register(new Counter(name, help));
+  }
+
+  /**
+   * Creates and registers a new histogram of durations
+   *
+   * @param name The name
+   * @param help The description
+   * @return The histogram
+   * @since 1.0.0
+   */
+  public Histogram histogram(String name, String help) {
+    return register(new Histogram(name, help));
+  }
+
+  /**
+   * Creates and registers a new frequency sketch
+   *
+   * @param name The name
+   * @param help The description
+   * @param width The counters per row, a power of two
+   * @param heavyHitterCapacity The amount of heavy hitters kept
+   * @param sampleSize The amount of counted keys after which all counters are halved
+   * @param sampleRate Counts one in this many occurrences, a power of two
+   * @return The frequency sketch
+   * @since 1.0.0
+   */
+  public FrequencySketch frequencySketch(
+      String name,
+      String help,
+      int width,
+      int heavyHitterCapacity,
+      long sampleSize,
+      int sampleRate) {
+    return register(
+        new FrequencySketch(name, help, width, heavyHitterCapacity, sampleSize, sampleRate));
+  }
+
+  /**
+   * Gets the seconds since the registry was created, the metrics were counted during this time
+   *
+   * @return The uptime in seconds
+   * @since 1.0.0
+   */
+  public double getUptimeSeconds() {
+    return (System.nanoTime() - createdAt) / 1e9;
+  }
+
+  /**
+   * Writes all metrics in the Prometheus text format
+   *
+   * @return The text
+   * @since 1.0.0
+   */
+  public String writePrometheus() {
+    StringBuilder output = new StringBuilder();
+    for (Metric metric : metrics) {
+      metric.writePrometheus(output);
+    }
+    return output.toString();
+  }
+
+  /**
+   * Registers a metric
+   *
+   * @param metric The metric
+   * @param <T> The metric type
+   * @return The metric
+   * @since 1.0.0
+   */
+  private <T extends Metric> T register(T metric) {
+    metrics.add(metric);
+    return metric;
+  }
+}
@@ -0,0 +1,45 @@
+package de.lennox.permissions.metrics;
+
+/**
+ * The metrics of all subsystems of the plugin.
+ *
+ * <p>Metrics are static, so hot paths reach them without a lookup and classes can be used without
+ * a running plugin, e.g. in tests.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+public final class PluginMetrics {
+  public static final MetricsRegistry REGISTRY = new MetricsRegistry();
+  public static final Counter PERMISSION_CHECKS =
+      REGISTRY.counter("permissions_checks_total", "Permission checks of groups");
+  public static final Counter STATE_CACHE_HITS =
+      REGISTRY.counter(
+          "permissions_state_cache_hits_total", "Permission checks answered by the state cache");
+  public static final Counter STATE_CACHE_MISSES =
+      REGISTRY.counter(
+          "permissions_state_cache_misses_total", "Permission checks matched against patterns");
+  public static final Counter PLAYER_CACHE_HITS =
+      REGISTRY.counter("permissions_player_cache_hits_total", "Players served from the cache");
+  public static final Histogram PLAYER_LOAD_TIME =
+      REGISTRY.histogram(
+          "permissions_player_load_seconds", "Time to load or create an uncached player");
+  public static final Histogram DATABASE_QUERY_TIME =
+      REGISTRY.histogram("permissions_database_query_seconds", "Time to execute a statement");
+  public static final Counter DATABASE_FAILURES =
+      REGISTRY.counter("permissions_database_failures_total", "Statements which failed");
+  public static final Counter SIGN_UPDATES_SENT =
+      REGISTRY.counter("permissions_sign_updates_sent_total", "Sign changes sent to players");
+  // 4 rows of 8192 counters take 256 KiB, one in 16 checks is counted and the counters are
+  // halved after about a million checks
+  public static final FrequencySketch PERMISSION_NODES =
+      REGISTRY.frequencySketch(
+          "permissions_hot_node_checks",
+          "Estimated recent checks of the most checked permission nodes",
+          1 << 13,
+          20,
+          1 << 16,
+          16);
+
+  private PluginMetrics() {}
+}
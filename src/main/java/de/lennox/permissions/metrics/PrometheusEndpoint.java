@@ -0,0 +1,97 @@
+package de.lennox.permissions.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.lennox.permissions.PlayerPermissionPlugin;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+
+/**
+ * Serves the metrics in the Prometheus text format on /metrics.
+ *
+ * <p>Requests are answered by a single daemon thread, scrapes never touch the main thread.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+@RequiredArgsConstructor
+public class PrometheusEndpoint {
+  private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+  private final MetricsRegistry registry;
+  private final String host;
+  private final int port;
+  private HttpServer server;
+  private ExecutorService executor;
+
+  /**
+   * Starts serving the metrics, failures are logged and leave the endpoint disabled
+   *
+   * @since 1.0.0
+   */
+  public void start() {
+    try {
+      this.server = HttpServer.create(new InetSocketAddress(host, port), 0);
+    } catch (IOException e) {
+      PlayerPermissionPlugin.getSingleton()
+          .getLogger()
+          .log(Level.WARNING, "Could not bind metrics endpoint to " + host + ":" + port, e);
+      return;
+    }
+
+    this.executor =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "PlayerPermissions Metrics Endpoint");
+              thread.setDaemon(true);
+              return thread;
+            });
+    server.createContext("/metrics", this::handle);
+    server.setExecutor(executor);
+    server.start();
+  }
+
+  /**
+   * Stops serving the metrics
+   *
+   * @since 1.0.0
+   */
+  public void stop() {
+    // Nothing to stop if the endpoint never started
+    if (server == null) {
+      return;
+    }
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  /**
+   * Answers a scrape with the current metrics
+   *
+   * @param exchange The http exchange
+   * @throws IOException If the response can't be written
+   * @since 1.0.0
+   */
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      // Metrics are read only
+      if (!exchange.getRequestMethod().equals("GET")) {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+
+      byte[] body = registry.writePrometheus().getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream output = exchange.getResponseBody()) {
+        output.write(body);
+      }
+    }
+  }
+}
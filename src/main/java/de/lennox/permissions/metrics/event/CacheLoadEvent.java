@@ -0,0 +1,60 @@
+package de.lennox.permissions.metrics.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of a load of groups or players into the repository caches.
+ *
+ * <p>Loads are asynchronous, the event starts on the requesting thread and is committed by the
+ * thread completing the load.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+@Name("de.lennox.permissions.CacheLoad")
+@Label("Cache Load")
+@Description("Load of groups or players from the database into the cache")
+@Category({"PlayerPermissions", "Cache"})
+@Enabled(false)
+public class CacheLoadEvent extends Event {
+  @Label("Cache")
+  @Description("The loaded cache, either groups or players")
+  private String cache;
+
+  @Label("Key")
+  @Description("The loaded group name or player uuid, empty for complete loads")
+  private String key;
+
+  @Label("Entries")
+  private int entries;
+
+  @Label("Found")
+  @Description("Whether the entries were found in the database")
+  private boolean found;
+
+  /**
+   * Ends the event and commits it if it is enabled and exceeds the threshold
+   *
+   * @param cache The cache name
+   * @param key The loaded key or empty for complete loads
+   * @param entries The amount of loaded entries
+   * @param found Whether the entries were found in the database
+   * @since 1.0.0
+   */
+  public void commit(String cache, String key, int entries, boolean found) {
+    // Recording is disabled, don't pay for the fields
+    if (!shouldCommit()) {
+      return;
+    }
+    this.cache = cache;
+    this.key = key;
+    this.entries = entries;
+    this.found = found;
+    commit();
+  }
+}
@@ -0,0 +1,57 @@
+package de.lennox.permissions.metrics.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of a permission evaluation of a group
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+@Name("de.lennox.permissions.PermissionCheck")
+@Label("Permission Check")
+@Description("Evaluation of a permission node against a group")
+@Category({"PlayerPermissions", "Permissions"})
+@Enabled(false)
+@StackTrace(false)
+public class PermissionCheckEvent extends Event {
+  @Label("Group")
+  private String group;
+
+  @Label("Node")
+  private String node;
+
+  @Label("Result")
+  private boolean result;
+
+  @Label("Cache Hit")
+  @Description("Whether the result was taken from the state cache of the group")
+  private boolean cacheHit;
+
+  /**
+   * Ends the event and commits it if it is enabled and exceeds the threshold
+   *
+   * @param group The group name
+   * @param node The permission node
+   * @param result The permission state
+   * @param cacheHit Whether the state was cached
+   * @since 1.0.0
+   */
+  public void commit(String group, String node, boolean result, boolean cacheHit) {
+    // Recording is disabled, don't pay for the fields
+    if (!shouldCommit()) {
+      return;
+    }
+    this.group = group;
+    this.node = node;
+    this.result = result;
+    this.cacheHit = cacheHit;
+    commit();
+  }
+}
@@ -0,0 +1,46 @@
+package de.lennox.permissions.metrics.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of one sweep over the cached players for expired ranks
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+@Name("de.lennox.permissions.RankExpirySweep")
+@Label("Rank Expiry Sweep")
+@Description("Check of all cached players for expired ranks")
+@Category({"PlayerPermissions", "Players"})
+@Enabled(false)
+@StackTrace(false)
+public class RankExpirySweepEvent extends Event {
+  @Label("Checked Players")
+  private int checkedPlayers;
+
+  @Label("Expired Players")
+  private int expiredPlayers;
+
+  /**
+   * Ends the event and commits it if it is enabled and exceeds the threshold
+   *
+   * @param checkedPlayers The amount of checked players
+   * @param expiredPlayers The amount of players whose rank expired
+   * @since 1.0.0
+   */
+  public void commit(int checkedPlayers, int expiredPlayers) {
+    // Recording is disabled, don't pay for the fields
+    if (!shouldCommit()) {
+      return;
+    }
+    this.checkedPlayers = checkedPlayers;
+    this.expiredPlayers = expiredPlayers;
+    commit();
+  }
+}
@@ -0,0 +1,53 @@
+package de.lennox.permissions.metrics.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of one tick of the informative sign updater
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+@Name("de.lennox.permissions.SignUpdatePass")
+@Label("Sign Update Pass")
+@Description("Discovery and sending of informative sign updates within one tick")
+@Category({"PlayerPermissions", "Signs"})
+@Enabled(false)
+@StackTrace(false)
+public class SignUpdatePassEvent extends Event {
+  @Label("Discovered Moved Players")
+  @Description("Whether players which moved into another chunk were re-evaluated")
+  private boolean discoveredMoved;
+
+  @Label("Sent Updates")
+  private int sentUpdates;
+
+  @Label("Pending Updates")
+  @Description("Updates left for the following ticks")
+  private int pendingUpdates;
+
+  /**
+   * Ends the event and commits it if it is enabled and exceeds the threshold
+   *
+   * @param discoveredMoved Whether moved players were re-evaluated
+   * @param sentUpdates The amount of sent sign changes
+   * @param pendingUpdates The amount of updates left
+   * @since 1.0.0
+   */
+  public void commit(boolean discoveredMoved, int sentUpdates, int pendingUpdates) {
+    // Recording is disabled, don't pay for the fields
+    if (!shouldCommit()) {
+      return;
+    }
+    this.discoveredMoved = discoveredMoved;
+    this.sentUpdates = sentUpdates;
+    this.pendingUpdates = pendingUpdates;
+    commit();
+  }
+}
@@ -0,0 +1,50 @@
+package de.lennox.permissions.metrics.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of a database round trip through the statement builder
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+@Name("de.lennox.permissions.Statement")
+@Label("Database Statement")
+@Description("Execution of a jdbc statement including the round trip to the database")
+@Category({"PlayerPermissions", "Database"})
+@Enabled(false)
+public class StatementEvent extends Event {
+  @Label("SQL")
+  private String sql;
+
+  @Label("Rows")
+  @Description("Returned or affected rows")
+  private long rows;
+
+  @Label("Failed")
+  private boolean failed;
+
+  /**
+   * Ends the event and commits it if it is enabled and exceeds the threshold
+   *
+   * @param sql The sql statement
+   * @param rows The amount of returned or affected rows
+   * @param failed Whether the execution failed
+   * @since 1.0.0
+   */
+  public void commit(String sql, long rows, boolean failed) {
+    // Recording is disabled, don't pay for the fields
+    if (!shouldCommit()) {
+      return;
+    }
+    this.sql = sql;
+    this.rows = rows;
+    this.failed = failed;
+    commit();
+  }
+}
@@ -1,46 +1,98 @@
 package de.lennox.permissions.permission;
 
-import lombok.SneakyThrows;
+import de.lennox.permissions.PlayerPermissionPlugin;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.permissions.PermissibleBase;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.lang.reflect.Field;
+import java.lang.reflect.InaccessibleObjectException;
 import java.util.Collection;
 import java.util.List;
+import java.util.logging.Level;
 
 /**
  * Processes the "injection" of the custom permissible base {@link SimplePermissibleBase} which is
  * used to do custom permission checks
  *
+ * <p>The craftbukkit package is discovered from the server class, so the injection works on every
+ * server version. The fields are resolved once when the plugin enables, joins only read and write
+ * them. The perm field is final, so it is written through the accessible field as var handles of
+ * final fields are read-only.
+ *
  * @since 1.0.0
  * @author Lennox
  */
 public class PermissibleBaseInjector {
-  private static final String PLAYER_CLASS_NAME =
-      "org.bukkit.craftbukkit.v1_19_R1.entity.CraftHumanEntity";
+  private static final String HUMAN_ENTITY_CLASS_NAME = ".entity.CraftHumanEntity";
   private static final String PLAYER_PERMISSION_FIELD = "perm";
+  private static final String ATTACHMENTS_FIELD = "attachments";
+  private Class<?> humanEntityClass;
+  private Field permissibleField;
+  private VarHandle permissibleHandle;
+  private VarHandle attachmentsHandle;
+
+  /**
+   * Resolves the permissible base field of players and the attachment field of permissible bases,
+   * failures are logged as players then keep the permissible base of bukkit
+   *
+   * @since 1.0.0
+   */
+  public void setup() {
+    String craftBukkitPackage = Bukkit.getServer().getClass().getPackageName();
+    try {
+      Class<?> resolvedClass = Class.forName(craftBukkitPackage + HUMAN_ENTITY_CLASS_NAME);
+      Field resolvedField = resolvedClass.getDeclaredField(PLAYER_PERMISSION_FIELD);
+      resolvedField.setAccessible(true);
+      this.permissibleField = resolvedField;
+      this.permissibleHandle = findVarHandle(resolvedClass, PLAYER_PERMISSION_FIELD);
+      this.attachmentsHandle = findVarHandle(PermissibleBase.class, ATTACHMENTS_FIELD);
+      this.humanEntityClass = resolvedClass;
+    } catch (ReflectiveOperationException | InaccessibleObjectException e) {
+      PlayerPermissionPlugin.getSingleton()
+          .getLogger()
+          .log(
+              Level.SEVERE,
+              "Could not resolve the permissible base in "
+                  + craftBukkitPackage
+                  + ", group permissions won't be applied to players!",
+              e);
+    }
+  }
 
   /**
-   * "Injects" the custom permissible base into the perm field
+   * "Injects" the custom permissible base into the perm field, players which already use it are
+   * skipped
    *
    * @param player The player
    * @since 1.0.0
    */
-  @SneakyThrows
   public void injectIntoPlayer(Player player) {
-    Class<?> playerClass = Class.forName(PLAYER_CLASS_NAME);
-    // Make sure the proper class was queried
-    if (!playerClass.isAssignableFrom(player.getClass())) {
+    // Players keep the permissible base of bukkit if the fields couldn't be resolved
+    if (humanEntityClass == null || !humanEntityClass.isInstance(player)) {
       return;
     }
 
-    Field permField = playerClass.getDeclaredField(PLAYER_PERMISSION_FIELD);
-    permField.setAccessible(true);
-    PermissibleBase oldPermissible = (PermissibleBase) permField.get(player);
-    PermissibleBase newPermissible = new SimplePermissibleBase(player);
+    PermissibleBase oldPermissible = (PermissibleBase) permissibleHandle.get(player);
+    // Players are only injected once, e.g. if they joined while the plugin enabled
+    if (oldPermissible instanceof SimplePermissibleBase) {
+      return;
+    }
 
+    PermissibleBase newPermissible = new SimplePermissibleBase(player);
     copyPermissibleContentOf(oldPermissible, newPermissible);
-    permField.set(player, newPermissible);
+    try {
+      permissibleField.set(player, newPermissible);
+    } catch (IllegalAccessException e) {
+      PlayerPermissionPlugin.getSingleton()
+          .getLogger()
+          .log(
+              Level.SEVERE,
+              "Could not inject the permissible base into " + player.getName() + "!",
+              e);
+    }
   }
 
   /**
@@ -50,16 +102,27 @@ public class PermissibleBaseInjector {
    * @param current The new permissible base
    * @since 1.0.0
    */
-  @SneakyThrows
   private void copyPermissibleContentOf(PermissibleBase old, PermissibleBase current) {
-    // Resolve the attachment field
-    Field attachmentField = PermissibleBase.class.getDeclaredField("attachments");
-    attachmentField.setAccessible(true);
     //noinspection unchecked
-    List<Object> attachments = (List<Object>) attachmentField.get(current);
+    List<Object> attachments = (List<Object>) attachmentsHandle.get(current);
     attachments.clear();
 
-    attachments.addAll((Collection<?>) attachmentField.get(old));
+    attachments.addAll((Collection<?>) attachmentsHandle.get(old));
     current.recalculatePermissions();
   }
+
+  /**
+   * Creates a var handle for a private field, the handle can only read final fields
+   *
+   * @param owner The class declaring the field
+   * @param name The field name
+   * @return The var handle
+   * @throws ReflectiveOperationException If the field doesn't exist or isn't accessible
+   * @since 1.0.0
+   */
+  private static VarHandle findVarHandle(Class<?> owner, String name)
+      throws ReflectiveOperationException {
+    Field field = owner.getDeclaredField(name);
+    return MethodHandles.privateLookupIn(owner, MethodHandles.lookup()).unreflectVarHandle(field);
+  }
 }
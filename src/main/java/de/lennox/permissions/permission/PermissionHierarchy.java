@@ -0,0 +1,238 @@
+package de.lennox.permissions.permission;
+
+import org.bukkit.permissions.Permission;
+import org.bukkit.permissions.PermissionDefault;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The children and defaults of all permissions registered at the plugin manager.
+ *
+ * <p>Resolves permissions the way the permissible base of bukkit does, without walking the
+ * permission trees of bukkit on every check. A child of a granted parent has the value the parent
+ * assigns to it, a child of a denied parent the inverted value. Default states only depend on the
+ * operator status, so they are resolved once per node for operators and for everybody else.
+ *
+ * <p>Static, so groups resolve children without a running plugin, e.g. in tests.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+public final class PermissionHierarchy {
+  // Guards against permissions which are (indirectly) their own children
+  private static final int MAX_DEPTH = 16;
+  private static final Map<String, Map<String, Boolean>> CHILDREN = new ConcurrentHashMap<>();
+  // Child node -> parent node -> value of the child if the parent is granted
+  private static final Map<String, Map<String, Boolean>> PARENTS = new ConcurrentHashMap<>();
+  private static final Map<String, PermissionDefault> DEFAULTS = new ConcurrentHashMap<>();
+  private static final Map<String, Optional<Boolean>> OPERATOR_DEFAULTS = new ConcurrentHashMap<>();
+  private static final Map<String, Optional<Boolean>> PLAYER_DEFAULTS = new ConcurrentHashMap<>();
+
+  private PermissionHierarchy() {}
+
+  /**
+   * Registers or updates a permission
+   *
+   * @param name The permission name
+   * @param children The children and their values if the permission is granted
+   * @param permissionDefault The default of the permission
+   * @return Whether the children or the default of the permission changed
+   * @since 1.0.0
+   */
+  public static synchronized boolean register(
+      String name, Map<String, Boolean> children, PermissionDefault permissionDefault) {
+    String node = name.toLowerCase(Locale.ROOT);
+    Map<String, Boolean> lowerChildren = new TreeMap<>();
+    children.forEach((child, value) -> lowerChildren.put(child.toLowerCase(Locale.ROOT), value));
+    // Nothing to resolve again if the permission didn't change
+    if (lowerChildren.equals(CHILDREN.get(node))
+        && Objects.equals(permissionDefault, DEFAULTS.get(node))) {
+      return false;
+    }
+
+    Map<String, Boolean> previousChildren = CHILDREN.put(node, lowerChildren);
+    if (previousChildren != null) {
+      for (String child : previousChildren.keySet()) {
+        PARENTS.computeIfPresent(child, (key, parents) -> withoutParent(parents, node));
+      }
+    }
+    for (Map.Entry<String, Boolean> child : lowerChildren.entrySet()) {
+      PARENTS.compute(
+          child.getKey(), (key, parents) -> withParent(parents, node, child.getValue()));
+    }
+    DEFAULTS.put(node, permissionDefault);
+    OPERATOR_DEFAULTS.clear();
+    PLAYER_DEFAULTS.clear();
+    return true;
+  }
+
+  /**
+   * Removes every registered permission
+   *
+   * @since 1.0.0
+   */
+  public static synchronized void clear() {
+    CHILDREN.clear();
+    PARENTS.clear();
+    DEFAULTS.clear();
+    OPERATOR_DEFAULTS.clear();
+    PLAYER_DEFAULTS.clear();
+  }
+
+  /**
+   * Gets the registered parents of a node
+   *
+   * @param node The node in lower case
+   * @return The parents and the value they assign to the node if they are granted
+   * @since 1.0.0
+   */
+  public static Map<String, Boolean> getParents(String node) {
+    return PARENTS.getOrDefault(node, Collections.emptyMap());
+  }
+
+  /**
+   * Gets the node and all its registered descendants, parents before their children
+   *
+   * @param node The node in lower case
+   * @return The node and its descendants
+   * @since 1.0.0
+   */
+  public static Set<String> getDescendants(String node) {
+    Set<String> descendants = new LinkedHashSet<>();
+    Deque<String> queue = new ArrayDeque<>();
+    queue.add(node);
+    while (!queue.isEmpty()) {
+      String current = queue.poll();
+      if (descendants.add(current)) {
+        queue.addAll(CHILDREN.getOrDefault(current, Collections.emptyMap()).keySet());
+      }
+    }
+    return descendants;
+  }
+
+  /**
+   * Gets the default state of a node, the state if no group sets it
+   *
+   * @param node The node in lower case
+   * @param operator Whether the player is an operator
+   * @return The default state
+   * @since 1.0.0
+   */
+  public static boolean hasDefaultPermission(String node, boolean operator) {
+    Optional<Boolean> optionalState = findDefaultState(node, operator);
+    if (optionalState.isPresent()) {
+      return optionalState.get();
+    }
+    // Registered permissions which don't apply by default are denied
+    if (DEFAULTS.containsKey(node)) {
+      return false;
+    }
+    return Permission.DEFAULT_PERMISSION.getValue(operator);
+  }
+
+  /**
+   * Returns if a node is set by default, by its own default or the default of a parent
+   *
+   * @param node The node in lower case
+   * @param operator Whether the player is an operator
+   * @return The default set status
+   * @since 1.0.0
+   */
+  public static boolean isDefaultPermissionSet(String node, boolean operator) {
+    return findDefaultState(node, operator).isPresent();
+  }
+
+  /**
+   * Finds the default state of a node, resolved once per node and operator status
+   *
+   * @param node The node in lower case
+   * @param operator Whether the player is an operator
+   * @return The optional default state, empty if no default applies to the node
+   * @since 1.0.0
+   */
+  private static Optional<Boolean> findDefaultState(String node, boolean operator) {
+    // Nodes unknown to the hierarchy are answered without growing the caches
+    if (!DEFAULTS.containsKey(node) && !PARENTS.containsKey(node)) {
+      return Optional.empty();
+    }
+    Map<String, Optional<Boolean>> states = operator ? OPERATOR_DEFAULTS : PLAYER_DEFAULTS;
+    Optional<Boolean> cachedState = states.get(node);
+    // Defaults are only resolved again after the hierarchy changed
+    if (cachedState != null) {
+      return cachedState;
+    }
+
+    Optional<Boolean> state = resolveDefaultState(node, operator, 0);
+    states.put(node, state);
+    return state;
+  }
+
+  /**
+   * Resolves the default state of a node from its own default and the defaults of its parents
+   *
+   * @param node The node in lower case
+   * @param operator Whether the player is an operator
+   * @param depth The amount of parents already walked up
+   * @return The optional default state, empty if no default applies to the node
+   * @since 1.0.0
+   */
+  private static Optional<Boolean> resolveDefaultState(String node, boolean operator, int depth) {
+    PermissionDefault permissionDefault = DEFAULTS.get(node);
+    // Permissions applying by default are granted, like bukkit does for the default permissions
+    if (permissionDefault != null && permissionDefault.getValue(operator)) {
+      return Optional.of(true);
+    }
+    // Cyclic children end here
+    if (depth >= MAX_DEPTH) {
+      return Optional.empty();
+    }
+
+    for (Map.Entry<String, Boolean> parent : getParents(node).entrySet()) {
+      Optional<Boolean> parentState = resolveDefaultState(parent.getKey(), operator, depth + 1);
+      if (parentState.isPresent()) {
+        return Optional.of(parent.getValue() == parentState.get());
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Copies the parents of a node with an added parent
+   *
+   * @param parents The parents or null if there are none
+   * @param parent The added parent
+   * @param value The value the parent assigns to the node
+   * @return The new parents
+   * @since 1.0.0
+   */
+  private static Map<String, Boolean> withParent(
+      Map<String, Boolean> parents, String parent, boolean value) {
+    Map<String, Boolean> copy = parents == null ? new TreeMap<>() : new TreeMap<>(parents);
+    copy.put(parent, value);
+    return Collections.unmodifiableMap(copy);
+  }
+
+  /**
+   * Copies the parents of a node without a removed parent
+   *
+   * @param parents The parents
+   * @param parent The removed parent
+   * @return The new parents or null if none are left
+   * @since 1.0.0
+   */
+  private static Map<String, Boolean> withoutParent(Map<String, Boolean> parents, String parent) {
+    Map<String, Boolean> copy = new TreeMap<>(parents);
+    copy.remove(parent);
+    return copy.isEmpty() ? null : Collections.unmodifiableMap(copy);
+  }
+}
@@ -0,0 +1,194 @@
+package de.lennox.permissions.permission;
+
+import de.lennox.permissions.PlayerPermissionPlugin;
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginEnableEvent;
+import org.bukkit.permissions.Permission;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Sorted index of all permission nodes known to the server.
+ *
+ * <p>Contains all registered permissions including their children and all nodes used by groups.
+ * Nodes are only ever added, the index grows as plugins enable and groups are modified. Nodes are
+ * stored in lower case as permission checks are case-insensitive.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+public class PermissionNodeIndex implements Listener {
+  private final NavigableSet<String> nodes = new ConcurrentSkipListSet<>();
+
+  /**
+   * Adds a permission node to the index
+   *
+   * @param node The permission node
+   * @return Whether the node wasn't indexed yet
+   * @since 1.0.0
+   */
+  public boolean add(String node) {
+    // Wildcards are patterns, not nodes
+    if (node.indexOf('*') != -1) {
+      return false;
+    }
+    return nodes.add(node.toLowerCase(Locale.ROOT));
+  }
+
+  /**
+   * Adds all given permission nodes to the index
+   *
+   * @param nodes The permission nodes
+   * @since 1.0.0
+   */
+  public void addAll(Collection<String> nodes) {
+    for (String node : nodes) {
+      add(node);
+    }
+  }
+
+  /**
+   * Adds all permissions registered at the plugin manager and their children to the index and
+   * registers their children and defaults in the {@link PermissionHierarchy}
+   *
+   * @return The nodes whose states have to be computed again, as they weren't indexed yet or their
+   *     registered ancestors changed
+   * @since 1.0.0
+   */
+  public List<String> addRegisteredPermissions() {
+    Set<String> changedNodes = new LinkedHashSet<>();
+    for (Permission permission : Bukkit.getPluginManager().getPermissions()) {
+      addRegisteredNode(changedNodes, permission.getName());
+      for (String child : permission.getChildren().keySet()) {
+        addRegisteredNode(changedNodes, child);
+      }
+      if (PermissionHierarchy.register(
+          permission.getName(), permission.getChildren(), permission.getDefault())) {
+        changedNodes.addAll(
+            PermissionHierarchy.getDescendants(permission.getName().toLowerCase(Locale.ROOT)));
+      }
+    }
+    return new ArrayList<>(changedNodes);
+  }
+
+  /**
+   * Gets a live view of all indexed nodes
+   *
+   * @return The nodes in alphabetical order
+   * @since 1.0.0
+   */
+  public Collection<String> getNodes() {
+    return Collections.unmodifiableCollection(nodes);
+  }
+
+  /**
+   * Gets all nodes matching the given query. Queries containing a wildcard (*) are matched as
+   * pattern, all other queries are matched as prefix.
+   *
+   * @param query The query
+   * @param limit The maximum amount of nodes
+   * @return The matching nodes in alphabetical order
+   * @since 1.0.0
+   */
+  public List<String> find(String query, int limit) {
+    String pattern = query.toLowerCase(Locale.ROOT);
+    int wildcard = pattern.indexOf('*');
+    // Only nodes starting with the part before the first wildcard can match
+    String prefix = wildcard == -1 ? pattern : pattern.substring(0, wildcard);
+
+    List<String> matches = new ArrayList<>();
+    for (String node : nodes.tailSet(prefix, true)) {
+      if (!node.startsWith(prefix) || matches.size() >= limit) {
+        break;
+      }
+      if (wildcard == -1 || matchesWildcard(node, pattern)) {
+        matches.add(node);
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * Checks if the given node or pattern matches at least one known node
+   *
+   * @param query The node or pattern
+   * @return Whether the node is known
+   * @since 1.0.0
+   */
+  public boolean isKnown(String query) {
+    String node = query.toLowerCase(Locale.ROOT);
+    return nodes.contains(node) || (node.indexOf('*') != -1 && !find(node, 1).isEmpty());
+  }
+
+  /**
+   * Returns the amount of indexed nodes
+   *
+   * @return The size
+   * @since 1.0.0
+   */
+  public int size() {
+    return nodes.size();
+  }
+
+  /**
+   * Matches a node against a pattern where every wildcard (*) matches any sequence of characters
+   *
+   * @param node The node
+   * @param pattern The pattern
+   * @return Whether the node matches
+   * @since 1.0.0
+   */
+  public static boolean matchesWildcard(String node, String pattern) {
+    String[] parts = pattern.split("\\*", -1);
+    // The first part has to be a prefix and the last part a suffix
+    if (!node.startsWith(parts[0])) {
+      return false;
+    }
+    int position = parts[0].length();
+    for (int i = 1; i < parts.length - 1; i++) {
+      int found = node.indexOf(parts[i], position);
+      if (found == -1) {
+        return false;
+      }
+      position = found + parts[i].length();
+    }
+    String last = parts[parts.length - 1];
+    return parts.length == 1
+        ? node.length() == position
+        : node.length() - last.length() >= position && node.endsWith(last);
+  }
+
+  /**
+   * Adds a registered node to the index and remembers it if it wasn't indexed yet
+   *
+   * @param changedNodes The nodes whose states have to be computed again
+   * @param node The registered node
+   * @since 1.0.0
+   */
+  private void addRegisteredNode(Set<String> changedNodes, String node) {
+    if (add(node)) {
+      changedNodes.add(node.toLowerCase(Locale.ROOT));
+    }
+  }
+
+  @EventHandler
+  private void onPluginEnable(PluginEnableEvent event) {
+    // Plugins register their permissions while loading and enabling
+    List<String> changedNodes = addRegisteredPermissions();
+    // Only new or changed nodes have to be computed for the cached groups
+    if (changedNodes.isEmpty()) {
+      return;
+    }
+    PlayerPermissionPlugin.getSingleton().getGroupRepository().materializeNodes(changedNodes);
+  }
+}
@@ -0,0 +1,36 @@
+package de.lennox.permissions.permission;
+
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * One traced permission check of a player.
+ *
+ * <p>The decider is the name of the group which decided the check or fallback, if the check was
+ * answered by the permissions of bukkit.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+@Data
+public class PermissionTrace {
+  private final long timestamp;
+  private final UUID player;
+  private final String playerName;
+  private final String node;
+  private final boolean setCheck;
+  private final boolean result;
+  private final String decider;
+  private final long nanos;
+
+  /**
+   * Gets the name of the checking method
+   *
+   * @return The method name
+   * @since 1.0.0
+   */
+  public String getCheckName() {
+    return setCheck ? "isPermissionSet" : "hasPermission";
+  }
+}
@@ -1,10 +1,13 @@
 package de.lennox.permissions.permission;
 
 import de.lennox.permissions.PlayerPermissionPlugin;
+import de.lennox.permissions.database.model.PermissionGroup;
 import de.lennox.permissions.database.model.PermittedPlayer;
+import de.lennox.permissions.metrics.PluginMetrics;
 import org.bukkit.entity.Player;
 import org.bukkit.permissions.PermissibleBase;
 import org.bukkit.permissions.Permission;
+import org.bukkit.permissions.PermissionAttachmentInfo;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Locale;
@@ -14,40 +17,129 @@ import java.util.UUID;
 /**
  * Custom implementation of the bukkit permissible base.
  *
- * <p>Used to overwrite permissions of a player, if a permission is not set the fallback permissions
- * will be used.
+ * <p>Used to overwrite permissions of a player, if a permission is not set by the group its
+ * registered children and defaults are resolved by the {@link PermissionHierarchy}. The fallback
+ * permissions of bukkit are only used while the player isn't cached or if other plugins attached
+ * permissions to the player.
  *
  * @since 1.0.0
  * @author Lennox
  */
 public class SimplePermissibleBase extends PermissibleBase {
+  private static final String DEFAULT_DECIDER = "default";
+  private static final String FALLBACK_DECIDER = "fallback";
+  private static final String NOT_CACHED_DECIDER = "fallback (not cached)";
   private final Player player;
+  // Set while bukkit recalculates, which also happens once the operator status changes
+  private volatile boolean operator;
+  private volatile boolean attached;
 
   public SimplePermissibleBase(Player player) {
     super(player);
     this.player = player;
   }
 
+  /**
+   * Recalculates the permissions of bukkit and remembers if other plugins attached permissions,
+   * only then bukkit has to be asked for permissions which aren't set by the group
+   *
+   * @since 1.0.0
+   */
+  @Override
+  public void recalculatePermissions() {
+    super.recalculatePermissions();
+    boolean foundAttachment = false;
+    for (PermissionAttachmentInfo info : getEffectivePermissions()) {
+      if (info.getAttachment() != null) {
+        foundAttachment = true;
+        break;
+      }
+    }
+    this.attached = foundAttachment;
+    this.operator = isOp();
+  }
+
   @Override
   public boolean hasPermission(@NotNull String name) {
-    return hasPermission0(name);
+    return check(name, false);
   }
 
   @Override
   public boolean hasPermission(@NotNull Permission perm) {
     String name = perm.getName().toLowerCase(Locale.ENGLISH);
-    return hasPermission0(name);
+    return check(name, false);
   }
 
   @Override
   public boolean isPermissionSet(@NotNull String name) {
-    return isPermissionSet0(name, false);
+    return check(name, true);
   }
 
   @Override
   public boolean isPermissionSet(@NotNull Permission perm) {
     String name = perm.getName().toLowerCase(Locale.ENGLISH);
-    return isPermissionSet0(name, false);
+    return check(name, true);
+  }
+
+  /**
+   * Checks the given permission, counts how often the node is checked and traces the check if
+   * somebody is interested in it
+   *
+   * @param name The permission
+   * @param setCheck Defines if the set status is checked instead of the permission state
+   * @return The permission state or set status
+   * @since 1.0.0
+   */
+  private boolean check(String name, boolean setCheck) {
+    PluginMetrics.PERMISSION_NODES.increment(name);
+    VerboseTracer tracer = PlayerPermissionPlugin.getSingleton().getVerboseTracer();
+    // Checks are only measured while somebody traces them
+    if (!tracer.isActive()) {
+      return setCheck ? isPermissionSet0(name) : hasPermission0(name);
+    }
+
+    long start = System.nanoTime();
+    boolean result = setCheck ? isPermissionSet0(name) : hasPermission0(name);
+    long nanos = System.nanoTime() - start;
+    UUID uuid = player.getUniqueId();
+    if (tracer.isTraced(uuid, name)) {
+      tracer.record(
+          new PermissionTrace(
+              System.currentTimeMillis(),
+              uuid,
+              player.getName(),
+              name,
+              setCheck,
+              result,
+              findDecider(name),
+              nanos));
+    }
+    return result;
+  }
+
+  /**
+   * Finds out whether a group, the defaults or the fallback decide checks of the given permission
+   *
+   * @param name The permission
+   * @return The name of the deciding group, default or fallback
+   * @since 1.0.0
+   */
+  private String findDecider(String name) {
+    Optional<PermittedPlayer> optionalPlayer =
+        PlayerPermissionPlugin.getSingleton()
+            .getPlayerRepository()
+            .getPermittedPlayerNoQuery(player.getUniqueId());
+    // The fallback decides until the player is cached
+    if (optionalPlayer.isEmpty()) {
+      return NOT_CACHED_DECIDER;
+    }
+
+    PermittedPlayer permittedPlayer = optionalPlayer.get();
+    // Permissions which aren't set in the group are decided by the defaults or the fallback
+    if (!permittedPlayer.isPermissionSet(name)) {
+      return attached ? FALLBACK_DECIDER : DEFAULT_DECIDER;
+    }
+    return permittedPlayer.getPlayerGroup().map(PermissionGroup::getName).orElse(FALLBACK_DECIDER);
   }
 
   /**
@@ -67,38 +159,43 @@ public class SimplePermissibleBase extends PermissibleBase {
       return super.hasPermission(name);
     }
 
-    // If the permission isn't set fallback will be used
-    if (!isPermissionSet0(name, true)) {
+    PermittedPlayer permittedPlayer = optionalPlayer.get();
+    // Permissions set or inherited in the group are decided by the group
+    if (permittedPlayer.isPermissionSet(name)) {
+      return permittedPlayer.hasPermission(name);
+    }
+    // Only bukkit knows the permissions attached by other plugins
+    if (attached) {
       return super.hasPermission(name);
     }
-    return optionalPlayer.get().hasPermission(name);
+    return PermissionHierarchy.hasDefaultPermission(name.toLowerCase(Locale.ENGLISH), operator);
   }
 
   /**
    * Checks if the permission is set for the player
    *
    * @param name The permission
-   * @param onlyIntern Defines if only group permissions should be checked, not the fallback
    * @return The set status
    * @since 1.0.0
    */
-  private boolean isPermissionSet0(String name, boolean onlyIntern) {
+  private boolean isPermissionSet0(String name) {
     UUID uuid = player.getUniqueId();
 
     Optional<PermittedPlayer> optionalPlayer =
         PlayerPermissionPlugin.getSingleton().getPlayerRepository().getPermittedPlayerNoQuery(uuid);
     // Use fallback isPermissionSet if player is not cached yet
-    boolean fallbackPermissionSet = super.isPermissionSet(name);
     if (optionalPlayer.isEmpty()) {
-      return fallbackPermissionSet;
+      return super.isPermissionSet(name);
     }
 
-    boolean permissionSet = optionalPlayer.get().isPermissionSet(name);
-    // If permission is set in fallback use fallback
-    if (!permissionSet && fallbackPermissionSet && !onlyIntern) {
+    // Permissions set or inherited in the group are always set
+    if (optionalPlayer.get().isPermissionSet(name)) {
       return true;
     }
-
-    return permissionSet;
+    // Only bukkit knows the permissions attached by other plugins
+    if (attached) {
+      return super.isPermissionSet(name);
+    }
+    return PermissionHierarchy.isDefaultPermissionSet(name.toLowerCase(Locale.ENGLISH), operator);
   }
 }
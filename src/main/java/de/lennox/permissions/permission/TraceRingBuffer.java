@@ -0,0 +1,96 @@
+package de.lennox.permissions.permission;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Lock-free ring buffer with many producers and a single consumer.
+ *
+ * <p>Producers claim a sequence with one atomic increment and publish their entry into the slot of
+ * that sequence, they never wait for the consumer. If the consumer falls behind by more than the
+ * capacity, the oldest entries are overwritten and counted as dropped while draining.
+ *
+ * @param <T> The entry type
+ * @since 1.0.0
+ * @author Lennox
+ */
+public class TraceRingBuffer<T> {
+  private final AtomicReferenceArray<Slot<T>> slots;
+  private final AtomicLong writeSequence = new AtomicLong();
+  private final int capacity;
+  private final int mask;
+  private long readSequence;
+
+  /**
+   * Creates an empty ring buffer
+   *
+   * @param capacity The capacity, a power of two
+   * @throws IllegalArgumentException If the capacity isn't a positive power of two
+   * @since 1.0.0
+   */
+  public TraceRingBuffer(int capacity) {
+    if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity has to be a power of two: " + capacity);
+    }
+    this.slots = new AtomicReferenceArray<>(capacity);
+    this.capacity = capacity;
+    this.mask = capacity - 1;
+  }
+
+  /**
+   * Publishes an entry, may be called from any thread
+   *
+   * @param entry The entry
+   * @since 1.0.0
+   */
+  public void publish(T entry) {
+    long sequence = writeSequence.getAndIncrement();
+    slots.setRelease((int) (sequence & mask), new Slot<>(sequence, entry));
+  }
+
+  /**
+   * Passes all published entries in order to the consumer, must only be called from one thread at
+   * a time
+   *
+   * @param consumer The entry consumer
+   * @return The amount of entries which were overwritten before they could be drained
+   * @since 1.0.0
+   */
+  public long drain(Consumer<T> consumer) {
+    long written = writeSequence.get();
+    long dropped = 0;
+    // Skip everything the producers already lapped
+    if (written - readSequence > capacity) {
+      dropped = written - capacity - readSequence;
+      readSequence = written - capacity;
+    }
+
+    while (readSequence < written) {
+      Slot<T> slot = slots.getAcquire((int) (readSequence & mask));
+      // The sequence is claimed but not published yet, continue with it next time
+      if (slot == null || slot.sequence() < readSequence) {
+        break;
+      }
+
+      // A producer lapped the consumer while draining
+      if (slot.sequence() > readSequence) {
+        dropped++;
+      } else {
+        consumer.accept(slot.entry());
+      }
+      readSequence++;
+    }
+    return dropped;
+  }
+
+  /**
+   * An entry together with the sequence it was published with
+   *
+   * @param sequence The sequence
+   * @param entry The entry
+   * @param <T> The entry type
+   * @since 1.0.0
+   */
+  private record Slot<T>(long sequence, T entry) {}
+}
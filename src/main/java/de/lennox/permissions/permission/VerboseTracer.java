@@ -0,0 +1,401 @@
+package de.lennox.permissions.permission;
+
+import de.lennox.permissions.PlayerPermissionPlugin;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.entity.Player;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Traces the permission checks of players for the /perms verbose command.
+ *
+ * <p>While nobody traces, a permission check only costs one volatile read. Traced checks are
+ * published into a lock-free ring buffer by the checking threads, a background thread drains it
+ * and streams the checks matching the filters of every session into the chat of the issuer or into
+ * a file in the verbose folder.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+public class VerboseTracer {
+  private static final int BUFFER_CAPACITY = 1 << 14;
+  private static final long DRAIN_INTERVAL_MILLIS = 50;
+  private static final int MAX_MESSAGES_PER_DRAIN = 20;
+  private static final long CLOSE_TIMEOUT_SECONDS = 5;
+  private static final String VERBOSE_FOLDER = "plugins/PlayerPermissions/verbose/";
+  private static final DateTimeFormatter FILE_NAME_FORMATTER =
+      DateTimeFormatter.ofPattern("'verbose-'yyyyMMdd-HHmmss'.log'");
+  private final TraceRingBuffer<PermissionTrace> buffer = new TraceRingBuffer<>(BUFFER_CAPACITY);
+  private final ScheduledExecutorService consumer =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "PlayerPermissions Verbose Tracer");
+            thread.setDaemon(true);
+            return thread;
+          });
+  private volatile Session[] sessions = new Session[0];
+  private ScheduledFuture<?> drainTask;
+
+  /**
+   * Returns if anybody traces permission checks
+   *
+   * @return The active state
+   * @since 1.0.0
+   */
+  public boolean isActive() {
+    return sessions.length != 0;
+  }
+
+  /**
+   * Returns if any session traces the check of the given player and node
+   *
+   * @param player The uuid of the checked player
+   * @param node The checked node
+   * @return Whether the check is traced
+   * @since 1.0.0
+   */
+  public boolean isTraced(UUID player, String node) {
+    for (Session session : sessions) {
+      if (session.matches(player, node)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Records a traced check, may be called from any thread
+   *
+   * @param trace The traced check
+   * @since 1.0.0
+   */
+  public void record(PermissionTrace trace) {
+    buffer.publish(trace);
+  }
+
+  /**
+   * Starts streaming checks into the chat of the issuer, replacing a running session of the issuer
+   *
+   * @param issuer The issuer
+   * @param target The uuid of the traced player or null to trace all players
+   * @param filter The node filter, may contain wildcards, or null to trace all nodes
+   * @since 1.0.0
+   */
+  public void startChat(Player issuer, UUID target, String filter) {
+    start(new Session(issuer, target, filter, null, null));
+  }
+
+  /**
+   * Starts writing checks into a new file in the verbose folder, replacing a running session of
+   * the issuer
+   *
+   * @param issuer The issuer
+   * @param target The uuid of the traced player or null to trace all players
+   * @param filter The node filter, may contain wildcards, or null to trace all nodes
+   * @return The optional file, empty if it couldn't be created
+   * @since 1.0.0
+   */
+  public Optional<Path> startFile(Player issuer, UUID target, String filter) {
+    Path file = Path.of(VERBOSE_FOLDER, LocalDateTime.now().format(FILE_NAME_FORMATTER));
+    try {
+      Files.createDirectories(file.getParent());
+      BufferedWriter writer = Files.newBufferedWriter(file);
+      start(new Session(issuer, target, filter, file, writer));
+      return Optional.of(file);
+    } catch (IOException e) {
+      PlayerPermissionPlugin.getSingleton()
+          .getLogger()
+          .log(Level.WARNING, "Could not create verbose file " + file, e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Stops the session of the issuer, the issuer is notified once the remaining checks are drained
+   *
+   * @param issuer The uuid of the issuer
+   * @return Whether a session was running
+   * @since 1.0.0
+   */
+  public synchronized boolean stop(UUID issuer) {
+    Session stopped = null;
+    List<Session> remaining = new ArrayList<>();
+    for (Session session : sessions) {
+      if (session.issuer.getUniqueId().equals(issuer)) {
+        stopped = session;
+      } else {
+        remaining.add(session);
+      }
+    }
+    // Nothing to stop if the issuer isn't tracing
+    if (stopped == null) {
+      return false;
+    }
+
+    this.sessions = remaining.toArray(new Session[0]);
+    if (sessions.length == 0) {
+      drainTask.cancel(false);
+      this.drainTask = null;
+    }
+    // Sessions are only touched by the consumer, so files are never written concurrently
+    Session session = stopped;
+    consumer.execute(
+        () -> {
+          Session[] targets = Arrays.copyOf(sessions, sessions.length + 1);
+          targets[targets.length - 1] = session;
+          drain(targets);
+          session.close();
+        });
+    return true;
+  }
+
+  /**
+   * Stops all sessions and the background thread, waits shortly for the last checks to be written
+   * as the daemon thread doesn't keep the server alive
+   *
+   * @since 1.0.0
+   */
+  public synchronized void close() {
+    for (Session session : sessions) {
+      stop(session.issuer.getUniqueId());
+    }
+    consumer.shutdown();
+    try {
+      // Verbose files may lose their last checks if the thread doesn't finish in time
+      if (!consumer.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        PlayerPermissionPlugin.getSingleton()
+            .getLogger()
+            .warning("The verbose tracer didn't finish writing the traced checks in time!");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Adds a session and starts draining if it is the first one
+   *
+   * @param session The session
+   * @since 1.0.0
+   */
+  private synchronized void start(Session session) {
+    stop(session.issuer.getUniqueId());
+    Session[] started = Arrays.copyOf(sessions, sessions.length + 1);
+    started[started.length - 1] = session;
+    this.sessions = started;
+    if (drainTask == null) {
+      this.drainTask =
+          consumer.scheduleWithFixedDelay(
+              () -> drain(sessions),
+              DRAIN_INTERVAL_MILLIS,
+              DRAIN_INTERVAL_MILLIS,
+              TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Drains the ring buffer into the given sessions
+   *
+   * @param targets The sessions
+   * @since 1.0.0
+   */
+  private void drain(Session[] targets) {
+    long dropped =
+        buffer.drain(
+            trace -> {
+              for (Session session : targets) {
+                if (session.matches(trace.getPlayer(), trace.getNode())) {
+                  session.accept(trace);
+                }
+              }
+            });
+    for (Session session : targets) {
+      session.flush(dropped);
+    }
+  }
+
+  /**
+   * A player tracing checks into the chat or a file
+   *
+   * @since 1.0.0
+   * @author Lennox
+   */
+  private static class Session {
+    private final Player issuer;
+    private final UUID target;
+    private final String filter;
+    private final Path file;
+    private final BufferedWriter writer;
+    private final List<Component> pendingMessages = new ArrayList<>();
+    private long traced;
+    private long suppressed;
+
+    private Session(Player issuer, UUID target, String filter, Path file, BufferedWriter writer) {
+      this.issuer = issuer;
+      this.target = target;
+      this.filter = filter;
+      this.file = file;
+      this.writer = writer;
+    }
+
+    /**
+     * Returns if the session traces the check of the given player and node
+     *
+     * @param player The uuid of the checked player
+     * @param node The checked node
+     * @return Whether the check is traced
+     * @since 1.0.0
+     */
+    private boolean matches(UUID player, String node) {
+      // Filters without wildcards match any part of the node
+      return (target == null || target.equals(player))
+          && (filter == null
+              || (filter.indexOf('*') == -1
+                  ? node.contains(filter)
+                  : PermissionNodeIndex.matchesWildcard(node, filter)));
+    }
+
+    /**
+     * Writes a traced check or queues it as chat message
+     *
+     * @param trace The traced check
+     * @since 1.0.0
+     */
+    private void accept(PermissionTrace trace) {
+      traced++;
+      if (writer != null) {
+        write(
+            String.join(
+                "\t",
+                Instant.ofEpochMilli(trace.getTimestamp()).toString(),
+                trace.getPlayerName(),
+                trace.getCheckName(),
+                trace.getNode(),
+                String.valueOf(trace.isResult()),
+                trace.getDecider(),
+                String.valueOf(trace.getNanos())));
+        return;
+      }
+      // Don't flood the chat, only the amount of further checks is shown
+      if (pendingMessages.size() >= MAX_MESSAGES_PER_DRAIN) {
+        suppressed++;
+        return;
+      }
+
+      pendingMessages.add(
+          Component.text(
+              getMessage(
+                  "command.perms.verbose.entry",
+                  trace.getPlayerName(),
+                  trace.getCheckName(),
+                  trace.getNode(),
+                  trace.isResult(),
+                  trace.getDecider(),
+                  String.format("%.3f", trace.getNanos() / 1_000_000D)),
+              trace.isResult() ? NamedTextColor.GREEN : NamedTextColor.RED));
+    }
+
+    /**
+     * Sends the queued chat messages or flushes the file
+     *
+     * @param dropped The amount of checks dropped since the last flush
+     * @since 1.0.0
+     */
+    private void flush(long dropped) {
+      if (dropped > 0) {
+        issuer.sendMessage(
+            Component.text(
+                getMessage("command.perms.verbose.dropped", dropped), NamedTextColor.GOLD));
+      }
+      if (writer != null) {
+        try {
+          writer.flush();
+        } catch (IOException e) {
+          PlayerPermissionPlugin.getSingleton()
+              .getLogger()
+              .log(Level.WARNING, "Could not write verbose file " + file, e);
+        }
+        return;
+      }
+
+      for (Component message : pendingMessages) {
+        issuer.sendMessage(message);
+      }
+      pendingMessages.clear();
+      if (suppressed > 0) {
+        issuer.sendMessage(
+            Component.text(
+                getMessage("command.perms.verbose.suppressed", suppressed), NamedTextColor.GRAY));
+        suppressed = 0;
+      }
+    }
+
+    /**
+     * Closes the file and notifies the issuer how many checks were traced
+     *
+     * @since 1.0.0
+     */
+    private void close() {
+      if (writer != null) {
+        try {
+          writer.close();
+        } catch (IOException e) {
+          PlayerPermissionPlugin.getSingleton()
+              .getLogger()
+              .log(Level.WARNING, "Could not close verbose file " + file, e);
+        }
+      }
+      issuer.sendMessage(
+          Component.text(
+              getMessage("command.perms.verbose.stopped", traced), NamedTextColor.AQUA));
+    }
+
+    /**
+     * Writes a line into the file
+     *
+     * @param line The line
+     * @since 1.0.0
+     */
+    private void write(String line) {
+      try {
+        writer.write(line);
+        writer.newLine();
+      } catch (IOException e) {
+        PlayerPermissionPlugin.getSingleton()
+            .getLogger()
+            .log(Level.WARNING, "Could not write verbose file " + file, e);
+      }
+    }
+
+    /**
+     * Gets a message in the language of the issuer
+     *
+     * @param key The message key
+     * @param args The message arguments
+     * @return The localized message
+     * @since 1.0.0
+     */
+    private String getMessage(String key, Object... args) {
+      PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
+      String language = permissions.getPlayerLanguageRepository().get(issuer.getUniqueId());
+      return permissions.getLocalization().format(language, key, args);
+    }
+  }
+}
@@ -2,6 +2,7 @@ package de.lennox.permissions.player;
 
 import de.lennox.permissions.PlayerPermissionPlugin;
 import de.lennox.permissions.database.model.PermittedPlayer;
+import de.lennox.permissions.metrics.event.RankExpirySweepEvent;
 import org.bukkit.Bukkit;
 
 import java.util.Map;
@@ -35,16 +36,25 @@ public class AutomaticRankAssigner {
   private void checkPlayersForExpiry() {
     PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
     Map<UUID, PermittedPlayer> players = permissions.getPlayerRepository().getCachedPlayers();
+    RankExpirySweepEvent event = new RankExpirySweepEvent();
+    event.begin();
+    int checkedPlayers = 0;
+    int expiredPlayers = 0;
 
     for (PermittedPlayer permittedPlayer : players.values()) {
+      checkedPlayers++;
       // Set to default group if expired
       if (permittedPlayer.isRankExpired()) {
+        expiredPlayers++;
         UUID uuid = permittedPlayer.getUuid();
 
         permissions.getPermissionDriver().updatePlayerGroup(uuid, "", -1);
         permittedPlayer.setGroup("");
         permittedPlayer.setExpiresAt(-1);
+        permissions.getSignTextUpdater().markDirty(uuid);
+        permissions.getCommandRegistrar().updateCommands(uuid);
       }
     }
+    event.commit(checkedPlayers, expiredPlayers);
   }
 }
@@ -1,14 +1,20 @@
 package de.lennox.permissions.player;
 
 import de.lennox.permissions.PlayerPermissionPlugin;
+import de.lennox.permissions.database.PermissionDriver;
 import de.lennox.permissions.database.model.PermittedPlayer;
+import de.lennox.permissions.metrics.PluginMetrics;
+import de.lennox.permissions.metrics.event.CacheLoadEvent;
 import lombok.Getter;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Contains all permitted players, players which leave the server are removed from cache to save
@@ -19,12 +25,17 @@ import java.util.concurrent.CompletableFuture;
  * <p>Additionally, this repository contains quick access to a group cache which instantaneously
  * grants access to a players group. This is required for permission checks.
  *
+ * <p>Names of online players are indexed in memory, names of offline players are resolved through
+ * the last known name stored in the database. Name resolution never blocks the calling thread.
+ *
  * @since 1.0.0
  * @author Lennox
  */
 @Getter
 public class PermittedPlayerRepository {
-  private final Map<UUID, PermittedPlayer> cachedPlayers = new HashMap<>();
+  private final Map<UUID, PermittedPlayer> cachedPlayers = new ConcurrentHashMap<>();
+  // Lower case names of online players
+  private final Map<String, UUID> onlinePlayerIds = new ConcurrentHashMap<>();
 
   /**
    * Gets a permitted player by the players uuid from cache or database.
@@ -39,13 +50,20 @@ public class PermittedPlayerRepository {
     PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
     CompletableFuture<PermittedPlayer> playerFuture = new CompletableFuture<>();
     if (cachedPlayers.containsKey(uuid)) {
+      PluginMetrics.PLAYER_CACHE_HITS.increment();
       playerFuture.complete(cachedPlayers.get(uuid));
     } else {
+      long start = System.nanoTime();
+      playerFuture.thenRun(
+          () -> PluginMetrics.PLAYER_LOAD_TIME.record(System.nanoTime() - start));
+      CacheLoadEvent event = new CacheLoadEvent();
+      event.begin();
       permissions
           .getPermissionDriver()
           .queryPlayerById(uuid)
           .whenCompleteAsync(
               (optionalPlayer, t) -> {
+                event.commit("players", uuid.toString(), 1, optionalPlayer.isPresent());
                 // Create new player if there is none in the database
                 if (optionalPlayer.isEmpty()) {
                   PermittedPlayer player =
@@ -74,4 +92,106 @@ public class PermittedPlayerRepository {
   public Optional<PermittedPlayer> getPermittedPlayerNoQuery(UUID uuid) {
     return Optional.ofNullable(cachedPlayers.get(uuid));
   }
+
+  /**
+   * Reloads all cached players from the database, used after the dataset was replaced. Cached
+   * instances are updated in place, players missing in the database are created again.
+   *
+   * @return The future which completes once all players are reloaded
+   * @since 1.0.0
+   */
+  public CompletableFuture<Void> reloadCachedPlayers() {
+    PermissionDriver driver = PlayerPermissionPlugin.getSingleton().getPermissionDriver();
+    List<CompletableFuture<Void>> reloads = new ArrayList<>();
+    for (PermittedPlayer cachedPlayer : List.copyOf(cachedPlayers.values())) {
+      UUID uuid = cachedPlayer.getUuid();
+      reloads.add(
+          driver
+              .queryPlayerById(uuid)
+              .thenAccept(
+                  optionalPlayer -> {
+                    PermittedPlayer databasePlayer =
+                        optionalPlayer.orElseGet(() -> driver.createPermittedPlayer(uuid).join());
+                    cachedPlayer.setGroup(databasePlayer.getGroup());
+                    cachedPlayer.setExpiresAt(databasePlayer.getExpiresAt());
+                    cachedPlayer.setLanguage(databasePlayer.getLanguage());
+                    cachedPlayer.setName(databasePlayer.getName());
+                  }));
+    }
+    return CompletableFuture.allOf(reloads.toArray(CompletableFuture[]::new));
+  }
+
+  /**
+   * Indexes the name of an online player and persists it as the last known name if it changed
+   *
+   * @param uuid The player uuid
+   * @param name The player name
+   * @since 1.0.0
+   */
+  public void registerName(UUID uuid, String name) {
+    onlinePlayerIds.put(name.toLowerCase(Locale.ROOT), uuid);
+
+    PermittedPlayer permittedPlayer = cachedPlayers.get(uuid);
+    // Only write the name if it differs from the last known name
+    if (permittedPlayer == null || name.equals(permittedPlayer.getName())) {
+      return;
+    }
+    permittedPlayer.setName(name);
+    PlayerPermissionPlugin.getSingleton().getPermissionDriver().updatePlayerName(uuid, name);
+  }
+
+  /**
+   * Removes the name of a player which went offline from the online name index
+   *
+   * @param uuid The player uuid
+   * @param name The player name
+   * @since 1.0.0
+   */
+  public void unregisterName(UUID uuid, String name) {
+    onlinePlayerIds.remove(name.toLowerCase(Locale.ROOT), uuid);
+  }
+
+  /**
+   * Resolves the uuid of a player by name, online players are resolved from memory while offline
+   * players are resolved by their last known name from the database
+   *
+   * @param name The player name
+   * @return The future optional player uuid
+   * @since 1.0.0
+   */
+  public CompletableFuture<Optional<UUID>> resolvePlayerId(String name) {
+    UUID onlinePlayerId = onlinePlayerIds.get(name.toLowerCase(Locale.ROOT));
+    if (onlinePlayerId != null) {
+      return CompletableFuture.completedFuture(Optional.of(onlinePlayerId));
+    }
+    return PlayerPermissionPlugin.getSingleton().getPermissionDriver().queryPlayerIdByName(name);
+  }
+
+  /**
+   * Gets a permitted player by name, from cache if the player is online and from the database
+   * otherwise. Players are not created if absent.
+   *
+   * @param name The player name
+   * @return The future optional permitted player
+   * @since 1.0.0
+   */
+  public CompletableFuture<Optional<PermittedPlayer>> getPermittedPlayerByName(String name) {
+    return resolvePlayerId(name)
+        .thenCompose(
+            optionalPlayerId -> {
+              // Players which never joined can't be found
+              if (optionalPlayerId.isEmpty()) {
+                return CompletableFuture.completedFuture(Optional.empty());
+              }
+
+              UUID playerId = optionalPlayerId.get();
+              PermittedPlayer cachedPlayer = cachedPlayers.get(playerId);
+              if (cachedPlayer != null) {
+                return CompletableFuture.completedFuture(Optional.of(cachedPlayer));
+              }
+              return PlayerPermissionPlugin.getSingleton()
+                  .getPermissionDriver()
+                  .queryPlayerById(playerId);
+            });
+  }
 }
@@ -1,54 +1,69 @@
 package de.lennox.permissions.player;
 
-import java.util.HashMap;
-import java.util.Map;
+import de.lennox.permissions.PlayerPermissionPlugin;
+import de.lennox.permissions.database.model.PermittedPlayer;
+
+import java.util.Optional;
 import java.util.UUID;
 
 /**
- * Basic in-memory storage of player language selection, language selection is <b>not</b> saved on
- * server restart
+ * Access to the language of players. The language is stored on the cached permitted player, a
+ * selected language is persisted together with the players row.
  *
  * @since 1.0.0
  * @author Lennox
  */
 public class PlayerLanguageRepository {
-  private final Map<UUID, String> languageSelectionMap = new HashMap<>();
+  private static final String DEFAULT_LANGUAGE = "en";
 
   /**
-   * Stores the language setting of a given player
+   * Stores and persists the selected language of a given player
    *
    * @param player The player
    * @param language The language setting
    * @since 1.0.0
    */
   public void store(UUID player, String language) {
-    languageSelectionMap.put(player, language);
+    PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
+    permissions
+        .getPlayerRepository()
+        .getPermittedPlayerNoQuery(player)
+        .ifPresent(permittedPlayer -> permittedPlayer.setLanguage(language));
+    permissions.getPermissionDriver().updatePlayerLanguage(player, language);
   }
 
   /**
-   * Removes the player from the selection cache
+   * Stores the language matching the client locale of a given player, used as long as the player
+   * didn't select a language
    *
    * @param player The player
+   * @param clientLocale The client locale (e.g. de_de)
    * @since 1.0.0
    */
-  public void invalidate(UUID player) {
-    languageSelectionMap.remove(player);
+  public void storeClientLocale(UUID player, String clientLocale) {
+    PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
+    String language = permissions.getLocalization().matchLanguage(clientLocale);
+    permissions
+        .getPlayerRepository()
+        .getPermittedPlayerNoQuery(player)
+        .ifPresent(permittedPlayer -> permittedPlayer.setClientLanguage(language));
   }
 
   /**
-   * Returns the custom language if the player has chosen any, otherwise the default language
-   * english will be returned.
+   * Returns the language of the player, english will be returned if the player isn't cached yet.
    *
    * @param player The player
    * @return The chosen language
    * @since 1.0.0
    */
   public String get(UUID player) {
-    // Return english as default language if no specific setting has been made
-    if (!languageSelectionMap.containsKey(player)) {
-      return "en";
+    PermittedPlayerRepository players = PlayerPermissionPlugin.getSingleton().getPlayerRepository();
+    Optional<PermittedPlayer> optionalPlayer = players.getPermittedPlayerNoQuery(player);
+    // Return english as default language if the player isn't loaded yet
+    if (optionalPlayer.isEmpty()) {
+      return DEFAULT_LANGUAGE;
     }
 
-    return languageSelectionMap.get(player);
+    return optionalPlayer.get().getDisplayLanguage();
   }
 }
@@ -1,67 +1,289 @@
 package de.lennox.permissions.sign;
 
 import de.lennox.permissions.PlayerPermissionPlugin;
+import de.lennox.permissions.database.model.InformativeSign;
 import de.lennox.permissions.database.model.PermittedPlayer;
+import de.lennox.permissions.metrics.PluginMetrics;
+import de.lennox.permissions.metrics.event.SignUpdatePassEvent;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Automatic updates for all informative signs on the world
  *
+ * <p>The updater remembers a hash of the content last sent for every player and sign pair, so only
+ * signs whose content changed or which came into range of a player are re-sent. Players are only
+ * re-evaluated if they were marked dirty (group change, expiry, language change, sign changes) or
+ * moved into another chunk.
+ *
+ * <p>Pending updates are sent on the main thread and spread across ticks, every tick only sends
+ * as many sign changes as the configured packet and time budget allows.
+ *
  * @since 1.0.0
  * @author Lennox
  */
+@RequiredArgsConstructor
 public class AutomaticSignTextUpdater {
+  private static final int DISCOVERY_INTERVAL = 10;
+  private final Map<UUID, Map<InformativeSign, Integer>> sentContent = new HashMap<>();
+  private final Map<UUID, Long> lastChunks = new HashMap<>();
+  private final Set<UUID> dirtyPlayers = ConcurrentHashMap.newKeySet();
+  private final Set<PendingSignUpdate> pendingUpdates = new LinkedHashSet<>();
+  private final int updatesPerTick;
+  private final long tickBudgetNanos;
+  private int ticks;
 
   /**
-   * Creates the updating task
+   * Creates the updating task, which runs every tick on the main thread
    *
    * @since 1.0.0
    */
   public void createTask() {
-    Bukkit.getScheduler()
-        .runTaskTimerAsynchronously(
-            PlayerPermissionPlugin.getSingleton(), this::updateInformativeSigns, 20, 20);
+    Bukkit.getScheduler().runTaskTimer(PlayerPermissionPlugin.getSingleton(), this::tick, 20, 1);
+  }
+
+  /**
+   * Marks a player as dirty, all signs in range of the player are re-evaluated on the next update
+   *
+   * @param player The player uuid
+   * @since 1.0.0
+   */
+  public void markDirty(UUID player) {
+    dirtyPlayers.add(player);
+  }
+
+  /**
+   * Marks all online players as dirty, used if signs are created or removed
+   *
+   * @since 1.0.0
+   */
+  public void markAllDirty() {
+    for (Player player : Bukkit.getOnlinePlayers()) {
+      dirtyPlayers.add(player.getUniqueId());
+    }
+  }
+
+  /**
+   * Removes all sent content information of a player, usually called after the player left
+   *
+   * @param player The player uuid
+   * @since 1.0.0
+   */
+  public void forget(UUID player) {
+    sentContent.remove(player);
+    lastChunks.remove(player);
+    dirtyPlayers.remove(player);
+    pendingUpdates.removeIf(update -> update.getPlayer().equals(player));
+  }
+
+  /**
+   * Removes a sign from the sent content of all players, usually called after the sign was broken
+   *
+   * @param sign The informative sign
+   * @since 1.0.0
+   */
+  public void forget(InformativeSign sign) {
+    for (Map<InformativeSign, Integer> content : sentContent.values()) {
+      content.remove(sign);
+    }
+    pendingUpdates.removeIf(update -> update.getSign().equals(sign));
+  }
+
+  /**
+   * Returns the amount of sign updates which are waiting to be sent
+   *
+   * @return The backlog size
+   * @since 1.0.0
+   */
+  public int getBacklogSize() {
+    return pendingUpdates.size();
+  }
+
+  /**
+   * Discovers new sign updates and sends pending updates within the tick budget
+   *
+   * @since 1.0.0
+   */
+  private void tick() {
+    SignUpdatePassEvent event = new SignUpdatePassEvent();
+    event.begin();
+    // Discover dirty players every tick, moved players only every few ticks
+    boolean discoverMoved = ticks++ % DISCOVERY_INTERVAL == 0;
+    if (discoverMoved || !dirtyPlayers.isEmpty()) {
+      discoverSignUpdates(discoverMoved);
+    }
+    int sentUpdates = sendPendingUpdates();
+    event.commit(discoverMoved, sentUpdates, pendingUpdates.size());
   }
 
   /**
-   * Updates all informative signs registered in the cache repository
+   * Queues updates of all informative signs in range of dirty or moved players, whose content
+   * differs from the content last sent
    *
+   * @param discoverMoved Whether players which moved into another chunk should be re-evaluated
    * @since 1.0.0
    */
-  private void updateInformativeSigns() {
+  private void discoverSignUpdates(boolean discoverMoved) {
     PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
-    permissions
-        .getSignRepository()
-        .getCachedSigns()
-        .values()
-        .forEach(
-            sign -> {
-              Optional<Location> optionalLocation = sign.getBlockLocation();
-              // Don't do anything if location could not be created
-              if (optionalLocation.isEmpty()) {
-                return;
-              }
-
-              Location location = optionalLocation.get();
-              for (Player player : Bukkit.getOnlinePlayers()) {
-                Optional<PermittedPlayer> optionalPermittedPlayer =
-                    permissions
-                        .getPlayerRepository()
-                        .getPermittedPlayerNoQuery(player.getUniqueId());
-                // Only update if rank information is available
-                if (optionalPermittedPlayer.isEmpty()) {
-                  return;
-                }
-
-                PermittedPlayer permittedPlayer = optionalPermittedPlayer.get();
-                String locale = permissions.getPlayerLanguageRepository().get(player.getUniqueId());
-                player.sendSignChange(
-                    location, sign.getSignComponents(permittedPlayer, player, locale));
-              }
-            });
+    for (Player player : Bukkit.getOnlinePlayers()) {
+      UUID uuid = player.getUniqueId();
+      boolean dirty = dirtyPlayers.remove(uuid);
+      // Skip players which weren't marked dirty if movement isn't checked this tick
+      if (!dirty && !discoverMoved) {
+        continue;
+      }
+
+      Location playerLocation = player.getLocation();
+      long chunk =
+          SignSpatialIndex.chunkKey(
+              playerLocation.getBlockX() >> 4, playerLocation.getBlockZ() >> 4);
+      Long lastChunk = lastChunks.put(uuid, chunk);
+      // Skip players which neither moved into another chunk nor were marked dirty
+      if (!dirty && lastChunk != null && lastChunk == chunk) {
+        continue;
+      }
+
+      Optional<PermittedPlayer> optionalPermittedPlayer =
+          permissions.getPlayerRepository().getPermittedPlayerNoQuery(uuid);
+      // Only update if rank information is available, retry on the next update
+      if (optionalPermittedPlayer.isEmpty()) {
+        dirtyPlayers.add(uuid);
+        continue;
+      }
+
+      int contentHash = contentHash(player, optionalPermittedPlayer.get());
+      Map<InformativeSign, Integer> sent = sentContent.computeIfAbsent(uuid, u -> new HashMap<>());
+      int range = Bukkit.getViewDistance() * 16;
+      int rangeSquared = square(range);
+
+      // Forget signs which left the range, they are re-sent when coming back into range
+      Iterator<InformativeSign> sentIterator = sent.keySet().iterator();
+      while (sentIterator.hasNext()) {
+        if (!isInRange(sentIterator.next(), playerLocation, rangeSquared)) {
+          sentIterator.remove();
+        }
+      }
+
+      for (InformativeSign sign :
+          permissions.getSignRepository().getSignsNear(playerLocation, range)) {
+        // Only queue signs in range which don't show the current content yet
+        Integer sentHash = sent.get(sign);
+        if (isInRange(sign, playerLocation, rangeSquared)
+            && (sentHash == null || sentHash != contentHash)) {
+          pendingUpdates.add(new PendingSignUpdate(uuid, sign));
+        }
+      }
+    }
+  }
+
+  /**
+   * Sends pending sign updates until either the packet or the time budget of the tick is used up
+   *
+   * @return The amount of sent sign changes
+   * @since 1.0.0
+   */
+  private int sendPendingUpdates() {
+    PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
+    long deadline = System.nanoTime() + tickBudgetNanos;
+    int sentUpdates = 0;
+
+    Iterator<PendingSignUpdate> iterator = pendingUpdates.iterator();
+    while (iterator.hasNext() && sentUpdates < updatesPerTick && System.nanoTime() < deadline) {
+      PendingSignUpdate update = iterator.next();
+      iterator.remove();
+
+      UUID uuid = update.getPlayer();
+      Player player = Bukkit.getPlayer(uuid);
+      Optional<PermittedPlayer> optionalPermittedPlayer =
+          permissions.getPlayerRepository().getPermittedPlayerNoQuery(uuid);
+      Optional<Location> optionalLocation = update.getSign().getBlockLocation();
+      // Drop updates of players which left or signs whose world is gone
+      if (player == null || optionalPermittedPlayer.isEmpty() || optionalLocation.isEmpty()) {
+        continue;
+      }
+
+      PermittedPlayer permittedPlayer = optionalPermittedPlayer.get();
+      int contentHash = contentHash(player, permittedPlayer);
+      Map<InformativeSign, Integer> sent = sentContent.computeIfAbsent(uuid, u -> new HashMap<>());
+      // Skip signs which received the current content in the meantime
+      Integer sentHash = sent.get(update.getSign());
+      if (sentHash != null && sentHash == contentHash) {
+        continue;
+      }
+
+      String locale = permissions.getPlayerLanguageRepository().get(uuid);
+      player.sendSignChange(
+          optionalLocation.get(),
+          update.getSign().getSignComponents(permittedPlayer, player, locale));
+      sent.put(update.getSign(), contentHash);
+      sentUpdates++;
+      PluginMetrics.SIGN_UPDATES_SENT.increment();
+    }
+    return sentUpdates;
+  }
+
+  /**
+   * Creates a hash of everything that is displayed on an informative sign for the given player,
+   * including the generation of the language bundles so reloaded texts are re-sent
+   *
+   * @param player The bukkit player
+   * @param permittedPlayer The permitted player
+   * @return The content hash
+   * @since 1.0.0
+   */
+  private int contentHash(Player player, PermittedPlayer permittedPlayer) {
+    PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
+    String locale = permissions.getPlayerLanguageRepository().get(player.getUniqueId());
+    return Objects.hash(
+        player.getName(),
+        permittedPlayer.getGroup(),
+        permittedPlayer.getExpiresAt(),
+        locale,
+        permissions.getLocalization().getGeneration());
+  }
+
+  /**
+   * Checks if a sign is in the same world and within the given squared range of a location
+   *
+   * @param sign The informative sign
+   * @param location The location
+   * @param rangeSquared The squared range in blocks
+   * @return The range state
+   * @since 1.0.0
+   */
+  private boolean isInRange(InformativeSign sign, Location location, int rangeSquared) {
+    if (!sign.getWorld().equals(location.getWorld().getName())) {
+      return false;
+    }
+    return square(sign.getX() - location.getBlockX()) + square(sign.getZ() - location.getBlockZ())
+        <= rangeSquared;
+  }
+
+  private static int square(int value) {
+    return value * value;
+  }
+
+  /**
+   * A sign update waiting to be sent to a player
+   *
+   * @since 1.0.0
+   */
+  @Data
+  private static class PendingSignUpdate {
+    private final UUID player;
+    private final InformativeSign sign;
   }
 }
@@ -2,8 +2,13 @@ package de.lennox.permissions.sign;
 
 import de.lennox.permissions.PlayerPermissionPlugin;
 import de.lennox.permissions.database.model.InformativeSign;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import lombok.Getter;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
 
 import java.util.HashMap;
 import java.util.List;
@@ -13,54 +18,162 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Contains all cached informative signs.
+ * Contains all cached informative signs in a spatial index.
  *
- * <p>The sign cache is never being invalidated, it is only being updated.
+ * <p>Signs are loaded lazily per chunk. On world load only the keys of chunks containing signs are
+ * queried, the signs themselves are loaded when such a chunk is loaded and released on unload.
  *
  * @since 1.0.0
  * @author Lennox
  */
 @Getter
 public class InformativeSignRepository {
-  private final Map<Integer, InformativeSign> cachedSigns = new HashMap<>();
+  private final SignSpatialIndex index = new SignSpatialIndex();
+  // Chunks which contain persisted signs, only accessed on the main thread
+  private final Map<String, LongSet> signChunks = new HashMap<>();
 
   /**
-   * Builds an initial cache with all currently in-database persistent signs
+   * Loads the signs of all currently loaded worlds, used on start-up as worlds loaded before the
+   * plugin was enabled don't fire a load event
    *
-   * <p>The cache is usually also updates after block placement / destruction to save database
-   * queries
+   * @since 1.0.0
+   */
+  public void loadLoadedWorlds() {
+    for (World world : Bukkit.getWorlds()) {
+      loadWorld(world);
+    }
+  }
+
+  /**
+   * Drops all cached signs and loads them again for all loaded worlds, used after the dataset was
+   * replaced. Has to be called on the main thread.
    *
    * @since 1.0.0
    */
-  public void buildInitialCache() {
+  public void reloadLoadedWorlds() {
+    for (World world : Bukkit.getWorlds()) {
+      unloadWorld(world);
+      loadWorld(world);
+    }
+  }
+
+  /**
+   * Queries which chunks of the world contain signs and loads the signs of all those chunks which
+   * are currently loaded. Signs of other chunks are loaded once the chunk is loaded.
+   *
+   * @param world The world
+   * @since 1.0.0
+   */
+  public void loadWorld(World world) {
     PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
     Logger logger = permissions.getLogger();
+    String worldName = world.getName();
     permissions
         .getSignDriver()
-        .queryAllSigns()
-        .whenCompleteAsync(
-            (optionalSigns, t) -> {
-              // Notify server administrator if signs could not be fetched
-              if (optionalSigns.isEmpty()) {
-                logger.log(Level.WARNING, "Could not cache signs as loading from database failed!");
+        .querySignChunks(worldName)
+        .whenComplete(
+            (optionalChunks, t) -> {
+              // Notify server administrator if sign chunks could not be fetched
+              if (optionalChunks.isEmpty()) {
+                logger.log(
+                    Level.WARNING,
+                    "Could not cache signs of world " + worldName + " as loading failed!");
                 return;
               }
 
-              List<InformativeSign> signs = optionalSigns.get();
-              for (InformativeSign sign : signs) {
-                Optional<Location> optionalLocation = sign.getBlockLocation();
+              Bukkit.getScheduler()
+                  .runTask(
+                      permissions,
+                      () -> {
+                        // Don't cache anything if the world was unloaded in the meantime
+                        if (Bukkit.getWorld(worldName) != world) {
+                          return;
+                        }
 
-                // Only add if location exists on startup
-                if (optionalLocation.isPresent()) {
-                  Location location = optionalLocation.get();
-                  cachedSigns.put(location.hashCode(), sign);
-                }
+                        // Keep chunks of signs which were placed while querying
+                        LongSet chunks = optionalChunks.get();
+                        LongSet placedChunks = signChunks.put(worldName, chunks);
+                        if (placedChunks != null) {
+                          chunks.addAll(placedChunks);
+                        }
+
+                        LongIterator iterator = chunks.iterator();
+                        while (iterator.hasNext()) {
+                          long key = iterator.nextLong();
+                          int chunkX = (int) key;
+                          int chunkZ = (int) (key >> 32);
+                          if (world.isChunkLoaded(chunkX, chunkZ)) {
+                            loadChunk(world, chunkX, chunkZ);
+                          }
+                        }
+                      });
+            });
+  }
+
+  /**
+   * Loads the signs of a chunk if it is known to contain signs
+   *
+   * @param world The world
+   * @param chunkX The chunk x coordinate
+   * @param chunkZ The chunk z coordinate
+   * @since 1.0.0
+   */
+  public void loadChunk(World world, int chunkX, int chunkZ) {
+    String worldName = world.getName();
+    LongSet chunks = signChunks.get(worldName);
+    // Only query chunks which contain signs
+    if (chunks == null || !chunks.contains(SignSpatialIndex.chunkKey(chunkX, chunkZ))) {
+      return;
+    }
+
+    PlayerPermissionPlugin permissions = PlayerPermissionPlugin.getSingleton();
+    permissions
+        .getSignDriver()
+        .querySignsInChunk(worldName, chunkX, chunkZ)
+        .whenComplete(
+            (optionalSigns, t) -> {
+              if (optionalSigns.isEmpty()) {
+                return;
               }
 
-              logger.log(Level.INFO, "Cached " + signs.size() + " sign(s) on start-up!");
+              Bukkit.getScheduler()
+                  .runTask(
+                      permissions,
+                      () -> {
+                        // Don't cache anything if the chunk was unloaded in the meantime
+                        if (!world.isChunkLoaded(chunkX, chunkZ)) {
+                          return;
+                        }
+
+                        optionalSigns.get().forEach(index::add);
+                        permissions.getSignTextUpdater().markAllDirty();
+                      });
             });
   }
 
+  /**
+   * Releases the cached signs of a chunk
+   *
+   * @param world The world
+   * @param chunkX The chunk x coordinate
+   * @param chunkZ The chunk z coordinate
+   * @since 1.0.0
+   */
+  public void unloadChunk(World world, int chunkX, int chunkZ) {
+    index.removeChunk(world.getName(), chunkX, chunkZ);
+  }
+
+  /**
+   * Releases all cached signs of a world
+   *
+   * @param world The world
+   * @since 1.0.0
+   */
+  public void unloadWorld(World world) {
+    index.removeWorld(world.getName());
+    signChunks.remove(world.getName());
+  }
+
   /**
    * Registers a new sign in the cache
    *
@@ -68,22 +181,52 @@ public class InformativeSignRepository {
    * @since 1.0.0
    */
   public void register(InformativeSign sign) {
-    Optional<Location> optionalLocation = sign.getBlockLocation();
+    index.add(sign);
+    signChunks
+        .computeIfAbsent(sign.getWorld(), world -> new LongOpenHashSet())
+        .add(SignSpatialIndex.chunkKey(sign.getChunkX(), sign.getChunkZ()));
+  }
 
-    // Only add if location exists
-    if (optionalLocation.isPresent()) {
-      Location location = optionalLocation.get();
-      cachedSigns.put(location.hashCode(), sign);
-    }
+  /**
+   * Gets the sign at the given block location from the cache
+   *
+   * @param location The sign location
+   * @return The optional sign
+   * @since 1.0.0
+   */
+  public Optional<InformativeSign> getSign(Location location) {
+    return index.get(
+        location.getWorld().getName(),
+        location.getBlockX(),
+        location.getBlockY(),
+        location.getBlockZ());
+  }
+
+  /**
+   * Gets all cached signs in the chunks around the given location
+   *
+   * @param location The location
+   * @param radius The radius in blocks
+   * @return The signs near the location
+   * @since 1.0.0
+   */
+  public List<InformativeSign> getSignsNear(Location location, int radius) {
+    return index.getNearby(
+        location.getWorld().getName(), location.getBlockX(), location.getBlockZ(), radius);
   }
 
   /**
    * Removes a sign from the cache
    *
    * @param location The sign location
+   * @return The optional removed sign
    * @since 1.0.0
    */
-  public void invalidate(Location location) {
-    cachedSigns.remove(location.hashCode());
+  public Optional<InformativeSign> invalidate(Location location) {
+    return index.remove(
+        location.getWorld().getName(),
+        location.getBlockX(),
+        location.getBlockY(),
+        location.getBlockZ());
   }
 }
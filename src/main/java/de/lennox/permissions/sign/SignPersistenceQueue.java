@@ -0,0 +1,97 @@
+package de.lennox.permissions.sign;
+
+import de.lennox.permissions.PlayerPermissionPlugin;
+import de.lennox.permissions.database.model.InformativeSign;
+import org.bukkit.Bukkit;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Collects informative sign creations and deletions and persists them in batches.
+ *
+ * <p>Operations on the same sign are coalesced, only the latest operation is persisted. The queue
+ * is flushed every second or as soon as it holds {@link #FLUSH_THRESHOLD} operations.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+public class SignPersistenceQueue {
+  private static final int FLUSH_THRESHOLD = 256;
+  // Maps every pending sign to its operation, true for creation and false for deletion
+  private final Map<InformativeSign, Boolean> pendingOperations = new LinkedHashMap<>();
+
+  /**
+   * Creates the flushing task
+   *
+   * @since 1.0.0
+   */
+  public void createTask() {
+    Bukkit.getScheduler()
+        .runTaskTimerAsynchronously(PlayerPermissionPlugin.getSingleton(), this::flush, 20, 20);
+  }
+
+  /**
+   * Queues the creation of a sign
+   *
+   * @param sign The informative sign
+   * @since 1.0.0
+   */
+  public void create(InformativeSign sign) {
+    queue(sign, true);
+  }
+
+  /**
+   * Queues the deletion of a sign
+   *
+   * @param sign The informative sign
+   * @since 1.0.0
+   */
+  public void delete(InformativeSign sign) {
+    queue(sign, false);
+  }
+
+  /**
+   * Persists all pending operations, the database work itself is executed asynchronously
+   *
+   * @return The future success state, completed right away if nothing was pending
+   * @since 1.0.0
+   */
+  public CompletableFuture<Boolean> flush() {
+    List<InformativeSign> created = new ArrayList<>();
+    List<InformativeSign> deleted = new ArrayList<>();
+    synchronized (pendingOperations) {
+      // Nothing to persist
+      if (pendingOperations.isEmpty()) {
+        return CompletableFuture.completedFuture(true);
+      }
+
+      pendingOperations.forEach(
+          (sign, create) -> {
+            if (create) {
+              created.add(sign);
+            } else {
+              deleted.add(sign);
+            }
+          });
+      pendingOperations.clear();
+    }
+    return PlayerPermissionPlugin.getSingleton().getSignDriver().persistSigns(created, deleted);
+  }
+
+  private void queue(InformativeSign sign, boolean create) {
+    boolean flush;
+    synchronized (pendingOperations) {
+      // Re-insert to keep the order of the latest operation
+      pendingOperations.remove(sign);
+      pendingOperations.put(sign, create);
+      flush = pendingOperations.size() >= FLUSH_THRESHOLD;
+    }
+    if (flush) {
+      flush();
+    }
+  }
+}
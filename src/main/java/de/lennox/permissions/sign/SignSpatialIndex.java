@@ -0,0 +1,241 @@
+package de.lennox.permissions.sign;
+
+import de.lennox.permissions.database.model.InformativeSign;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Spatial index of informative signs, grouped per world by the chunk they are located in.
+ *
+ * <p>Chunks are keyed by their packed chunk coordinates, which allows exact position lookups and
+ * chunk lookups in constant time and radius queries proportional to the amount of chunks covered.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+public class SignSpatialIndex {
+  private final Map<String, Long2ObjectMap<List<InformativeSign>>> worlds = new HashMap<>();
+  private int size;
+
+  /**
+   * Packs the given chunk coordinates into a single long key
+   *
+   * @param chunkX The chunk x coordinate
+   * @param chunkZ The chunk z coordinate
+   * @return The chunk key
+   * @since 1.0.0
+   */
+  public static long chunkKey(int chunkX, int chunkZ) {
+    return (long) chunkX & 0xffffffffL | ((long) chunkZ & 0xffffffffL) << 32;
+  }
+
+  /**
+   * Adds a sign to the index, an already indexed sign at the same position is replaced
+   *
+   * @param sign The informative sign
+   * @since 1.0.0
+   */
+  public synchronized void add(InformativeSign sign) {
+    List<InformativeSign> chunk =
+        worlds
+            .computeIfAbsent(sign.getWorld(), world -> new Long2ObjectOpenHashMap<>())
+            .computeIfAbsent(
+                chunkKey(sign.getChunkX(), sign.getChunkZ()), key -> new ArrayList<>(1));
+    // Replace the sign if the position is already indexed
+    for (int i = 0; i < chunk.size(); i++) {
+      if (chunk.get(i).equals(sign)) {
+        chunk.set(i, sign);
+        return;
+      }
+    }
+    chunk.add(sign);
+    size++;
+  }
+
+  /**
+   * Gets the sign at the exact given position
+   *
+   * @param world The world name
+   * @param x The x position
+   * @param y The y position
+   * @param z The z position
+   * @return The optional sign
+   * @since 1.0.0
+   */
+  public synchronized Optional<InformativeSign> get(String world, int x, int y, int z) {
+    for (InformativeSign sign : getChunk0(world, x >> 4, z >> 4)) {
+      if (sign.getX() == x && sign.getY() == y && sign.getZ() == z) {
+        return Optional.of(sign);
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Removes the sign at the exact given position
+   *
+   * @param world The world name
+   * @param x The x position
+   * @param y The y position
+   * @param z The z position
+   * @return The optional removed sign
+   * @since 1.0.0
+   */
+  public synchronized Optional<InformativeSign> remove(String world, int x, int y, int z) {
+    Long2ObjectMap<List<InformativeSign>> chunks = worlds.get(world);
+    if (chunks == null) {
+      return Optional.empty();
+    }
+
+    long key = chunkKey(x >> 4, z >> 4);
+    List<InformativeSign> chunk = chunks.get(key);
+    if (chunk == null) {
+      return Optional.empty();
+    }
+
+    for (int i = 0; i < chunk.size(); i++) {
+      InformativeSign sign = chunk.get(i);
+      if (sign.getX() == x && sign.getY() == y && sign.getZ() == z) {
+        chunk.remove(i);
+        size--;
+        // Drop empty chunks and worlds to keep the index compact
+        if (chunk.isEmpty()) {
+          chunks.remove(key);
+          if (chunks.isEmpty()) {
+            worlds.remove(world);
+          }
+        }
+        return Optional.of(sign);
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Gets all signs within the given chunk
+   *
+   * @param world The world name
+   * @param chunkX The chunk x coordinate
+   * @param chunkZ The chunk z coordinate
+   * @return The signs in the chunk
+   * @since 1.0.0
+   */
+  public synchronized List<InformativeSign> getChunk(String world, int chunkX, int chunkZ) {
+    return List.copyOf(getChunk0(world, chunkX, chunkZ));
+  }
+
+  /**
+   * Gets all signs within the chunks touched by the square around the given block position
+   *
+   * <p>The result may contain signs slightly outside of the radius, as whole chunks are collected.
+   *
+   * @param world The world name
+   * @param x The block x position
+   * @param z The block z position
+   * @param radius The radius in blocks
+   * @return The signs near the position
+   * @since 1.0.0
+   */
+  public synchronized List<InformativeSign> getNearby(String world, int x, int z, int radius) {
+    Long2ObjectMap<List<InformativeSign>> chunks = worlds.get(world);
+    if (chunks == null) {
+      return Collections.emptyList();
+    }
+
+    List<InformativeSign> nearby = new ArrayList<>();
+    int minChunkX = (x - radius) >> 4;
+    int maxChunkX = (x + radius) >> 4;
+    int minChunkZ = (z - radius) >> 4;
+    int maxChunkZ = (z + radius) >> 4;
+    // Iterate the indexed chunks instead if there are fewer of them than chunks in the radius
+    if ((long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1) > chunks.size()) {
+      for (List<InformativeSign> chunk : chunks.values()) {
+        InformativeSign first = chunk.get(0);
+        if (first.getChunkX() >= minChunkX
+            && first.getChunkX() <= maxChunkX
+            && first.getChunkZ() >= minChunkZ
+            && first.getChunkZ() <= maxChunkZ) {
+          nearby.addAll(chunk);
+        }
+      }
+      return nearby;
+    }
+
+    for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+      for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+        List<InformativeSign> chunk = chunks.get(chunkKey(chunkX, chunkZ));
+        if (chunk != null) {
+          nearby.addAll(chunk);
+        }
+      }
+    }
+    return nearby;
+  }
+
+  /**
+   * Removes all signs within the given chunk
+   *
+   * @param world The world name
+   * @param chunkX The chunk x coordinate
+   * @param chunkZ The chunk z coordinate
+   * @since 1.0.0
+   */
+  public synchronized void removeChunk(String world, int chunkX, int chunkZ) {
+    Long2ObjectMap<List<InformativeSign>> chunks = worlds.get(world);
+    if (chunks == null) {
+      return;
+    }
+
+    List<InformativeSign> chunk = chunks.remove(chunkKey(chunkX, chunkZ));
+    if (chunk != null) {
+      size -= chunk.size();
+    }
+    if (chunks.isEmpty()) {
+      worlds.remove(world);
+    }
+  }
+
+  /**
+   * Removes all signs within the given world
+   *
+   * @param world The world name
+   * @since 1.0.0
+   */
+  public synchronized void removeWorld(String world) {
+    Long2ObjectMap<List<InformativeSign>> chunks = worlds.remove(world);
+    if (chunks == null) {
+      return;
+    }
+
+    for (List<InformativeSign> chunk : chunks.values()) {
+      size -= chunk.size();
+    }
+  }
+
+  /**
+   * Returns the amount of indexed signs
+   *
+   * @return The amount of signs
+   * @since 1.0.0
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  private List<InformativeSign> getChunk0(String world, int chunkX, int chunkZ) {
+    Long2ObjectMap<List<InformativeSign>> chunks = worlds.get(world);
+    if (chunks == null) {
+      return Collections.emptyList();
+    }
+
+    List<InformativeSign> chunk = chunks.get(chunkKey(chunkX, chunkZ));
+    return chunk == null ? Collections.emptyList() : chunk;
+  }
+}
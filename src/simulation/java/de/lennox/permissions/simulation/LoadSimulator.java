@@ -0,0 +1,578 @@
+package de.lennox.permissions.simulation;
+
+import de.lennox.permissions.PlayerPermissionPlugin;
+import de.lennox.permissions.database.memory.DriverBehavior;
+import de.lennox.permissions.database.memory.InMemoryPermissionDriver;
+import de.lennox.permissions.database.memory.InMemorySignDriver;
+import de.lennox.permissions.database.model.PermissionGroup;
+import de.lennox.permissions.database.model.PermittedPlayer;
+import de.lennox.permissions.fixture.PluginFixture;
+import de.lennox.permissions.group.PermissionGroupRepository;
+import de.lennox.permissions.listener.PlayerStateListener;
+import de.lennox.permissions.permission.SimplePermissibleBase;
+import de.lennox.permissions.player.AutomaticRankAssigner;
+import net.kyori.adventure.text.Component;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the repositories and listeners with synthetic players, without a server or database.
+ *
+ * <p>Every worker thread owns a slice of the players and runs a fixed mix of joins, quits, chat
+ * messages, permission checks, admin edits and rank expiries against the in-memory drivers. The
+ * latency of every operation is recorded and reported as percentiles per operation.
+ *
+ * <p>Arguments are passed as key=value pairs, e.g. {@code players=5000 threads=32
+ * operations=1000000 latency=1-5 failures=0.01}, the latency is given in milliseconds.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+public class LoadSimulator {
+  private static final String[] GROUPS = {"default", "vip", "admin"};
+  private static final int EDIT_NODES = 64;
+  private final PlayerPermissionPlugin plugin;
+  private final PlayerStateListener stateListener = new PlayerStateListener();
+  private final Method loginHandler;
+  private final Method quitHandler;
+  private final Method expiryCheck;
+  private final AutomaticRankAssigner rankAssigner = new AutomaticRankAssigner();
+  private final String[] queries;
+
+  private LoadSimulator(PlayerPermissionPlugin plugin) throws ReflectiveOperationException {
+    this.plugin = plugin;
+    this.loginHandler =
+        accessible(PlayerStateListener.class, "onPlayerLogin", AsyncPlayerPreLoginEvent.class);
+    this.quitHandler =
+        accessible(PlayerStateListener.class, "onPlayerQuit", PlayerQuitEvent.class);
+    this.expiryCheck = accessible(AutomaticRankAssigner.class, "checkPlayersForExpiry");
+    this.queries = createQueries();
+  }
+
+  /**
+   * Seeds the in-memory drivers, runs the simulation and prints the report
+   *
+   * @param args The key=value options
+   * @throws Exception If the simulation can't be set up
+   * @since 1.0.0
+   */
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = parseOptions(args);
+    int players = Integer.parseInt(options.getOrDefault("players", "1000"));
+    int threads = Integer.parseInt(options.getOrDefault("threads", "16"));
+    long operations = Long.parseLong(options.getOrDefault("operations", "100000"));
+    String[] latency = options.getOrDefault("latency", "1-5").split("-");
+    double failureRate = Double.parseDouble(options.getOrDefault("failures", "0"));
+
+    PlayerPermissionPlugin plugin = PluginFixture.install();
+    DriverBehavior behavior =
+        new DriverBehavior(
+            Long.parseLong(latency[0]),
+            Long.parseLong(latency[latency.length - 1]),
+            TimeUnit.MILLISECONDS,
+            failureRate);
+    InMemoryPermissionDriver permissionDriver = new InMemoryPermissionDriver(behavior);
+    PluginFixture.installDrivers(permissionDriver, new InMemorySignDriver(behavior));
+    List<UUID> playerIds = seed(permissionDriver, players);
+    loadGroups(plugin.getGroupRepository());
+
+    System.out.printf(
+        "Simulating %d operations of %d players on %d threads (latency %s ms, failures %s)%n",
+        operations, players, threads, String.join("-", latency), failureRate);
+    LoadSimulator simulator = new LoadSimulator(plugin);
+    ExecutorService workers = Executors.newFixedThreadPool(threads);
+    List<Future<Map<Operation, LatencyRecorder>>> results = new ArrayList<>();
+    long start = System.nanoTime();
+    for (int thread = 0; thread < threads; thread++) {
+      List<UUID> slice = new ArrayList<>();
+      for (int index = thread; index < playerIds.size(); index += threads) {
+        slice.add(playerIds.get(index));
+      }
+      long workerOperations = operations / threads + (thread < operations % threads ? 1 : 0);
+      results.add(workers.submit(() -> simulator.runWorker(slice, workerOperations)));
+    }
+
+    Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+    for (Future<Map<Operation, LatencyRecorder>> result : results) {
+      for (Map.Entry<Operation, LatencyRecorder> entry : result.get().entrySet()) {
+        recorders
+            .computeIfAbsent(entry.getKey(), key -> new LatencyRecorder())
+            .addAll(entry.getValue());
+      }
+    }
+    long elapsed = System.nanoTime() - start;
+    workers.shutdown();
+
+    report(recorders, elapsed, behavior);
+    System.exit(0);
+  }
+
+  /**
+   * Runs the operation mix for the players of one worker
+   *
+   * @param players The players owned by the worker
+   * @param operations The amount of operations to run
+   * @return The latencies per operation
+   * @since 1.0.0
+   */
+  private Map<Operation, LatencyRecorder> runWorker(List<UUID> players, long operations) {
+    Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+    List<UUID> offline = new ArrayList<>(players);
+    List<SimulatedPlayer> online = new ArrayList<>();
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+
+    for (long i = 0; i < operations; i++) {
+      Operation operation =
+          Operation.pick(random.nextInt(1000), online.isEmpty(), offline.isEmpty());
+      long start = System.nanoTime();
+      boolean failed = false;
+      try {
+        switch (operation) {
+          case JOIN -> {
+            int index = random.nextInt(offline.size());
+            online.add(join(offline.get(index)));
+            removeAt(offline, index);
+          }
+          case QUIT -> {
+            int index = random.nextInt(online.size());
+            quit(online.get(index));
+            offline.add(removeAt(online, index).uuid());
+          }
+          case CHAT -> chat(online.get(random.nextInt(online.size())));
+          case PERMISSION_CHECK -> online
+              .get(random.nextInt(online.size()))
+              .permissible()
+              .hasPermission(queries[random.nextInt(queries.length)]);
+          case ADMIN_EDIT -> edit(random);
+          case RANK_EXPIRY -> expire(online.get(random.nextInt(online.size())));
+        }
+      } catch (RuntimeException | ReflectiveOperationException e) {
+        failed = true;
+      }
+      recorders
+          .computeIfAbsent(operation, key -> new LatencyRecorder())
+          .record(System.nanoTime() - start, failed);
+    }
+    return recorders;
+  }
+
+  /**
+   * Joins a player like the server does, through the pre-login listener and the name and group
+   * lookups of the join listener
+   *
+   * @param uuid The player uuid
+   * @return The online player
+   * @throws ReflectiveOperationException If the listener can't be invoked
+   * @since 1.0.0
+   */
+  private SimulatedPlayer join(UUID uuid) throws ReflectiveOperationException {
+    String name = "Sim" + uuid.toString().substring(0, 8);
+    loginHandler.invoke(
+        stateListener,
+        new AsyncPlayerPreLoginEvent(name, InetAddress.getLoopbackAddress(), uuid));
+
+    // The join listener itself needs a craftbukkit player for the permissible injection
+    Player player = PluginFixture.createPlayer(uuid, name);
+    plugin.getPlayerRepository().registerName(uuid, name);
+    plugin.getSuggestionIndex().addPlayerNames(List.of(name));
+    resolvePrefix(uuid);
+    return new SimulatedPlayer(uuid, player, new SimplePermissibleBase(player));
+  }
+
+  /**
+   * Quits a player through the quit listener
+   *
+   * @param player The online player
+   * @throws ReflectiveOperationException If the listener can't be invoked
+   * @since 1.0.0
+   */
+  private void quit(SimulatedPlayer player) throws ReflectiveOperationException {
+    quitHandler.invoke(
+        stateListener,
+        new PlayerQuitEvent(
+            player.player(), Component.empty(), PlayerQuitEvent.QuitReason.DISCONNECTED));
+  }
+
+  /**
+   * Formats a chat message like the chat listener, without broadcasting it
+   *
+   * @param player The online player
+   * @since 1.0.0
+   */
+  private void chat(SimulatedPlayer player) {
+    String prefix = resolvePrefix(player.uuid());
+    Component.text(prefix.isEmpty() ? "" : "[" + prefix + "] ")
+        .append(Component.text(player.player().getName() + " > "))
+        .append(Component.text("Hello"));
+  }
+
+  /**
+   * Resolves the prefix of a player like the join and chat listeners
+   *
+   * @param uuid The player uuid
+   * @return The prefix, empty if the player has none
+   * @since 1.0.0
+   */
+  private String resolvePrefix(UUID uuid) {
+    PermissionGroupRepository groups = plugin.getGroupRepository();
+    PermittedPlayer permittedPlayer = plugin.getPlayerRepository().getPermittedPlayer(uuid).join();
+    String groupName = permittedPlayer.getGroup();
+    Optional<PermissionGroup> group =
+        groupName.isEmpty() ? groups.getDefaultGroup() : groups.getGroup(groupName).join();
+    return group.map(PermissionGroup::getPrefix).orElse("");
+  }
+
+  /**
+   * Adds or removes a random permission of a random group like the /perms command
+   *
+   * @param random The random
+   * @since 1.0.0
+   */
+  private void edit(ThreadLocalRandom random) {
+    String group = GROUPS[random.nextInt(GROUPS.length)];
+    String permission = "sim.edit." + random.nextInt(EDIT_NODES);
+    if (random.nextBoolean()) {
+      plugin.getGroupRepository().edit(group).allow(permission).apply().join();
+    } else {
+      plugin.getGroupRepository().edit(group).removeAllowed(permission).apply().join();
+    }
+  }
+
+  /**
+   * Gives a player a rank which is already expired like the /rank command and runs the expiry
+   * check of the rank assigner
+   *
+   * @param player The online player
+   * @throws ReflectiveOperationException If the expiry check can't be invoked
+   * @since 1.0.0
+   */
+  private void expire(SimulatedPlayer player) throws ReflectiveOperationException {
+    long expiresAt = System.currentTimeMillis() - 1;
+    plugin.getPermissionDriver().updatePlayerGroup(player.uuid(), "vip", expiresAt);
+    plugin
+        .getPlayerRepository()
+        .getPermittedPlayerNoQuery(player.uuid())
+        .ifPresent(
+            permittedPlayer -> {
+              permittedPlayer.setGroup("vip");
+              permittedPlayer.setExpiresAt(expiresAt);
+            });
+    expiryCheck.invoke(rankAssigner);
+  }
+
+  /**
+   * Seeds the groups and players, a tenth of the players is vip and a hundredth admin
+   *
+   * @param driver The in-memory driver
+   * @param players The amount of players
+   * @return The player uuids
+   * @since 1.0.0
+   */
+  private static List<UUID> seed(InMemoryPermissionDriver driver, int players) {
+    driver.putGroup(
+        new PermissionGroup(
+            "default", "", true, List.of("sim.chat", "sim.home.*"), List.of("sim.home.admin")));
+    driver.putGroup(
+        new PermissionGroup("vip", "VIP", false, List.of("sim.*"), List.of("sim.admin")));
+    driver.putGroup(new PermissionGroup("admin", "Admin", false, List.of("*"), List.of()));
+
+    List<UUID> playerIds = new ArrayList<>();
+    for (int i = 0; i < players; i++) {
+      UUID uuid = UUID.randomUUID();
+      String group = i % 100 == 0 ? "admin" : i % 10 == 0 ? "vip" : "";
+      driver.putPlayer(new PermittedPlayer(uuid, group, -1));
+      playerIds.add(uuid);
+    }
+    return playerIds;
+  }
+
+  /**
+   * Loads the seeded groups, retried as queries may fail on purpose
+   *
+   * @param groups The group repository
+   * @since 1.0.0
+   */
+  private static void loadGroups(PermissionGroupRepository groups) {
+    for (int attempt = 0; attempt < 10; attempt++) {
+      groups.buildInitialCache().join();
+      // The default group is only known once the groups were loaded
+      if (groups.getDefaultGroup().isPresent()) {
+        return;
+      }
+    }
+    throw new IllegalStateException("Could not load the seeded groups");
+  }
+
+  /**
+   * Creates the permissions checked by the simulated players, hits and misses of every group
+   *
+   * @return The permissions
+   * @since 1.0.0
+   */
+  private static String[] createQueries() {
+    List<String> queries = new ArrayList<>(List.of("sim.chat", "sim.admin", "sim.home.admin"));
+    for (int i = 0; i < 32; i++) {
+      queries.add("sim.home." + i);
+      queries.add("sim.kit." + i);
+      queries.add("sim.edit." + i);
+      queries.add("other.plugin." + i);
+    }
+    return queries.toArray(String[]::new);
+  }
+
+  /**
+   * Prints the throughput and the latency percentiles of every operation
+   *
+   * @param recorders The latencies per operation
+   * @param elapsed The elapsed time in nanoseconds
+   * @param behavior The driver behaviour
+   * @since 1.0.0
+   */
+  private static void report(
+      Map<Operation, LatencyRecorder> recorders, long elapsed, DriverBehavior behavior) {
+    long total = recorders.values().stream().mapToLong(LatencyRecorder::size).sum();
+    double seconds = elapsed / 1e9;
+    System.out.printf(
+        "%d operations in %.2f s, %.0f ops/s%n%n", total, seconds, total / seconds);
+    System.out.printf(
+        "%-17s %10s %8s %10s %10s %10s %10s%n",
+        "operation", "count", "errors", "p50 us", "p90 us", "p99 us", "max us");
+    for (Operation operation : Operation.values()) {
+      LatencyRecorder recorder = recorders.get(operation);
+      // Operations which never ran have no percentiles
+      if (recorder == null) {
+        continue;
+      }
+
+      long[] sorted = recorder.sorted();
+      System.out.printf(
+          "%-17s %10d %8d %10.1f %10.1f %10.1f %10.1f%n",
+          operation.name().toLowerCase(Locale.ROOT),
+          sorted.length,
+          recorder.getErrors(),
+          percentile(sorted, 0.5) / 1e3,
+          percentile(sorted, 0.9) / 1e3,
+          percentile(sorted, 0.99) / 1e3,
+          sorted[sorted.length - 1] / 1e3);
+    }
+    System.out.printf(
+        "%ndriver operations %d, injected failures %d%n",
+        behavior.getOperations(), behavior.getFailures());
+  }
+
+  /**
+   * Returns the nearest-rank percentile of sorted values
+   *
+   * @param sorted The sorted values
+   * @param percentile The percentile between 0 and 1
+   * @return The value
+   * @since 1.0.0
+   */
+  private static long percentile(long[] sorted, double percentile) {
+    int rank = (int) Math.ceil(percentile * sorted.length);
+    return sorted[Math.max(0, rank - 1)];
+  }
+
+  /**
+   * Removes an element in constant time, the order of the list isn't kept
+   *
+   * @param list The list
+   * @param index The index of the element
+   * @param <T> The element type
+   * @return The removed element
+   * @since 1.0.0
+   */
+  private static <T> T removeAt(List<T> list, int index) {
+    T element = list.get(index);
+    list.set(index, list.get(list.size() - 1));
+    list.remove(list.size() - 1);
+    return element;
+  }
+
+  /**
+   * Parses key=value arguments
+   *
+   * @param args The arguments
+   * @return The options
+   * @since 1.0.0
+   */
+  private static Map<String, String> parseOptions(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      String[] option = arg.split("=", 2);
+      // Ignore arguments which aren't options
+      if (option.length != 2) {
+        continue;
+      }
+      options.put(option[0].toLowerCase(Locale.ROOT), option[1]);
+    }
+    return options;
+  }
+
+  /**
+   * Gets a private method and makes it accessible
+   *
+   * @param owner The declaring class
+   * @param name The method name
+   * @param parameterTypes The parameter types
+   * @return The method
+   * @throws NoSuchMethodException If the method doesn't exist
+   * @since 1.0.0
+   */
+  private static Method accessible(Class<?> owner, String name, Class<?>... parameterTypes)
+      throws NoSuchMethodException {
+    Method method = owner.getDeclaredMethod(name, parameterTypes);
+    method.setAccessible(true);
+    return method;
+  }
+
+  /**
+   * The simulated operations with their share of the mix in permille
+   *
+   * @since 1.0.0
+   * @author Lennox
+   */
+  private enum Operation {
+    JOIN(20),
+    QUIT(20),
+    CHAT(300),
+    PERMISSION_CHECK(645),
+    ADMIN_EDIT(10),
+    RANK_EXPIRY(5);
+
+    private final int permille;
+
+    Operation(int permille) {
+      this.permille = permille;
+    }
+
+    /**
+     * Picks the operation for a roll
+     *
+     * @param roll The roll between 0 and 999
+     * @param nobodyOnline Whether none of the players is online
+     * @param nobodyOffline Whether all players are online
+     * @return The operation
+     * @since 1.0.0
+     */
+    private static Operation pick(int roll, boolean nobodyOnline, boolean nobodyOffline) {
+      // Players have to join before they can do anything else
+      if (nobodyOnline) {
+        return JOIN;
+      }
+
+      int bound = 0;
+      for (Operation operation : values()) {
+        bound += operation.permille;
+        if (roll < bound) {
+          // Every player is online already, so someone leaves instead
+          return operation == JOIN && nobodyOffline ? QUIT : operation;
+        }
+      }
+      return PERMISSION_CHECK;
+    }
+  }
+
+  /**
+   * An online player of a worker
+   *
+   * @param uuid The player uuid
+   * @param player The player stub
+   * @param permissible The permissible of the player
+   * @since 1.0.0
+   * @author Lennox
+   */
+  private record SimulatedPlayer(UUID uuid, Player player, SimplePermissibleBase permissible) {}
+
+  /**
+   * Records the latencies of one operation, only used by one thread at a time
+   *
+   * @since 1.0.0
+   * @author Lennox
+   */
+  private static class LatencyRecorder {
+    private long[] latencies = new long[1024];
+    private int size;
+    private long errors;
+
+    /**
+     * Records the latency of an operation
+     *
+     * @param latency The latency in nanoseconds
+     * @param failed Whether the operation threw
+     * @since 1.0.0
+     */
+    private void record(long latency, boolean failed) {
+      if (size == latencies.length) {
+        latencies = Arrays.copyOf(latencies, size * 2);
+      }
+      latencies[size++] = latency;
+      if (failed) {
+        errors++;
+      }
+    }
+
+    /**
+     * Adds all latencies of another recorder
+     *
+     * @param other The other recorder
+     * @since 1.0.0
+     */
+    private void addAll(LatencyRecorder other) {
+      for (int i = 0; i < other.size; i++) {
+        record(other.latencies[i], false);
+      }
+      errors += other.errors;
+    }
+
+    /**
+     * Returns the amount of recorded latencies
+     *
+     * @return The amount
+     * @since 1.0.0
+     */
+    private int size() {
+      return size;
+    }
+
+    /**
+     * Returns the amount of operations which threw
+     *
+     * @return The amount
+     * @since 1.0.0
+     */
+    private long getErrors() {
+      return errors;
+    }
+
+    /**
+     * Returns the recorded latencies in ascending order
+     *
+     * @return The sorted latencies
+     * @since 1.0.0
+     */
+    private long[] sorted() {
+      long[] sorted = Arrays.copyOf(latencies, size);
+      Arrays.sort(sorted);
+      return sorted;
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package de.lennox.permissions.command;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PrefixIndexTests {
+  @Test
+  public void testPrefixLookup() {
+    PrefixIndex index = PrefixIndex.of(List.of("Moderator", "admin", "member", "Builder", "mod"));
+
+    assertEquals(index.startingWith("mod", 10), List.of("mod", "Moderator"));
+    assertEquals(index.startingWith("M", 10), List.of("member", "mod", "Moderator"));
+    assertEquals(index.startingWith("", 10).size(), 5);
+    assertEquals(index.startingWith("x", 10), List.of());
+  }
+
+  @Test
+  public void testLimit() {
+    PrefixIndex index = PrefixIndex.of(List.of("a.b", "a.c", "a.d", "a.b", "b.a"));
+
+    assertEquals(index.size(), 4);
+    assertEquals(index.startingWith("a.", 2), List.of("a.b", "a.c"));
+  }
+
+  @Test
+  public void testConcurrentPrefixLookup() {
+    ConcurrentPrefixIndex index = new ConcurrentPrefixIndex();
+    index.addAll(List.of("Moderator", "admin", "member"));
+    index.addAll(List.of("mod", "MEMBER"));
+
+    assertEquals(index.size(), 4);
+    assertEquals(index.startingWith("M", 10), List.of("MEMBER", "mod", "Moderator"));
+    assertEquals(index.startingWith("mod", 1), List.of("mod"));
+    assertEquals(index.startingWith("x", 10), List.of());
+  }
+}
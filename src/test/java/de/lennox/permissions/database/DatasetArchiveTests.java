@@ -0,0 +1,78 @@
+package de.lennox.permissions.database;
+
+import de.lennox.permissions.database.dataset.DatasetReader;
+import de.lennox.permissions.database.dataset.DatasetWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DatasetArchiveTests {
+
+  @Test
+  public void testSections() throws IOException {
+    // Larger than a single frame to cover frame boundaries
+    byte[] players = new byte[DatasetWriter.FRAME_SIZE * 2 + 17];
+    for (int i = 0; i < players.length; i++) {
+      players[i] = (byte) i;
+    }
+
+    ByteArrayOutputStream archive = new ByteArrayOutputStream();
+    try (DatasetWriter writer = new DatasetWriter(archive)) {
+      writer.beginSection("permission_groups").write(new byte[] {1, 2, 3});
+      writer.beginSection("informative_signs");
+      OutputStream section = writer.beginSection("permitted_players");
+      section.write(players, 0, 100);
+      section.write(players, 100, players.length - 100);
+    }
+
+    ByteArrayInputStream input = new ByteArrayInputStream(archive.toByteArray());
+    try (DatasetReader reader = new DatasetReader(input)) {
+      assertEquals(reader.nextSection(), Optional.of("permission_groups"));
+      assertArrayEquals(reader.sectionStream().readAllBytes(), new byte[] {1, 2, 3});
+      assertEquals(reader.nextSection(), Optional.of("informative_signs"));
+      assertEquals(reader.sectionStream().read(), -1);
+      assertEquals(reader.nextSection(), Optional.of("permitted_players"));
+      assertArrayEquals(reader.sectionStream().readAllBytes(), players);
+      assertEquals(reader.nextSection(), Optional.empty());
+    }
+  }
+
+  @Test
+  public void testSkipUnreadSection() throws IOException {
+    ByteArrayOutputStream archive = new ByteArrayOutputStream();
+    try (DatasetWriter writer = new DatasetWriter(archive)) {
+      writer.beginSection("group_permissions").write(new byte[DatasetWriter.FRAME_SIZE + 1]);
+      writer.beginSection("permission_groups").write(42);
+    }
+
+    ByteArrayInputStream input = new ByteArrayInputStream(archive.toByteArray());
+    try (DatasetReader reader = new DatasetReader(input)) {
+      assertEquals(reader.nextSection(), Optional.of("group_permissions"));
+      reader.sectionStream().read();
+      assertEquals(reader.nextSection(), Optional.of("permission_groups"));
+      assertEquals(reader.sectionStream().read(), 42);
+      assertEquals(reader.nextSection(), Optional.empty());
+    }
+  }
+
+  @Test
+  public void testInvalidArchive() throws IOException {
+    ByteArrayOutputStream archive = new ByteArrayOutputStream();
+    try (OutputStream output = new GZIPOutputStream(archive)) {
+      output.write(new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+    }
+
+    assertThrows(
+        IOException.class,
+        () -> new DatasetReader(new ByteArrayInputStream(archive.toByteArray())));
+  }
+}
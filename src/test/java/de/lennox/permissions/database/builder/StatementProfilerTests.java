@@ -0,0 +1,49 @@
+package de.lennox.permissions.database.builder;
+
+import de.lennox.permissions.database.model.StatementStatistic;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StatementProfilerTests {
+
+  @Test
+  public void testNormalization() {
+    assertEquals(
+        StatementProfiler.normalize("SELECT *\n  FROM informative_signs WHERE (x >> 4) = ?"),
+        "SELECT * FROM informative_signs WHERE (x >> ?) = ?");
+    assertEquals(
+        StatementProfiler.normalize("DELETE FROM t WHERE name = 'it''s' AND id IN (?, ?, ?)"),
+        "DELETE FROM t WHERE name = ? AND id IN (?, ...)");
+    // Digits within identifiers are no literals
+    assertEquals(
+        StatementProfiler.normalize("SELECT md5(name) FROM t2"), "SELECT md5(name) FROM t2");
+  }
+
+  @Test
+  public void testParameterFormatting() {
+    String longValue = "a".repeat(100);
+    assertEquals(
+        StatementProfiler.formatParameters(Arrays.asList("group", 5, null)), "['group', 5, NULL]");
+    assertEquals(
+        StatementProfiler.formatParameters(List.of(longValue)),
+        "['" + "a".repeat(62) + "...");
+  }
+
+  @Test
+  public void testTopStatements() {
+    StatementProfiler profiler = new StatementProfiler(Long.MAX_VALUE);
+    profiler.record("SELECT * FROM a WHERE id = 1", List.of(), 100, 1, false);
+    profiler.record("SELECT * FROM a WHERE id = 2", List.of(), 300, 0, false);
+    profiler.record("SELECT * FROM b", List.of(), 200, 5, true);
+
+    List<StatementStatistic> statements = profiler.getTopStatements(1);
+    assertEquals(statements.size(), 1);
+    assertEquals(
+        statements.get(0),
+        new StatementStatistic("SELECT * FROM a WHERE id = ?", 2, 400, 300, 1, 0));
+  }
+}
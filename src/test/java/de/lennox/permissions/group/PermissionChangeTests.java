@@ -0,0 +1,49 @@
+package de.lennox.permissions.group;
+
+import de.lennox.permissions.database.model.PermissionChange;
+import de.lennox.permissions.database.model.PermissionGroup;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PermissionChangeTests {
+
+  @Test
+  public void testParse() {
+    assertEquals(
+        PermissionChange.parse("+essentials.fly"),
+        Optional.of(new PermissionChange("essentials.fly", false, true)));
+    assertEquals(
+        PermissionChange.parse("-!essentials.*"),
+        Optional.of(new PermissionChange("essentials.*", true, false)));
+    assertEquals(PermissionChange.parse("essentials.fly"), Optional.empty());
+    assertEquals(PermissionChange.parse("+!"), Optional.empty());
+    assertEquals(PermissionChange.parse("-"), Optional.empty());
+  }
+
+  @Test
+  public void testApplyChanges() {
+    PermissionGroup fakeGroup =
+        new PermissionGroup(
+            "Test", "", false, new ArrayList<>(List.of("hello.world")), new ArrayList<>());
+
+    assertTrue(fakeGroup.hasPermission("hello.world"));
+    fakeGroup.applyChanges(
+        List.of(
+            new PermissionChange("hello.world", false, false),
+            new PermissionChange("i.am.a.*", false, true),
+            new PermissionChange("i.am.a.*", false, true),
+            new PermissionChange("i.am.a.secret", true, true)));
+
+    assertFalse(fakeGroup.hasPermission("hello.world"));
+    assertTrue(fakeGroup.hasPermission("i.am.a.test"));
+    assertFalse(fakeGroup.hasPermission("i.am.a.secret"));
+    assertEquals(fakeGroup.getAllowedPermissions(), List.of("i.am.a.*"));
+  }
+}
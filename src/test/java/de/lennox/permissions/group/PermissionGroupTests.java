@@ -1,14 +1,23 @@
 package de.lennox.permissions.group;
 
 import de.lennox.permissions.database.model.PermissionGroup;
+import de.lennox.permissions.permission.PermissionHierarchy;
+import org.bukkit.permissions.PermissionDefault;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class PermissionGroupTests {
+  @AfterEach
+  public void clearHierarchy() {
+    PermissionHierarchy.clear();
+  }
 
   @Test
   public void testSimplePermission() {
@@ -35,4 +44,37 @@ public class PermissionGroupTests {
     assertTrue(fakeGroup.hasPermission("i.am.a.test"));
     assertTrue(fakeGroup.hasPermission("hello.world"));
   }
+
+  @Test
+  public void testMaterializedPermissions() {
+    PermissionGroup fakeGroup =
+        new PermissionGroup("Test", "", false, List.of("i.am.*"), List.of("a.b"));
+    fakeGroup.materialize(List.of("i.am.a.test", "a.b", "not.set"));
+
+    assertEquals(
+        fakeGroup.getStateCache(),
+        Map.of(
+            "i.am.a.test",
+            PermissionGroup.State.ALLOWED,
+            "a.b",
+            PermissionGroup.State.DENIED,
+            "not.set",
+            PermissionGroup.State.UNSET));
+    assertTrue(fakeGroup.isPermissionSet("a.b"));
+    assertFalse(fakeGroup.hasPermission("not.set"));
+  }
+
+  @Test
+  public void testInheritedPermission() {
+    PermissionHierarchy.register(
+        "test.inherit.parent",
+        Map.of("test.inherit.child", true, "test.inherit.other", false),
+        PermissionDefault.FALSE);
+    PermissionGroup fakeGroup =
+        new PermissionGroup("Test", "", false, List.of("test.inherit.parent"), List.of());
+
+    assertTrue(fakeGroup.hasPermission("test.inherit.child"));
+    assertFalse(fakeGroup.hasPermission("test.inherit.other"));
+    assertTrue(fakeGroup.isPermissionSet("test.inherit.other"));
+  }
 }
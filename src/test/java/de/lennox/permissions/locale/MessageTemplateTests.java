@@ -0,0 +1,47 @@
+package de.lennox.permissions.locale;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.IllegalFormatConversionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MessageTemplateTests {
+
+  @Test
+  public void testSequentialArguments() {
+    MessageTemplate template = MessageTemplate.compile("Your rank is %s and expires at %s!");
+
+    assertEquals(
+        template.render("admin", "01.01.2023"), "Your rank is admin and expires at 01.01.2023!");
+    assertEquals(template.render("admin"), "Your rank is admin and expires at null!");
+  }
+
+  @Test
+  public void testIndexedArguments() {
+    MessageTemplate template = MessageTemplate.compile("%2$s before %1$s, %d left");
+
+    assertEquals(template.render(3, "b"), "b before 3, 3 left");
+    assertEquals(MessageTemplate.compile("%d%%").render(50), "50%");
+  }
+
+  @Test
+  public void testFormatFallback() {
+    MessageTemplate template = MessageTemplate.compile("%.2f ms");
+
+    assertEquals(template.render(1.5), String.format("%.2f ms", 1.5));
+    assertEquals(MessageTemplate.compile("plain").render(), "plain");
+    assertEquals(MessageTemplate.literal("100%").render("ignored"), "100%");
+  }
+
+  @Test
+  public void testIntegralArguments() {
+    MessageTemplate template = MessageTemplate.compile("%s has %d members");
+
+    assertEquals(template.render("admin", 5L), "admin has 5 members");
+    assertEquals(template.render("admin"), "admin has null members");
+    assertThrows(IllegalFormatConversionException.class, () -> template.render("admin", "5"));
+    assertThrows(IllegalFormatConversionException.class, () -> template.render("admin", 5.0));
+  }
+}
@@ -0,0 +1,55 @@
+package de.lennox.permissions.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FrequencySketchTests {
+
+  @Test
+  public void testHeavyHitters() {
+    FrequencySketch sketch = new FrequencySketch("test", "Test", 1 << 10, 3, 1 << 20, 1);
+    for (int i = 0; i < 1000; i++) {
+      sketch.increment("node." + i);
+      sketch.increment("hot.first");
+      if (i % 2 == 0) {
+        sketch.increment("hot.second");
+      }
+    }
+
+    assertTrue(sketch.estimate("hot.first") >= 1000);
+    assertTrue(sketch.estimate("unknown.node") < 10);
+    List<Map.Entry<String, Long>> heavyHitters = sketch.getHeavyHitters(2);
+    assertEquals(heavyHitters.get(0).getKey(), "hot.first");
+    assertEquals(heavyHitters.get(1).getKey(), "hot.second");
+  }
+
+  @Test
+  public void testAging() {
+    FrequencySketch sketch = new FrequencySketch("test", "Test", 1 << 10, 3, 100, 1);
+    for (int i = 0; i < 100; i++) {
+      sketch.increment("node");
+    }
+
+    assertEquals(sketch.estimate("node"), 50L);
+    assertEquals(sketch.getHeavyHitters(1).get(0).getValue(), 50L);
+  }
+
+  @Test
+  public void testSampling() {
+    FrequencySketch sketch = new FrequencySketch("test", "Test", 1 << 10, 3, 1 << 20, 16);
+    for (int i = 0; i < 16_000; i++) {
+      sketch.increment("node");
+    }
+
+    // One in 16 checks is counted, the estimate is scaled back up
+    long estimate = sketch.estimate("node");
+    assertTrue(estimate > 12_000 && estimate < 20_000);
+    assertEquals(estimate % 16, 0L);
+    assertEquals(sketch.getHeavyHitters(1).get(0).getValue(), estimate);
+  }
+}
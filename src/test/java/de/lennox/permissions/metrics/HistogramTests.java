@@ -0,0 +1,47 @@
+package de.lennox.permissions.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HistogramTests {
+
+  @Test
+  public void testBucketBounds() {
+    for (long value : new long[] {0, 7, 8, 9, 15, 16, 1_000, 123_456_789, Long.MAX_VALUE}) {
+      int index = Histogram.bucketIndex(value);
+      assertTrue(Histogram.bucketUpperBound(index) >= value);
+      // The bucket before ends below the value
+      assertTrue(index == 0 || Histogram.bucketUpperBound(index - 1) < value);
+    }
+    assertEquals(Histogram.bucketUpperBound(Histogram.bucketIndex(Long.MAX_VALUE)), Long.MAX_VALUE);
+  }
+
+  @Test
+  public void testQuantiles() {
+    Histogram histogram = new Histogram("test", "Test");
+    for (long i = 1; i <= 1000; i++) {
+      histogram.record(i * 1_000);
+    }
+
+    assertEquals(histogram.getCount(), 1000L);
+    assertEquals(histogram.getMax(), 1_000_000L);
+    long median = histogram.getValueAtQuantile(0.5);
+    // Buckets are accurate to an eighth of the value
+    assertTrue(median >= 500_000 && median <= 500_000 * 9 / 8);
+    assertEquals(histogram.getValueAtQuantile(1), 1_000_000L);
+  }
+
+  @Test
+  public void testPrometheusFormat() {
+    MetricsRegistry registry = new MetricsRegistry();
+    registry.counter("test_total", "Test counter").add(3);
+    registry.histogram("test_seconds", "Test histogram").record(2_000_000_000L);
+
+    String output = registry.writePrometheus();
+    assertTrue(output.contains("# TYPE test_total counter\ntest_total 3\n"));
+    assertTrue(output.contains("test_seconds_count 1\n"));
+    assertTrue(output.contains("test_seconds_sum 2.0\n"));
+  }
+}
@@ -0,0 +1,51 @@
+package de.lennox.permissions.permission;
+
+import org.bukkit.permissions.PermissionDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PermissionHierarchyTests {
+  @AfterEach
+  public void clearHierarchy() {
+    PermissionHierarchy.clear();
+  }
+
+  @Test
+  public void testDefaults() {
+    PermissionHierarchy.register("test.defaults.op", Map.of(), PermissionDefault.OP);
+    PermissionHierarchy.register(
+        "test.defaults.kit",
+        Map.of("test.defaults.kit.food", true, "Test.Defaults.Kit.Tools", false),
+        PermissionDefault.TRUE);
+
+    assertEquals(PermissionHierarchy.hasDefaultPermission("test.defaults.op", true), true);
+    assertEquals(PermissionHierarchy.hasDefaultPermission("test.defaults.op", false), false);
+    assertEquals(PermissionHierarchy.hasDefaultPermission("test.defaults.kit.food", false), true);
+    assertEquals(PermissionHierarchy.hasDefaultPermission("test.defaults.kit.tools", false), false);
+    assertEquals(
+        PermissionHierarchy.isDefaultPermissionSet("test.defaults.kit.tools", false), true);
+    // Unregistered permissions are granted to operators only
+    assertEquals(PermissionHierarchy.isDefaultPermissionSet("test.defaults.unknown", true), false);
+    assertEquals(PermissionHierarchy.hasDefaultPermission("test.defaults.unknown", true), true);
+  }
+
+  @Test
+  public void testRegistrationChanges() {
+    Map<String, Boolean> children = Map.of("test.changes.child", true);
+    assertEquals(
+        PermissionHierarchy.register("test.changes", children, PermissionDefault.FALSE), true);
+    assertEquals(
+        PermissionHierarchy.register("test.changes", children, PermissionDefault.FALSE), false);
+    assertEquals(
+        PermissionHierarchy.getDescendants("test.changes"),
+        Set.of("test.changes", "test.changes.child"));
+
+    PermissionHierarchy.register("test.changes", Map.of(), PermissionDefault.FALSE);
+    assertEquals(PermissionHierarchy.getParents("test.changes.child"), Map.of());
+  }
+}
@@ -0,0 +1,39 @@
+package de.lennox.permissions.permission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PermissionNodeIndexTests {
+  @Test
+  public void testPrefixQuery() {
+    PermissionNodeIndex index = new PermissionNodeIndex();
+    index.addAll(List.of("essentials.fly", "essentials.home", "Essentials.Home", "worldedit.wand"));
+
+    assertEquals(index.size(), 3);
+    assertEquals(index.find("ess", 10), List.of("essentials.fly", "essentials.home"));
+    assertEquals(index.find("essentials.h", 10), List.of("essentials.home"));
+    assertEquals(index.find("", 1), List.of("essentials.fly"));
+  }
+
+  @Test
+  public void testWildcardQuery() {
+    PermissionNodeIndex index = new PermissionNodeIndex();
+    index.addAll(List.of("essentials.fly", "essentials.home.other", "worldedit.home", "a.*"));
+
+    assertEquals(index.size(), 3);
+    assertEquals(index.find("*.home*", 10), List.of("essentials.home.other", "worldedit.home"));
+    assertEquals(index.isKnown("essentials.*"), true);
+    assertEquals(index.isKnown("essentials.fy"), false);
+  }
+
+  @Test
+  public void testWildcardMatching() {
+    assertEquals(PermissionNodeIndex.matchesWildcard("a.b.c", "a.*.c"), true);
+    assertEquals(PermissionNodeIndex.matchesWildcard("a.c", "a.*.c"), false);
+    assertEquals(PermissionNodeIndex.matchesWildcard("a.b", "a.b"), true);
+    assertEquals(PermissionNodeIndex.matchesWildcard("a.bc", "a.b"), false);
+  }
+}
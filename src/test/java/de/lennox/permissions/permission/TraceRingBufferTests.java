@@ -0,0 +1,36 @@
+package de.lennox.permissions.permission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TraceRingBufferTests {
+  @Test
+  public void testDrainInOrder() {
+    TraceRingBuffer<Integer> buffer = new TraceRingBuffer<>(4);
+    buffer.publish(1);
+    buffer.publish(2);
+    buffer.publish(3);
+
+    List<Integer> drained = new ArrayList<>();
+    assertEquals(buffer.drain(drained::add), 0L);
+    assertEquals(drained, List.of(1, 2, 3));
+    assertEquals(buffer.drain(drained::add), 0L);
+    assertEquals(drained.size(), 3);
+  }
+
+  @Test
+  public void testDropOverwritten() {
+    TraceRingBuffer<Integer> buffer = new TraceRingBuffer<>(4);
+    for (int i = 0; i < 10; i++) {
+      buffer.publish(i);
+    }
+
+    List<Integer> drained = new ArrayList<>();
+    assertEquals(buffer.drain(drained::add), 6L);
+    assertEquals(drained, List.of(6, 7, 8, 9));
+  }
+}
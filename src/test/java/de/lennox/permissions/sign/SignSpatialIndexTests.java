@@ -0,0 +1,56 @@
+package de.lennox.permissions.sign;
+
+import de.lennox.permissions.database.model.InformativeSign;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SignSpatialIndexTests {
+
+  @Test
+  public void testExactLookup() {
+    SignSpatialIndex index = new SignSpatialIndex();
+    InformativeSign sign = new InformativeSign(10, 64, -20, "world");
+    index.add(sign);
+
+    assertEquals(index.get("world", 10, 64, -20), Optional.of(sign));
+    assertTrue(index.get("world", 10, 65, -20).isEmpty());
+    assertTrue(index.get("world_nether", 10, 64, -20).isEmpty());
+  }
+
+  @Test
+  public void testChunkKeys() {
+    assertNotEquals(SignSpatialIndex.chunkKey(1, 0), SignSpatialIndex.chunkKey(0, 1));
+    assertNotEquals(SignSpatialIndex.chunkKey(-1, 0), SignSpatialIndex.chunkKey(0, -1));
+  }
+
+  @Test
+  public void testNearbyLookup() {
+    SignSpatialIndex index = new SignSpatialIndex();
+    InformativeSign near = new InformativeSign(-5, 64, 5, "world");
+    InformativeSign far = new InformativeSign(500, 64, 500, "world");
+    index.add(near);
+    index.add(far);
+
+    assertEquals(index.getNearby("world", 0, 0, 32), List.of(near));
+    assertEquals(index.getChunk("world", 31, 31), List.of(far));
+  }
+
+  @Test
+  public void testRemoval() {
+    SignSpatialIndex index = new SignSpatialIndex();
+    InformativeSign sign = new InformativeSign(1, 2, 3, "world");
+    index.add(sign);
+    index.add(sign);
+
+    assertEquals(index.size(), 1);
+    assertEquals(index.remove("world", 1, 2, 3), Optional.of(sign));
+    assertEquals(index.size(), 0);
+    assertTrue(index.remove("world", 1, 2, 3).isEmpty());
+  }
+}
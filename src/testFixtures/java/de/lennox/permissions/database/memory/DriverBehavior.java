@@ -0,0 +1,123 @@
+package de.lennox.permissions.database.memory;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Simulates the behaviour of a remote database for the in-memory drivers.
+ *
+ * <p>Every operation runs on a thread pool like the real drivers, waits for a random latency
+ * between the configured bounds and fails with the configured probability. Failed queries complete
+ * like failed queries of the real drivers, with an empty optional or false.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+public class DriverBehavior {
+  private final ExecutorService databaseThreadPool = Executors.newCachedThreadPool();
+  private final LongAdder operations = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final long minLatencyNanos;
+  private final long maxLatencyNanos;
+  private final double failureRate;
+
+  /**
+   * Creates a new behaviour
+   *
+   * @param minLatency The minimum latency of an operation
+   * @param maxLatency The maximum latency of an operation
+   * @param unit The unit of the latencies
+   * @param failureRate The probability of an operation to fail, between 0 and 1
+   * @since 1.0.0
+   */
+  public DriverBehavior(long minLatency, long maxLatency, TimeUnit unit, double failureRate) {
+    this.minLatencyNanos = unit.toNanos(minLatency);
+    this.maxLatencyNanos = Math.max(minLatencyNanos, unit.toNanos(maxLatency));
+    this.failureRate = failureRate;
+  }
+
+  /**
+   * Creates a behaviour without latency and failures
+   *
+   * @return The behaviour
+   * @since 1.0.0
+   */
+  public static DriverBehavior instant() {
+    return new DriverBehavior(0, 0, TimeUnit.NANOSECONDS, 0);
+  }
+
+  /**
+   * Runs a query after the simulated latency
+   *
+   * @param query The query
+   * @param <T> The result type
+   * @return The future optional result, empty if the query failed
+   * @since 1.0.0
+   */
+  public <T> CompletableFuture<Optional<T>> query(Supplier<T> query) {
+    return CompletableFuture.supplyAsync(
+        () -> roundTrip() ? Optional.ofNullable(query.get()) : Optional.empty(),
+        databaseThreadPool);
+  }
+
+  /**
+   * Runs a data modifying operation after the simulated latency
+   *
+   * @param update The update, returns whether it succeeded
+   * @return The future success state
+   * @since 1.0.0
+   */
+  public CompletableFuture<Boolean> update(Supplier<Boolean> update) {
+    return CompletableFuture.supplyAsync(() -> roundTrip() && update.get(), databaseThreadPool);
+  }
+
+  /**
+   * Returns the amount of operations executed so far
+   *
+   * @return The amount of operations
+   * @since 1.0.0
+   */
+  public long getOperations() {
+    return operations.sum();
+  }
+
+  /**
+   * Returns the amount of operations which failed on purpose so far
+   *
+   * @return The amount of failures
+   * @since 1.0.0
+   */
+  public long getFailures() {
+    return failures.sum();
+  }
+
+  /**
+   * Waits for the simulated latency and decides whether the operation fails
+   *
+   * @return Whether the operation succeeds
+   * @since 1.0.0
+   */
+  private boolean roundTrip() {
+    operations.increment();
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    if (maxLatencyNanos > 0) {
+      LockSupport.parkNanos(
+          minLatencyNanos == maxLatencyNanos
+              ? minLatencyNanos
+              : random.nextLong(minLatencyNanos, maxLatencyNanos));
+    }
+    // Failures are decided after the latency, like a timeout of a real database
+    if (failureRate > 0 && random.nextDouble() < failureRate) {
+      failures.increment();
+      return false;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,540 @@
+package de.lennox.permissions.database.memory;
+
+import de.lennox.permissions.database.PermissionDriver;
+import de.lennox.permissions.database.model.GroupStatistic;
+import de.lennox.permissions.database.model.PermissionChange;
+import de.lennox.permissions.database.model.PermissionGroup;
+import de.lennox.permissions.database.model.PermittedPlayer;
+import net.minecraft.util.Tuple;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Permission driver which keeps all groups and players in memory, used to run the plugin without a
+ * database.
+ *
+ * <p>Like a database, the driver hands out copies, so changes to returned groups and players are
+ * not persisted. Latency and failures are simulated by the {@link DriverBehavior}.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+public class InMemoryPermissionDriver implements PermissionDriver {
+  private final Map<String, PermissionGroup> groups = new HashMap<>();
+  private final Map<UUID, PermittedPlayer> players = new HashMap<>();
+  private final DriverBehavior behavior;
+
+  /**
+   * Creates a new in-memory permission driver
+   *
+   * @param behavior The simulated database behaviour
+   * @since 1.0.0
+   */
+  public InMemoryPermissionDriver(DriverBehavior behavior) {
+    this.behavior = behavior;
+  }
+
+  /**
+   * Stores a group directly without the simulated behaviour, used to seed the driver
+   *
+   * @param group The group
+   * @since 1.0.0
+   */
+  public void putGroup(PermissionGroup group) {
+    synchronized (groups) {
+      groups.put(group.getName(), copyOf(group));
+    }
+  }
+
+  /**
+   * Stores a player directly without the simulated behaviour, used to seed the driver
+   *
+   * @param player The player
+   * @since 1.0.0
+   */
+  public void putPlayer(PermittedPlayer player) {
+    synchronized (players) {
+      players.put(player.getUuid(), copyOf(player));
+    }
+  }
+
+  /**
+   * Queries a player by his uuid
+   *
+   * @param uuid The player uuid
+   * @return The future optional permitted player
+   * @since 1.0.0
+   */
+  @Override
+  public CompletableFuture<Optional<PermittedPlayer>> queryPlayerById(UUID uuid) {
+    return behavior.query(
+        () -> {
+          synchronized (players) {
+            PermittedPlayer player = players.get(uuid);
+            return player != null ? copyOf(player) : null;
+          }
+        });
+  }
+
+  /**
+   * Queries the uuid of a player by the last known name, case-insensitive
+   *
+   * @param name The player name
+   * @return The future optional player uuid
+   * @since 1.0.0
+   */
+  @Override
+  public CompletableFuture<Optional<UUID>> queryPlayerIdByName(String name) {
+    return behavior.query(
+        () -> {
+          synchronized (players) {
+            for (PermittedPlayer player : players.values()) {
+              if (name.equalsIgnoreCase(player.getName())) {
+                return player.getUuid();
+              }
+            }
+            return null;
+          }
+        });
+  }
+
+  /**
+   * Queries the last known names of players, at most the given amount
+   *
+   * @param limit The maximum amount of names
+   * @return The future optional list of player names
+   * @since 1.0.0
+   */
+  @Override
+  public CompletableFuture<Optional<List<String>>> queryPlayerNames(int limit) {
+    return behavior.query(
+        () -> {
+          synchronized (players) {
+            List<String> names = new ArrayList<>();
+            for (PermittedPlayer player : players.values()) {
+              if (player.getName() != null && names.size() < limit) {
+                names.add(player.getName());
+              }
+            }
+            return names;
+          }
+        });
+  }
+
+  /**
+   * Queries a page of the players assigned to a group, ordered by uuid
+   *
+   * @param group The group name
+   * @param afterId The uuid of the last player of the previous page, empty for the first page
+   * @param limit The maximum amount of players
+   * @return The future optional list of players
+   * @since 1.0.0
+   */
+  @Override
+  public CompletableFuture<Optional<List<PermittedPlayer>>> queryGroupMembers(
+      String group, String afterId, int limit) {
+    return behavior.query(
+        () -> {
+          List<PermittedPlayer> members = new ArrayList<>();
+          for (PermittedPlayer member : membersAfter(group, afterId)) {
+            if (members.size() == limit) {
+              break;
+            }
+            members.add(member);
+          }
+          return members;
+        });
+  }
+
+  /**
+   * Queries the uuid of the player assigned to a group which is the given amount of players after
+   * the given uuid
+   *
+   * @param group The group name
+   * @param afterId The uuid to start from, empty to start with the first player
+   * @param skip The amount of players to skip
+   * @return The future optional uuid, empty if there are not enough players
+   * @since 1.0.0
+   */
+  @Override
+  public CompletableFuture<Optional<String>> queryGroupMemberCursor(
+      String group, String afterId, int skip) {
+    return behavior.query(
+        () -> {
+          List<PermittedPlayer> members = membersAfter(group, afterId);
+          return skip < members.size() ? members.get(skip).getUuid().toString() : null;
+        });
+  }
+
+  /**
+   * Queries the amount of players holding each group
+   *
+   * @return The future optional list of group statistics
+   * @since 1.0.0
+   */
+  @Override
+  public CompletableFuture<Optional<List<GroupStatistic>>> queryGroupStatistics() {
+    return behavior.query(
+        () -> {
+          Map<String, long[]> counts = new TreeMap<>();
+          synchronized (players) {
+            for (PermittedPlayer player : players.values()) {
+              long[] count = counts.computeIfAbsent(player.getGroup(), group -> new long[2]);
+              count[0]++;
+              if (player.getExpiresAt() != -1) {
+                count[1]++;
+              }
+            }
+          }
+          List<GroupStatistic> statistics = new ArrayList<>();
+          counts.forEach(
+              (group, count) -> statistics.add(new GroupStatistic(group, count[0], count[1])));
+          return statistics;
+        });
+  }
+
+  /**
+   * Queries all groups
+   *
+   * @return The future optional list of permission groups
+   * @since 1.0.0
+   */
+  @Override
+  public CompletableFuture<Optional<List<PermissionGroup>>> queryAllGroups() {
+    return behavior.query(
+        () -> {
+          synchronized (groups) {
+            return groups.values().stream().map(this::copyOf).toList();
+          }
+        });
+  }
+
+  /**
+   * Queries a group by its name
+   *
+   * @param name The name
+   * @return The future optional permission group
+   * @since 1.0.0
+   */
+  @Override
+  public CompletableFuture<Optional<PermissionGroup>> queryGroupByName(String name) {
+    return behavior.query(
+        () -> {
+          synchronized (groups) {
+            PermissionGroup group = groups.get(name);
+            return group != null ? copyOf(group) : null;
+          }
+        });
+  }
+
+  /**
+   * Queries the permissions of a given group
+   *
+   * @param name The name
+   * @return Tuple which contains Object A (list of allowed permissions) and Object B (list of
+   *     denied permissions)
+   * @since 1.0.0
+   */
+  @Override
+  public CompletableFuture<Optional<Tuple<List<String>, List<String>>>> queryGroupPermissions(
+      String name) {
+    return behavior.query(
+        () -> {
+          synchronized (groups) {
+            PermissionGroup group = groups.get(name);
+            return group == null
+                ? new Tuple<>(new ArrayList<>(), new ArrayList<>())
+                : new Tuple<>(
+                    new ArrayList<>(group.getAllowedPermissions()),
+                    new ArrayList<>(group.getDeniedPermissions()));
+          }
+        });
+  }
+
+  /**
+   * Creates a new group with the given name
+   *
+   * @param name The name
+   * @since 1.0.0
+   */
+  @Override
+  public void createGroup(String name) {
+    updateGroups(
+        () ->
+            groups.putIfAbsent(
+                    name,
+                    new PermissionGroup(name, "", false, new ArrayList<>(), new ArrayList<>()))
+                == null);
+  }
+
+  /**
+   * Sets the default state for a group, all other groups lose their default state
+   *
+   * @param name The name
+   * @since 1.0.0
+   */
+  @Override
+  public void makeGroupDefault(String name) {
+    updateGroups(
+        () -> {
+          groups.values().forEach(group -> group.setDefaultGroup(group.getName().equals(name)));
+          return true;
+        });
+  }
+
+  /**
+   * Adds a permission to a group
+   *
+   * @param name The group name
+   * @param permission The permission
+   * @param denied Whether the permission is denied
+   * @since 1.0.0
+   */
+  @Override
+  public void addPermissionToGroup(String name, String permission, boolean denied) {
+    applyPermissionChanges(name, List.of(new PermissionChange(permission, denied, true)));
+  }
+
+  /**
+   * Removes a permission from a group
+   *
+   * @param name The group name
+   * @param permission The permission
+   * @param denied Whether the permission is denied
+   * @since 1.0.0
+   */
+  @Override
+  public void removePermissionFromGroup(String name, String permission, boolean denied) {
+    applyPermissionChanges(name, List.of(new PermissionChange(permission, denied, false)));
+  }
+
+  /**
+   * Applies multiple permission changes to a group at once
+   *
+   * @param name The group name
+   * @param changes The permission changes
+   * @return The future success state
+   * @since 1.0.0
+   */
+  @Override
+  public CompletableFuture<Boolean> applyPermissionChanges(
+      String name, List<PermissionChange> changes) {
+    return updateGroups(
+        () -> {
+          PermissionGroup group = groups.get(name);
+          if (group != null) {
+            group.applyChanges(changes);
+          }
+          return true;
+        });
+  }
+
+  /**
+   * Deletes a group
+   *
+   * @param name The name
+   * @since 1.0.0
+   */
+  @Override
+  public void deleteGroup(String name) {
+    updateGroups(() -> groups.remove(name) != null);
+  }
+
+  /**
+   * Updates the prefix of a group
+   *
+   * @param name The name
+   * @param prefix The prefix
+   * @since 1.0.0
+   */
+  @Override
+  public void updateGroupPrefix(String name, String prefix) {
+    updateGroups(
+        () -> {
+          PermissionGroup group = groups.get(name);
+          if (group != null) {
+            group.setPrefix(prefix);
+          }
+          return group != null;
+        });
+  }
+
+  /**
+   * Creates a new player without group
+   *
+   * @param uuid The player uuid
+   * @return The future permitted player
+   * @since 1.0.0
+   */
+  @Override
+  public CompletableFuture<PermittedPlayer> createPermittedPlayer(UUID uuid) {
+    return updatePlayers(
+            () -> players.putIfAbsent(uuid, new PermittedPlayer(uuid, "", -1)) == null)
+        .thenApply(success -> new PermittedPlayer(uuid, "", -1));
+  }
+
+  /**
+   * Updates a players permission group for the given time
+   *
+   * @param uuid The player uuid
+   * @param name The group name
+   * @param time The expiration date as UNIX timestamp
+   * @since 1.0.0
+   */
+  @Override
+  public void updatePlayerGroup(UUID uuid, String name, long time) {
+    updatePlayer(
+        uuid,
+        player -> {
+          player.setGroup(name);
+          player.setExpiresAt(time);
+        });
+  }
+
+  /**
+   * Updates the selected language of a player
+   *
+   * @param uuid The player uuid
+   * @param language The language or null
+   * @since 1.0.0
+   */
+  @Override
+  public void updatePlayerLanguage(UUID uuid, String language) {
+    updatePlayer(uuid, player -> player.setLanguage(language));
+  }
+
+  /**
+   * Updates the last known name of a player, other players lose this name
+   *
+   * @param uuid The player uuid
+   * @param name The player name
+   * @since 1.0.0
+   */
+  @Override
+  public void updatePlayerName(UUID uuid, String name) {
+    updatePlayers(
+        () -> {
+          for (PermittedPlayer player : players.values()) {
+            if (name.equalsIgnoreCase(player.getName())) {
+              player.setName(null);
+            }
+          }
+          PermittedPlayer player = players.get(uuid);
+          if (player != null) {
+            player.setName(name);
+          }
+          return player != null;
+        });
+  }
+
+  /**
+   * Returns all members of a group after the given uuid, ordered by uuid
+   *
+   * @param group The group name
+   * @param afterId The uuid to start after
+   * @return The members
+   * @since 1.0.0
+   */
+  private List<PermittedPlayer> membersAfter(String group, String afterId) {
+    synchronized (players) {
+      return players.values().stream()
+          .filter(player -> player.getGroup().equals(group))
+          .filter(player -> player.getUuid().toString().compareTo(afterId) > 0)
+          .sorted(Comparator.comparing(player -> player.getUuid().toString()))
+          .map(this::copyOf)
+          .toList();
+    }
+  }
+
+  /**
+   * Runs a modification of the stored groups
+   *
+   * @param update The modification
+   * @return The future success state
+   * @since 1.0.0
+   */
+  private CompletableFuture<Boolean> updateGroups(Supplier<Boolean> update) {
+    return behavior.update(
+        () -> {
+          synchronized (groups) {
+            return update.get();
+          }
+        });
+  }
+
+  /**
+   * Runs a modification of the stored players
+   *
+   * @param update The modification
+   * @return The future success state
+   * @since 1.0.0
+   */
+  private CompletableFuture<Boolean> updatePlayers(Supplier<Boolean> update) {
+    return behavior.update(
+        () -> {
+          synchronized (players) {
+            return update.get();
+          }
+        });
+  }
+
+  /**
+   * Runs a modification of a stored player, nothing happens if the player doesn't exist
+   *
+   * @param uuid The player uuid
+   * @param update The modification
+   * @since 1.0.0
+   */
+  private void updatePlayer(UUID uuid, Consumer<PermittedPlayer> update) {
+    updatePlayers(
+        () -> {
+          PermittedPlayer player = players.get(uuid);
+          if (player != null) {
+            update.accept(player);
+          }
+          return player != null;
+        });
+  }
+
+  /**
+   * Copies a stored group, so callers can't modify it
+   *
+   * @param group The stored group
+   * @return The copy
+   * @since 1.0.0
+   */
+  private PermissionGroup copyOf(PermissionGroup group) {
+    return new PermissionGroup(
+        group.getName(),
+        group.getPrefix(),
+        group.isDefaultGroup(),
+        new ArrayList<>(group.getAllowedPermissions()),
+        new ArrayList<>(group.getDeniedPermissions()));
+  }
+
+  /**
+   * Copies a stored player, so callers can't modify it
+   *
+   * @param player The stored player
+   * @return The copy
+   * @since 1.0.0
+   */
+  private PermittedPlayer copyOf(PermittedPlayer player) {
+    return new PermittedPlayer(
+        player.getUuid(),
+        player.getGroup(),
+        player.getExpiresAt(),
+        player.getLanguage(),
+        player.getName());
+  }
+}
@@ -0,0 +1,102 @@
+package de.lennox.permissions.database.memory;
+
+import de.lennox.permissions.database.SignDriver;
+import de.lennox.permissions.database.model.InformativeSign;
+import de.lennox.permissions.sign.SignSpatialIndex;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sign driver which keeps all signs in memory, used to run the plugin without a database
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+public class InMemorySignDriver implements SignDriver {
+  private final Set<InformativeSign> signs = ConcurrentHashMap.newKeySet();
+  private final DriverBehavior behavior;
+
+  /**
+   * Creates a new in-memory sign driver
+   *
+   * @param behavior The simulated database behaviour
+   * @since 1.0.0
+   */
+  public InMemorySignDriver(DriverBehavior behavior) {
+    this.behavior = behavior;
+  }
+
+  /**
+   * Queries the keys of all chunks of a world which contain informative signs
+   *
+   * @param world The world name
+   * @return The future optional set of chunk keys
+   * @since 1.0.0
+   */
+  @Override
+  public CompletableFuture<Optional<LongSet>> querySignChunks(String world) {
+    return behavior.query(
+        () -> {
+          LongSet chunks = new LongOpenHashSet();
+          for (InformativeSign sign : signs) {
+            if (sign.getWorld().equals(world)) {
+              chunks.add(SignSpatialIndex.chunkKey(sign.getChunkX(), sign.getChunkZ()));
+            }
+          }
+          return chunks;
+        });
+  }
+
+  /**
+   * Queries the informative signs in a chunk
+   *
+   * @param world The world name
+   * @param chunkX The chunk x coordinate
+   * @param chunkZ The chunk z coordinate
+   * @return The future optional list of signs
+   * @since 1.0.0
+   */
+  @Override
+  public CompletableFuture<Optional<List<InformativeSign>>> querySignsInChunk(
+      String world, int chunkX, int chunkZ) {
+    return behavior.query(
+        () -> {
+          List<InformativeSign> chunkSigns = new ArrayList<>();
+          for (InformativeSign sign : signs) {
+            if (sign.getWorld().equals(world)
+                && sign.getChunkX() == chunkX
+                && sign.getChunkZ() == chunkZ) {
+              chunkSigns.add(sign);
+            }
+          }
+          return chunkSigns;
+        });
+  }
+
+  /**
+   * Persists created and deleted informative signs
+   *
+   * @param created The created signs
+   * @param deleted The deleted signs
+   * @return The future success state
+   * @since 1.0.0
+   */
+  @Override
+  public CompletableFuture<Boolean> persistSigns(
+      Collection<InformativeSign> created, Collection<InformativeSign> deleted) {
+    return behavior.update(
+        () -> {
+          signs.removeAll(deleted);
+          signs.addAll(created);
+          return true;
+        });
+  }
+}
@@ -0,0 +1,211 @@
+package de.lennox.permissions.fixture;
+
+import de.lennox.permissions.PlayerPermissionPlugin;
+import de.lennox.permissions.command.CommandRegistrar;
+import de.lennox.permissions.command.CommandSuggestionIndex;
+import de.lennox.permissions.database.PermissionDriver;
+import de.lennox.permissions.database.SignDriver;
+import de.lennox.permissions.group.GroupMemberPages;
+import de.lennox.permissions.group.PermissionGroupRepository;
+import de.lennox.permissions.permission.PermissionNodeIndex;
+import de.lennox.permissions.permission.VerboseTracer;
+import de.lennox.permissions.player.PermittedPlayerRepository;
+import de.lennox.permissions.sign.AutomaticSignTextUpdater;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.java.JavaPluginLoader;
+import org.bukkit.scheduler.BukkitScheduler;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Runs the plugin repositories outside of a server.
+ *
+ * <p>The plugin instance is created with the constructor bukkit offers for plugins outside of the
+ * server class loader, and the bukkit server is replaced by a stub which answers every call with an
+ * empty value, scheduled tasks never run. Only the repositories which don't need a
+ * database are created, drivers are installed separately.
+ *
+ * @since 1.0.0
+ * @author Lennox
+ */
+public class PluginFixture {
+  private static final Map<Class<?>, Object> PRIMITIVE_DEFAULTS =
+      Map.of(
+          boolean.class, false,
+          byte.class, (byte) 0,
+          short.class, (short) 0,
+          char.class, '\0',
+          int.class, 0,
+          long.class, 0L,
+          float.class, 0F,
+          double.class, 0D);
+  private static PlayerPermissionPlugin plugin;
+
+  /**
+   * Installs the plugin and server stubs once and returns the plugin
+   *
+   * @return The plugin
+   * @since 1.0.0
+   */
+  public static synchronized PlayerPermissionPlugin install() {
+    // Bukkit only accepts one server per runtime
+    if (plugin != null) {
+      return plugin;
+    }
+
+    Bukkit.setServer(
+        stub(
+            Server.class,
+            (proxy, method, args) ->
+                switch (method.getName()) {
+                  case "getLogger" -> Logger.getLogger("PluginFixture");
+                  case "getPluginManager" -> stub(PluginManager.class, null);
+                  case "getScheduler" -> stub(BukkitScheduler.class, null);
+                  case "getName", "getVersion", "getBukkitVersion" -> "fixture";
+                  default -> defaultValue(method.getReturnType());
+                }));
+
+    plugin = create();
+    setField(PlayerPermissionPlugin.class, null, "singleton", plugin);
+    setField(
+        PlayerPermissionPlugin.class, plugin, "groupRepository", new PermissionGroupRepository());
+    setField(
+        PlayerPermissionPlugin.class, plugin, "playerRepository", new PermittedPlayerRepository());
+    setField(
+        PlayerPermissionPlugin.class, plugin, "suggestionIndex", new CommandSuggestionIndex());
+    setField(
+        PlayerPermissionPlugin.class, plugin, "permissionNodeIndex", new PermissionNodeIndex());
+    setField(PlayerPermissionPlugin.class, plugin, "verboseTracer", new VerboseTracer());
+    setField(PlayerPermissionPlugin.class, plugin, "memberPages", new GroupMemberPages());
+    setField(
+        PlayerPermissionPlugin.class,
+        plugin,
+        "signTextUpdater",
+        new AutomaticSignTextUpdater(40, TimeUnit.MILLISECONDS.toNanos(1)));
+    setField(
+        PlayerPermissionPlugin.class, plugin, "commandRegistrar", new CommandRegistrar(plugin));
+    return plugin;
+  }
+
+  /**
+   * Installs the drivers used by the repositories, the plugin has to be installed first
+   *
+   * @param permissionDriver The permission driver
+   * @param signDriver The sign driver
+   * @since 1.0.0
+   */
+  public static void installDrivers(PermissionDriver permissionDriver, SignDriver signDriver) {
+    setField(PlayerPermissionPlugin.class, plugin, "permissionDriver", permissionDriver);
+    setField(PlayerPermissionPlugin.class, plugin, "signDriver", signDriver);
+  }
+
+  /**
+   * Creates an online player stub which isn't an operator
+   *
+   * @param uuid The player uuid
+   * @param name The player name
+   * @return The player
+   * @since 1.0.0
+   */
+  public static Player createPlayer(UUID uuid, String name) {
+    return stub(
+        Player.class,
+        (proxy, method, args) ->
+            switch (method.getName()) {
+              case "getUniqueId" -> uuid;
+              case "getName" -> name;
+              case "isOnline" -> true;
+              case "hashCode" -> uuid.hashCode();
+              case "equals" -> proxy == args[0];
+              default -> defaultValue(method.getReturnType());
+            });
+  }
+
+  /**
+   * Creates a stub of an interface, calls not answered by the handler return empty values
+   *
+   * @param type The interface
+   * @param handler The handler or null to answer every call with an empty value
+   * @param <T> The interface type
+   * @return The stub
+   * @since 1.0.0
+   */
+  public static <T> T stub(Class<T> type, InvocationHandler handler) {
+    InvocationHandler stubHandler =
+        handler != null ? handler : (proxy, method, args) -> defaultValue(method.getReturnType());
+    return type.cast(
+        Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, stubHandler));
+  }
+
+  /**
+   * Returns the empty value of a type
+   *
+   * @param type The type
+   * @return The empty value
+   * @since 1.0.0
+   */
+  private static Object defaultValue(Class<?> type) {
+    // Primitives can't be null
+    if (type.isPrimitive()) {
+      return PRIMITIVE_DEFAULTS.get(type);
+    }
+    if (type == Set.class || type == Collection.class) {
+      return Set.of();
+    } else if (type == List.class) {
+      return List.of();
+    } else if (type == Map.class) {
+      return Map.of();
+    }
+    return null;
+  }
+
+  /**
+   * Creates the plugin with a data folder in the temporary directory, the folder isn't created
+   *
+   * @return The plugin
+   * @since 1.0.0
+   */
+  @SuppressWarnings("deprecation")
+  private static PlayerPermissionPlugin create() {
+    PluginDescriptionFile description =
+        new PluginDescriptionFile(
+            "PlayerPermissions", "fixture", PlayerPermissionPlugin.class.getName());
+    File dataFolder = new File(System.getProperty("java.io.tmpdir"), "PlayerPermissions");
+    File file = new File(dataFolder, "PlayerPermissions.jar");
+    return new PlayerPermissionPlugin(
+        new JavaPluginLoader(Bukkit.getServer()), description, dataFolder, file) {};
+  }
+
+  /**
+   * Sets a private field
+   *
+   * @param owner The class declaring the field
+   * @param instance The instance or null for static fields
+   * @param name The field name
+   * @param value The value
+   * @since 1.0.0
+   */
+  public static void setField(Class<?> owner, Object instance, String name, Object value) {
+    try {
+      Field field = owner.getDeclaredField(name);
+      field.setAccessible(true);
+      field.set(instance, value);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Could not set " + owner.getName() + "#" + name, e);
+    }
+  }
+}